@@ -0,0 +1,65 @@
+package com.example.musicplayer.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Compares two JMH JSON result files benchmark by benchmark (params included) and prints the score change.
+ * Exits with status 1 when any benchmark got worse by more than the threshold (-Dthreshold=10, in percent),
+ * so it can gate a CI step.
+ */
+public class BenchmarkDiff {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length != 2) {
+            System.err.println("Usage: BenchmarkDiff <baseline.json> <candidate.json>");
+            System.exit(2);
+        }
+        double threshold = Double.parseDouble(System.getProperty("threshold", "10"));
+        Map<String, JsonNode> baseline = load(new File(args[0]));
+        Map<String, JsonNode> candidate = load(new File(args[1]));
+
+        boolean regressed = false;
+        for (Map.Entry<String, JsonNode> entry : candidate.entrySet()) {
+            JsonNode before = baseline.get(entry.getKey());
+            JsonNode after = entry.getValue().get("primaryMetric");
+            if (before == null) {
+                System.out.printf("%-90s %14.3f %s (new)%n", entry.getKey(), after.get("score").asDouble(),
+                        after.get("scoreUnit").asText());
+                continue;
+            }
+            double old = before.get("primaryMetric").get("score").asDouble();
+            double now = after.get("score").asDouble();
+            double change = old == 0 ? 0 : (now - old) / old * 100;
+            // Throughput modes are better when higher, time modes when lower
+            boolean higherIsBetter = "thrpt".equals(entry.getValue().get("mode").asText());
+            double worse = higherIsBetter ? -change : change;
+            String flag = worse > threshold ? "  REGRESSION" : "";
+            regressed |= worse > threshold;
+            System.out.printf("%-90s %14.3f -> %14.3f %s %+7.1f%%%s%n", entry.getKey(), old, now,
+                    after.get("scoreUnit").asText(), change, flag);
+        }
+        System.exit(regressed ? 1 : 0);
+    }
+
+    private static Map<String, JsonNode> load(File file) throws Exception {
+        Map<String, JsonNode> results = new LinkedHashMap<>();
+        for (JsonNode run : new ObjectMapper().readTree(file)) {
+            StringBuilder key = new StringBuilder(run.get("benchmark").asText());
+            JsonNode params = run.get("params");
+            if (params != null) {
+                for (Iterator<Map.Entry<String, JsonNode>> it = params.fields(); it.hasNext(); ) {
+                    Map.Entry<String, JsonNode> param = it.next();
+                    key.append(' ').append(param.getKey()).append('=').append(param.getValue().asText());
+                }
+            }
+            results.put(key.toString(), run);
+        }
+        return results;
+    }
+}
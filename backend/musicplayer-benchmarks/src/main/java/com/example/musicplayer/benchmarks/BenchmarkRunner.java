@@ -0,0 +1,32 @@
+package com.example.musicplayer.benchmarks;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Runs JMH with the usual command-line options and always writes JSON results,
+ * by default to target/jmh-results.json (override with -Djmh.result=...).
+ * Keep one file per commit and compare them with {@link BenchmarkDiff}.
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        Path result = Path.of(System.getProperty("jmh.result", "target/jmh-results.json"));
+        if (result.getParent() != null) {
+            Files.createDirectories(result.getParent());
+        }
+
+        new Runner(new OptionsBuilder()
+                .parent(commandLine)
+                .resultFormat(ResultFormatType.JSON)
+                .result(result.toString())
+                .build()).run();
+        System.out.println("BenchmarkRunner - Results written to " + result.toAbsolutePath());
+    }
+}
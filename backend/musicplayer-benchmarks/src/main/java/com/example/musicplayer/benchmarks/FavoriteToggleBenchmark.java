@@ -0,0 +1,117 @@
+package com.example.musicplayer.benchmarks;
+
+import com.example.musicplayer.MusicplayerApplication;
+import com.example.musicplayer.model.Track;
+import com.example.musicplayer.model.User;
+import com.example.musicplayer.repository.TrackRepository;
+import com.example.musicplayer.repository.UserRepository;
+import com.example.musicplayer.service.MutationWriteBuffer;
+import com.example.musicplayer.service.UserService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * UserService.toggleFavorite against the real application context on in-memory H2.
+ * "toggle" is what the request thread pays (buffered write); "toggleAndFlush" adds the
+ * write-behind batch, i.e. the cost once the change is durable.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class FavoriteToggleBenchmark {
+
+    private static final int TRACKS = 500;
+
+    @State(Scope.Benchmark)
+    public static class App {
+        ConfigurableApplicationContext context;
+        UserService userService;
+        MutationWriteBuffer mutationWriteBuffer;
+        UserRepository userRepository;
+        long firstTrackId;
+        final AtomicInteger users = new AtomicInteger();
+
+        @Setup(Level.Trial)
+        public void start() {
+            // Command-line args, so they win over the MySQL settings in the app's application.properties
+            context = new SpringApplicationBuilder(MusicplayerApplication.class)
+                    .web(WebApplicationType.NONE)
+                    .run("--spring.datasource.url=jdbc:h2:mem:bench;MODE=MySQL;DB_CLOSE_DELAY=-1",
+                            "--spring.datasource.driver-class-name=org.h2.Driver",
+                            "--spring.datasource.username=sa",
+                            "--spring.datasource.password=",
+                            "--spring.jpa.hibernate.ddl-auto=create-drop",
+                            "--spring.jpa.show-sql=false",
+                            "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                            "--logging.level.root=WARN");
+            userService = context.getBean(UserService.class);
+            mutationWriteBuffer = context.getBean(MutationWriteBuffer.class);
+            userRepository = context.getBean(UserRepository.class);
+
+            TrackRepository trackRepository = context.getBean(TrackRepository.class);
+            for (int i = 0; i < TRACKS; i++) {
+                Track track = trackRepository.save(new Track(null, "Bench " + i, "Artist " + i, "bench" + i + ".mp3", null));
+                if (i == 0) {
+                    firstTrackId = track.getId();
+                }
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void stop() {
+            context.close();
+        }
+    }
+
+    // One user per benchmark thread, as with concurrent listeners
+    @State(Scope.Thread)
+    public static class Listener {
+        Long userId;
+
+        @Setup(Level.Trial)
+        public void register(App app) {
+            User user = new User();
+            user.setName("Bench " + app.users.incrementAndGet());
+            user.setEmail("bench-" + app.users.get() + "-" + System.nanoTime() + "@example.com");
+            user.setPassword("secret");
+            userId = app.userRepository.save(user).getId();
+        }
+    }
+
+    @Benchmark
+    public boolean toggle(App app, Listener listener) {
+        return app.userService.toggleFavorite(listener.userId, randomTrack(app));
+    }
+
+    @Benchmark
+    public boolean toggleAndFlush(App app, Listener listener) {
+        boolean favorite = app.userService.toggleFavorite(listener.userId, randomTrack(app));
+        app.mutationWriteBuffer.flushUser(listener.userId);
+        return favorite;
+    }
+
+    private long randomTrack(App app) {
+        return app.firstTrackId + ThreadLocalRandom.current().nextInt(TRACKS);
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.musicplayer.benchmarks;
+
+import com.example.musicplayer.dto.PlaylistDTO;
+import com.example.musicplayer.dto.TrackDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Jackson cost of the /api/user/playlists body as the library grows
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PlaylistSerializationBenchmark {
+
+    @Param({"1", "10", "100"})
+    private int playlists;
+
+    @Param({"10", "100"})
+    private int tracksPerPlaylist;
+
+    private ObjectWriter writer;
+    private List<PlaylistDTO> payload;
+
+    @Setup
+    public void setUp() {
+        writer = new ObjectMapper().writerFor(new ObjectMapper().getTypeFactory()
+                .constructCollectionType(List.class, PlaylistDTO.class));
+        payload = new ArrayList<>();
+        for (long p = 0; p < playlists; p++) {
+            List<TrackDTO> tracks = new ArrayList<>();
+            for (long t = 0; t < tracksPerPlaylist; t++) {
+                tracks.add(new TrackDTO(t, "Song " + t, "Artist " + t, "https://cdn.example.com/cover/" + t + ".jpg",
+                        "https://cdn.example.com/audio/" + t + ".mp3"));
+            }
+            payload.add(new PlaylistDTO(p, "Playlist " + p, tracks));
+        }
+    }
+
+    @Benchmark
+    public byte[] serialize() throws Exception {
+        return writer.writeValueAsBytes(payload);
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.musicplayer.benchmarks;
+
+import com.example.musicplayer.dto.PlaylistDTO;
+import com.example.musicplayer.dto.PlaylistTrackRow;
+import com.example.musicplayer.dto.TrackDTO;
+import com.example.musicplayer.dto.UserProfileResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Building UserProfileResponse from the flat projection rows UserService gets back (no database)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProfileMappingBenchmark {
+
+    @Param({"1", "10", "100"})
+    private int playlists;
+
+    @Param({"20"})
+    private int tracksPerPlaylist;
+
+    private List<TrackDTO> favorites;
+    private List<PlaylistTrackRow> rows;
+
+    @Setup
+    public void setUp() {
+        favorites = new ArrayList<>();
+        for (long i = 0; i < 50; i++) {
+            favorites.add(new TrackDTO(i, "Favorite " + i, "Artist " + i, "cover" + i, "track" + i + ".mp3"));
+        }
+        rows = new ArrayList<>();
+        for (long p = 0; p < playlists; p++) {
+            for (long t = 0; t < tracksPerPlaylist; t++) {
+                rows.add(new PlaylistTrackRow(p, "Playlist " + p, t, "Song " + t, "Artist " + t, "cover" + t, "song" + t + ".mp3"));
+            }
+        }
+    }
+
+    @Benchmark
+    public UserProfileResponse mapProfile() {
+        return new UserProfileResponse("Listener", "bench@example.com", LocalDate.of(2024, 1, 1),
+                favorites, PlaylistDTO.fromRows(rows));
+    }
+}
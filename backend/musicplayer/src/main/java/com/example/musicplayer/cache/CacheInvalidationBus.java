@@ -0,0 +1,169 @@
+package com.example.musicplayer.cache;
+
+import com.example.musicplayer.datasource.ReadYourWritesTracker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Carries {@link LibraryCache} invalidations to every other instance.
+ * Local invalidations are queued, de-duplicated (a whole-region drop also swallows pending
+ * single keys of that region) and sent as one batch per interval through the configured
+ * {@link InvalidationTransport}. Received messages drop near-cache entries only; the
+ * sender has already evicted the shared tier. Propagation lag is sender clock to
+ * receiver clock, so it includes any skew between hosts.
+ */
+@Component
+public class CacheInvalidationBus {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheInvalidationBus.class);
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final LibraryCache libraryCache;
+    private final InvalidationTransport transport;
+    private final ReadYourWritesTracker readYourWrites;
+    private final long batchIntervalMillis;
+    private final Counter published;
+    private final Counter deduplicated;
+    private final Counter received;
+    private final Timer lag;
+    private final ScheduledExecutorService sender = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "cache-invalidation-bus");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private Set<InvalidationMessage> pending = new LinkedHashSet<>();
+
+    public CacheInvalidationBus(LibraryCache libraryCache,
+                                InvalidationTransport transport,
+                                ReadYourWritesTracker readYourWrites,
+                                MeterRegistry meterRegistry,
+                                @Value("${musicplayer.cache.invalidation.batch-interval-ms:50}") long batchIntervalMillis) {
+        this.libraryCache = libraryCache;
+        this.transport = transport;
+        this.readYourWrites = readYourWrites;
+        this.batchIntervalMillis = batchIntervalMillis;
+        this.published = Counter.builder("cache.invalidation.published").register(meterRegistry);
+        this.deduplicated = Counter.builder("cache.invalidation.deduplicated").register(meterRegistry);
+        this.received = Counter.builder("cache.invalidation.received").register(meterRegistry);
+        this.lag = Timer.builder("cache.invalidation.lag")
+                .description("Time from invalidation on one instance to applying it on another")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        libraryCache.addInvalidationListener(this::enqueue);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        transport.start(this::receive);
+        sender.scheduleWithFixedDelay(this::flushQuietly, batchIntervalMillis, batchIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        sender.shutdown();
+        flushQuietly();
+        transport.stop();
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    private synchronized void enqueue(CacheRegion region, Object key) {
+        InvalidationMessage message = new InvalidationMessage(region.key(), key == null ? null : String.valueOf(key),
+                nodeId, System.currentTimeMillis());
+        if (!pending.add(message)) {
+            deduplicated.increment();
+        }
+    }
+
+    public void flush() {
+        List<InvalidationMessage> batch;
+        synchronized (this) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = collapse(pending);
+            pending = new LinkedHashSet<>();
+        }
+        try {
+            transport.publish(batch);
+            published.increment(batch.size());
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                batch.addAll(pending);
+                pending = new LinkedHashSet<>(batch);
+            }
+            throw e;
+        }
+    }
+
+    private List<InvalidationMessage> collapse(Set<InvalidationMessage> messages) {
+        Set<String> wholeRegions = new HashSet<>();
+        for (InvalidationMessage message : messages) {
+            if (message.getKey() == null) {
+                wholeRegions.add(message.getRegion());
+            }
+        }
+        List<InvalidationMessage> batch = new ArrayList<>(messages.size());
+        for (InvalidationMessage message : messages) {
+            if (message.getKey() != null && wholeRegions.contains(message.getRegion())) {
+                deduplicated.increment();
+            } else {
+                batch.add(message);
+            }
+        }
+        return batch;
+    }
+
+    private void receive(List<InvalidationMessage> batch) {
+        long now = System.currentTimeMillis();
+        for (InvalidationMessage message : batch) {
+            if (nodeId.equals(message.getOrigin())) {
+                continue;
+            }
+            try {
+                CacheRegion region = CacheRegion.fromKey(message.getRegion());
+                Object key = message.getKey() == null ? null : region.parseKey(message.getKey());
+                libraryCache.invalidateLocal(region, key);
+                // The user wrote through another instance; keep their reads here off the replicas too
+                if (key instanceof Long userId && (region == CacheRegion.USER_FAVORITES || region == CacheRegion.USER_PLAYLISTS)) {
+                    readYourWrites.markWritten(userId);
+                }
+            } catch (IllegalArgumentException e) {
+                // region or key from a newer/older build; skip rather than block the batch
+                log.warn("Skipping invalidation: {}", e.getMessage());
+                continue;
+            }
+            received.increment();
+            lag.record(Math.max(0, now - message.getCreatedAt()), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.warn("Publish failed, will retry: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.musicplayer.cache;
+
+/**
+ * Named regions of {@link LibraryCache}. Each region gets its own near cache, bounded by
+ * musicplayer.cache.&lt;key&gt;.max-size (list values weigh one per element) and
+ * expiring after musicplayer.cache.&lt;key&gt;.ttl-seconds.
+ */
+public enum CacheRegion {
+    TRACK("track", 50_000, 3600, true),              // track id -> Track
+    TRACK_PAGE("track-page", 100_000, 60, false),    // catalog cursor + size -> TrackPage
+    USER_FAVORITES("user-favorites", 500_000, 600, true),   // user id -> List<TrackDTO>
+    USER_PLAYLISTS("user-playlists", 500_000, 600, true);   // user id -> List<PlaylistDTO>
+
+    private final String key;
+    private final long defaultMaxSize;
+    private final long defaultTtlSeconds;
+    private final boolean idKeys;
+
+    CacheRegion(String key, long defaultMaxSize, long defaultTtlSeconds, boolean idKeys) {
+        this.key = key;
+        this.defaultMaxSize = defaultMaxSize;
+        this.defaultTtlSeconds = defaultTtlSeconds;
+        this.idKeys = idKeys;
+    }
+
+    public static CacheRegion fromKey(String key) {
+        for (CacheRegion region : values()) {
+            if (region.key.equals(key)) {
+                return region;
+            }
+        }
+        throw new IllegalArgumentException("Unknown cache region: " + key);
+    }
+
+    // Turns a key that went over the wire as text back into the type the near cache holds
+    public Object parseKey(String raw) {
+        return idKeys ? Long.valueOf(raw) : raw;
+    }
+
+    public String key() {
+        return key;
+    }
+
+    public long defaultMaxSize() {
+        return defaultMaxSize;
+    }
+
+    public long defaultTtlSeconds() {
+        return defaultTtlSeconds;
+    }
+}
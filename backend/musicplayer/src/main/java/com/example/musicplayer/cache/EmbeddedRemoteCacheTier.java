@@ -0,0 +1,62 @@
+package com.example.musicplayer.cache;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-process stand-in for a shared cache server, for tests and single-node runs.
+ * Enable with musicplayer.cache.remote-tier=embedded.
+ */
+@Component
+@ConditionalOnProperty(name = "musicplayer.cache.remote-tier", havingValue = "embedded")
+public class EmbeddedRemoteCacheTier implements RemoteCacheTier {
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+    @Override
+    public Object get(String region, Object key) {
+        String id = id(region, key);
+        Entry entry = entries.get(id);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt <= System.currentTimeMillis()) {
+            entries.remove(id, entry);
+            return null;
+        }
+        return entry.value;
+    }
+
+    @Override
+    public void put(String region, Object key, Object value, Duration ttl) {
+        entries.put(id(region, key), new Entry(value, System.currentTimeMillis() + ttl.toMillis()));
+    }
+
+    @Override
+    public void evict(String region, Object key) {
+        entries.remove(id(region, key));
+    }
+
+    @Override
+    public void evictAll(String region) {
+        String prefix = region + ":";
+        entries.keySet().removeIf(id -> id.startsWith(prefix));
+    }
+
+    private static String id(String region, Object key) {
+        return region + ":" + key;
+    }
+
+    private static final class Entry {
+        private final Object value;
+        private final long expiresAt;
+
+        private Entry(Object value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.musicplayer.cache;
+
+import java.util.Objects;
+
+// One cache invalidation as it travels between instances; key is null for a whole region
+public final class InvalidationMessage {
+
+    private final String region;
+    private final String key;
+    private final String origin;     // node id of the sender, so it can skip its own messages
+    private final long createdAt;    // sender wall clock, for the propagation-lag metric
+
+    public InvalidationMessage(String region, String key, String origin, long createdAt) {
+        this.region = region;
+        this.key = key;
+        this.origin = origin;
+        this.createdAt = createdAt;
+    }
+
+    public String getRegion() {
+        return region;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public String getOrigin() {
+        return origin;
+    }
+
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    // Identity for de-duplication ignores when and by whom
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof InvalidationMessage other)) {
+            return false;
+        }
+        return region.equals(other.region) && Objects.equals(key, other.key);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(region, key);
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.musicplayer.cache;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * How {@link CacheInvalidationBus} moves invalidation batches between instances.
+ * Implementations deliver at least once; receivers treat repeats as harmless. A transport
+ * may hand a node its own messages back; the bus filters them by origin.
+ */
+public interface InvalidationTransport {
+
+    void start(Consumer<List<InvalidationMessage>> receiver);
+
+    void publish(List<InvalidationMessage> batch);
+
+    void stop();
+}
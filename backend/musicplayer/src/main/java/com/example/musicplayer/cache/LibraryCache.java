@@ -0,0 +1,238 @@
+package com.example.musicplayer.cache;
+
+import com.example.musicplayer.dto.TrackPage;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache in front of the catalog and per-user repositories.
+ * Tier one is an in-process Caffeine cache per {@link CacheRegion} (W-TinyLFU admission,
+ * size-bounded, per-region TTL); tier two is an optional {@link RemoteCacheTier} shared
+ * between instances. Writers call {@link #invalidate} after their change is committed.
+ * Every invalidation also bumps its region's generation, so a reader that loads outside
+ * {@link #get} can tell whether its value went stale while it was loading.
+ * Cached values are shared between requests and must be treated as read-only.
+ */
+@Component
+public class LibraryCache {
+
+    private static final Logger log = LoggerFactory.getLogger(LibraryCache.class);
+
+    private final boolean enabled;
+    private final RemoteCacheTier remote; // null when no second tier is configured
+    private final Map<CacheRegion, Cache<Object, Object>> near = new EnumMap<>(CacheRegion.class);
+    private final Map<CacheRegion, Duration> ttls = new EnumMap<>(CacheRegion.class);
+    private final Map<CacheRegion, Counter> remoteHits = new EnumMap<>(CacheRegion.class);
+    private final Map<CacheRegion, Counter> remoteMisses = new EnumMap<>(CacheRegion.class);
+    private final Map<CacheRegion, AtomicLong> generations = new EnumMap<>(CacheRegion.class);
+    private final List<InvalidationListener> invalidationListeners = new CopyOnWriteArrayList<>();
+
+    public LibraryCache(MeterRegistry meterRegistry,
+                        Environment environment,
+                        ObjectProvider<RemoteCacheTier> remoteTier,
+                        @Value("${musicplayer.cache.enabled:true}") boolean enabled) {
+        this.enabled = enabled;
+        this.remote = remoteTier.getIfAvailable();
+
+        for (CacheRegion region : CacheRegion.values()) {
+            String prefix = "musicplayer.cache." + region.key();
+            long maxSize = environment.getProperty(prefix + ".max-size", Long.class, region.defaultMaxSize());
+            Duration ttl = Duration.ofSeconds(environment.getProperty(prefix + ".ttl-seconds", Long.class, region.defaultTtlSeconds()));
+
+            Cache<Object, Object> cache = Caffeine.newBuilder()
+                    .maximumWeight(maxSize)
+                    .weigher((Object key, Object value) -> weigh(value))
+                    .expireAfterWrite(ttl)
+                    .recordStats()
+                    .build();
+            near.put(region, cache);
+            ttls.put(region, ttl);
+            generations.put(region, new AtomicLong());
+
+            CaffeineCacheMetrics.monitor(meterRegistry, cache, region.key(), "tier", "near");
+            remoteHits.put(region, Counter.builder("cache.remote.gets").tag("cache", region.key()).tag("result", "hit")
+                    .register(meterRegistry));
+            remoteMisses.put(region, Counter.builder("cache.remote.gets").tag("cache", region.key()).tag("result", "miss")
+                    .register(meterRegistry));
+        }
+    }
+
+    // Null results are returned but never cached
+    @SuppressWarnings("unchecked")
+    public <T> T get(CacheRegion region, Object key, Supplier<T> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        return (T) near.get(region).get(key, k -> loadThrough(region, k, loader));
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T getIfPresent(CacheRegion region, Object key) {
+        if (!enabled) {
+            return null;
+        }
+        Object value = near.get(region).getIfPresent(key);
+        if (value == null && remote != null) {
+            value = remoteGet(region, key);
+            if (value != null) {
+                near.get(region).put(key, value);
+            }
+        }
+        return (T) value;
+    }
+
+    // Read before loading a value to hand to put()
+    public long generation(CacheRegion region) {
+        return generations.get(region).get();
+    }
+
+    // Skipped if the region was invalidated since generation was read: the value may predate that write
+    public void put(CacheRegion region, Object key, Object value, long generation) {
+        AtomicLong current = generations.get(region);
+        if (!enabled || value == null || current.get() != generation) {
+            return;
+        }
+        near.get(region).put(key, value);
+        // An invalidation that raced the put may have dropped the key before the value landed
+        if (current.get() != generation) {
+            near.get(region).invalidate(key);
+            return;
+        }
+        if (remote != null) {
+            remote.put(region.key(), key, value, ttls.get(region));
+            if (current.get() != generation) {
+                remote.evict(region.key(), key);
+            }
+        }
+    }
+
+    public void invalidate(CacheRegion region, Object key) {
+        generations.get(region).incrementAndGet();
+        near.get(region).invalidate(key);
+        if (remote != null) {
+            remote.evict(region.key(), key);
+        }
+        invalidationListeners.forEach(listener -> listener.invalidated(region, key));
+    }
+
+    // Track rows are embedded in the per-user lists too, so a metadata change drops those as well
+    public void invalidateCatalog() {
+        invalidateAll(CacheRegion.TRACK);
+        invalidateAll(CacheRegion.TRACK_PAGE);
+        invalidateAll(CacheRegion.USER_FAVORITES);
+        invalidateAll(CacheRegion.USER_PLAYLISTS);
+    }
+
+    // Inside a transaction the entry is dropped only once it commits, so a concurrent read can't re-cache the old rows
+    public void invalidateAfterCommit(CacheRegion region, Object key) {
+        afterCommit(() -> invalidate(region, key));
+    }
+
+    public void invalidateAllAfterCommit(CacheRegion region) {
+        afterCommit(() -> invalidateAll(region));
+    }
+
+    public void invalidateCatalogAfterCommit() {
+        afterCommit(this::invalidateCatalog);
+    }
+
+    public void invalidateAll(CacheRegion region) {
+        generations.get(region).incrementAndGet();
+        near.get(region).invalidateAll();
+        if (remote != null) {
+            remote.evictAll(region.key());
+        }
+        invalidationListeners.forEach(listener -> listener.invalidated(region, null));
+    }
+
+    // Near tier only, without notifying listeners: applies an invalidation another instance
+    // already made (and already pushed to the shared tier)
+    public void invalidateLocal(CacheRegion region, Object key) {
+        generations.get(region).incrementAndGet();
+        if (key == null) {
+            near.get(region).invalidateAll();
+        } else {
+            near.get(region).invalidate(key);
+        }
+    }
+
+    public void addInvalidationListener(InvalidationListener listener) {
+        invalidationListeners.add(listener);
+    }
+
+    @FunctionalInterface
+    public interface InvalidationListener {
+        // key is null when the whole region was dropped
+        void invalidated(CacheRegion region, Object key);
+    }
+
+    private void afterCommit(Runnable invalidation) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidation.run();
+                }
+            });
+        } else {
+            invalidation.run();
+        }
+    }
+
+    private Object loadThrough(CacheRegion region, Object key, Supplier<?> loader) {
+        if (remote != null) {
+            Object value = remoteGet(region, key);
+            if (value != null) {
+                return value;
+            }
+        }
+        Object value = loader.get();
+        if (value != null && remote != null) {
+            remote.put(region.key(), key, value, ttls.get(region));
+        }
+        return value;
+    }
+
+    // A broken second tier degrades to near-cache-only rather than failing reads
+    private Object remoteGet(CacheRegion region, Object key) {
+        Object value;
+        try {
+            value = remote.get(region.key(), key);
+        } catch (RuntimeException e) {
+            log.warn("Remote tier read failed for {}: {}", region.key(), e.getMessage());
+            value = null;
+        }
+        (value == null ? remoteMisses : remoteHits).get(region).increment();
+        return value;
+    }
+
+    private static int weigh(Object value) {
+        if (value instanceof Collection<?> collection) {
+            return collection.size() + 1;
+        }
+        if (value instanceof TrackPage page) {
+            return page.getItems().size() + 1;
+        }
+        return 1;
+    }
+}
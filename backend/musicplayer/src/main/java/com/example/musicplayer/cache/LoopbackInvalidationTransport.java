@@ -0,0 +1,42 @@
+package com.example.musicplayer.cache;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * In-memory transport: every instance in this JVM receives every batch, synchronously.
+ * The default for a single node, and lets tests run several buses side by side.
+ */
+@Component
+@ConditionalOnProperty(name = "musicplayer.cache.invalidation.transport", havingValue = "loopback", matchIfMissing = true)
+public class LoopbackInvalidationTransport implements InvalidationTransport {
+
+    private static final List<LoopbackInvalidationTransport> CONNECTED = new CopyOnWriteArrayList<>();
+
+    private volatile Consumer<List<InvalidationMessage>> receiver;
+
+    @Override
+    public void start(Consumer<List<InvalidationMessage>> receiver) {
+        this.receiver = receiver;
+        CONNECTED.add(this);
+    }
+
+    @Override
+    public void publish(List<InvalidationMessage> batch) {
+        for (LoopbackInvalidationTransport transport : CONNECTED) {
+            Consumer<List<InvalidationMessage>> target = transport.receiver;
+            if (target != null) {
+                target.accept(batch);
+            }
+        }
+    }
+
+    @Override
+    public void stop() {
+        CONNECTED.remove(this);
+    }
+}
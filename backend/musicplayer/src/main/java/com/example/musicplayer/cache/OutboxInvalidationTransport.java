@@ -0,0 +1,110 @@
+package com.example.musicplayer.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Database outbox transport for instances that share the MySQL schema but not a network
+ * segment (load balancers rarely pass multicast). Batches are inserted into
+ * cache_invalidations and every instance polls for ids past its high-water mark.
+ * Auto-increment ids can commit out of order, so each poll re-reads a small window below
+ * the mark and skips ids it has already delivered.
+ */
+@Component
+@ConditionalOnProperty(name = "musicplayer.cache.invalidation.transport", havingValue = "outbox")
+public class OutboxInvalidationTransport implements InvalidationTransport {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxInvalidationTransport.class);
+
+    private static final String INSERT_SQL =
+            "INSERT INTO cache_invalidations (region, cache_key, origin, created_at) VALUES (?, ?, ?, ?)";
+    private static final String POLL_SQL =
+            "SELECT id, region, cache_key, origin, created_at FROM cache_invalidations WHERE id > ? ORDER BY id LIMIT 1000";
+    private static final String PRUNE_SQL = "DELETE FROM cache_invalidations WHERE created_at < ?";
+    private static final long REREAD_WINDOW = 256;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final long pollIntervalMillis;
+    private final long retentionMillis;
+    private final NavigableSet<Long> delivered = new ConcurrentSkipListSet<>();
+    private final ScheduledExecutorService poller = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "cache-invalidation-outbox");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile long highWater;
+
+    public OutboxInvalidationTransport(JdbcTemplate jdbcTemplate,
+                                       @Value("${musicplayer.cache.invalidation.outbox.poll-interval-ms:250}") long pollIntervalMillis,
+                                       @Value("${musicplayer.cache.invalidation.outbox.retention-minutes:10}") long retentionMinutes) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.pollIntervalMillis = pollIntervalMillis;
+        this.retentionMillis = TimeUnit.MINUTES.toMillis(retentionMinutes);
+    }
+
+    @Override
+    public void start(Consumer<List<InvalidationMessage>> receiver) {
+        // Only what is published from now on; near caches start empty anyway
+        Long max = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM cache_invalidations", Long.class);
+        highWater = max == null ? 0 : max;
+        poller.scheduleWithFixedDelay(() -> pollQuietly(receiver), pollIntervalMillis, pollIntervalMillis, TimeUnit.MILLISECONDS);
+        poller.scheduleWithFixedDelay(this::pruneQuietly, 1, 1, TimeUnit.MINUTES);
+    }
+
+    @Override
+    public void publish(List<InvalidationMessage> batch) {
+        List<Object[]> rows = new ArrayList<>(batch.size());
+        for (InvalidationMessage message : batch) {
+            rows.add(new Object[]{message.getRegion(), message.getKey(), message.getOrigin(), message.getCreatedAt()});
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+    }
+
+    @Override
+    public void stop() {
+        poller.shutdownNow();
+    }
+
+    private void pollQuietly(Consumer<List<InvalidationMessage>> receiver) {
+        try {
+            List<InvalidationMessage> batch = new ArrayList<>();
+            long[] max = {highWater};
+            jdbcTemplate.query(POLL_SQL, rs -> {
+                long id = rs.getLong(1);
+                max[0] = Math.max(max[0], id);
+                if (delivered.add(id)) {
+                    batch.add(new InvalidationMessage(rs.getString(2), rs.getString(3), rs.getString(4), rs.getLong(5)));
+                }
+            }, Math.max(0, highWater - REREAD_WINDOW));
+            highWater = max[0];
+            delivered.headSet(highWater - REREAD_WINDOW, true).clear();
+            if (!batch.isEmpty()) {
+                receiver.accept(batch);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Poll failed: {}", e.getMessage());
+        }
+    }
+
+    private void pruneQuietly() {
+        try {
+            jdbcTemplate.update(PRUNE_SQL, System.currentTimeMillis() - retentionMillis);
+        } catch (RuntimeException e) {
+            log.warn("Prune failed: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.musicplayer.cache;
+
+import java.time.Duration;
+
+/**
+ * Optional second tier shared by all backend instances (e.g. Redis or Memcached).
+ * {@link LibraryCache} consults it on a near-cache miss and writes loaded values through.
+ * Implementations own serialization and must not throw on a miss; returning null is a miss.
+ */
+public interface RemoteCacheTier {
+
+    Object get(String region, Object key);
+
+    void put(String region, Object key, Object value, Duration ttl);
+
+    void evict(String region, Object key);
+
+    void evictAll(String region);
+}
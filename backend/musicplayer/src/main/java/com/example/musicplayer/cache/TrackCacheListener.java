@@ -0,0 +1,33 @@
+package com.example.musicplayer.cache;
+
+import com.example.musicplayer.model.Track;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Drops cached catalog data on JPA writes to Track, once the write commits: dropping it at
+ * flush time would let a concurrent read re-cache the old row before the commit. Bulk JDBC
+ * writers (import, library scan) invalidate through {@link LibraryCache} themselves.
+ */
+@Component
+public class TrackCacheListener {
+
+    private final LibraryCache libraryCache;
+
+    public TrackCacheListener(LibraryCache libraryCache) {
+        this.libraryCache = libraryCache;
+    }
+
+    @PostPersist
+    public void onCreate(Track track) {
+        libraryCache.invalidateAllAfterCommit(CacheRegion.TRACK_PAGE);
+    }
+
+    @PostUpdate
+    @PostRemove
+    public void onChange(Track track) {
+        libraryCache.invalidateCatalogAfterCommit();
+    }
+}
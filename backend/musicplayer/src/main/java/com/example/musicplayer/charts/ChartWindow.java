@@ -0,0 +1,37 @@
+package com.example.musicplayer.charts;
+
+import java.util.concurrent.TimeUnit;
+
+// Chart windows and how finely each is sliced; finer slices expire old activity more smoothly
+public enum ChartWindow {
+    HOUR("1h", TimeUnit.HOURS.toMillis(1), 12),
+    DAY("24h", TimeUnit.DAYS.toMillis(1), 24),
+    WEEK("7d", TimeUnit.DAYS.toMillis(7), 28);
+
+    private final String param;
+    private final long millis;
+    private final int slices;
+
+    ChartWindow(String param, long millis, int slices) {
+        this.param = param;
+        this.millis = millis;
+        this.slices = slices;
+    }
+
+    public static ChartWindow fromParam(String param) {
+        for (ChartWindow window : values()) {
+            if (window.param.equalsIgnoreCase(param)) {
+                return window;
+            }
+        }
+        throw new RuntimeException("Unknown chart window: " + param + " (use 1h, 24h or 7d)");
+    }
+
+    public long getMillis() {
+        return millis;
+    }
+
+    public int getSlices() {
+        return slices;
+    }
+}
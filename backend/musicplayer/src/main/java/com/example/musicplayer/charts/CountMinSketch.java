@@ -0,0 +1,58 @@
+package com.example.musicplayer.charts;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Count-Min sketch over track ids: depth rows of width counters, each estimate the minimum of
+ * the track's cell in every row. Never under-counts; over-counts by at most about
+ * e/width of the total with probability 1 - e^-depth. Cells are atomic adds, so any number
+ * of writers and readers can share one sketch without a lock.
+ */
+final class CountMinSketch {
+
+    private static final long[] SEEDS = {
+            0x9E3779B97F4A7C15L, 0xC2B2AE3D27D4EB4FL, 0x165667B19E3779F9L, 0xD6E8FEB86659FD93L,
+            0xFF51AFD7ED558CCDL, 0xC4CEB9FE1A85EC53L, 0x94D049BB133111EBL, 0xBF58476D1CE4E5B9L
+    };
+
+    private final int depth;
+    private final int mask;
+    private final AtomicLongArray cells;
+
+    // width is rounded up to a power of two
+    CountMinSketch(int depth, int width) {
+        if (depth < 1 || depth > SEEDS.length) {
+            throw new IllegalArgumentException("depth must be 1.." + SEEDS.length);
+        }
+        int columns = Integer.highestOneBit(Math.max(width - 1, 1)) << 1;
+        this.depth = depth;
+        this.mask = columns - 1;
+        this.cells = new AtomicLongArray(depth * columns);
+    }
+
+    // Returns the estimate after the add
+    long add(long trackId, long count) {
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, cells.addAndGet(cell(row, trackId), count));
+        }
+        return estimate;
+    }
+
+    long estimate(long trackId) {
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, cells.get(cell(row, trackId)));
+        }
+        return estimate;
+    }
+
+    private int cell(int row, long trackId) {
+        // murmur3 finalizer, seeded per row
+        long h = trackId ^ SEEDS[row];
+        h = (h ^ (h >>> 33)) * 0xFF51AFD7ED558CCDL;
+        h = (h ^ (h >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return row * (mask + 1) + (int) (h & mask);
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.musicplayer.charts;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-track activity over a sliding window, kept as a ring of time slices. Each slice is a
+ * Count-Min sketch plus a bounded set of heavy-hitter candidates, so memory depends on the
+ * sketch size and not on the catalog. When a candidate set outgrows its cap it is cut back to
+ * the best {@code keep}, and the k-th best estimate becomes the bar a newcomer has to beat:
+ * a track that gets hot late still gets in, however long the tail before it. A write lands in
+ * the slice for its own timestamp; the first write of a new slice swaps a fresh one into the
+ * ring with a CAS, which also expires whatever that slot held. Nothing here takes a lock.
+ */
+final class SlidingWindowCounter {
+
+    private final long sliceMillis;
+    private final int sliceCount;
+    private final int sketchDepth;
+    private final int sketchWidth;
+    private final int keep;
+    private final int candidateCap;
+    private final AtomicReferenceArray<Slice> ring;
+
+    // Each slice keeps at least keep candidates and at most a few times that
+    SlidingWindowCounter(long windowMillis, int sliceCount, int sketchDepth, int sketchWidth, int keep) {
+        this.sliceMillis = windowMillis / sliceCount;
+        this.sliceCount = sliceCount;
+        this.sketchDepth = sketchDepth;
+        this.sketchWidth = sketchWidth;
+        this.keep = Math.max(keep, 1);
+        this.candidateCap = this.keep * 4;
+        this.ring = new AtomicReferenceArray<>(sliceCount);
+    }
+
+    void add(long trackId, long count, long timestamp) {
+        long sliceId = timestamp / sliceMillis;
+        int slot = (int) (sliceId % sliceCount);
+        Slice slice = ring.get(slot);
+        while (slice == null || slice.id < sliceId) {
+            Slice fresh = new Slice(sliceId);
+            if (ring.compareAndSet(slot, slice, fresh)) {
+                slice = fresh;
+            } else {
+                slice = ring.get(slot);
+            }
+        }
+        if (slice.id != sliceId) {
+            return; // older than the window
+        }
+        long estimate = slice.sketch.add(trackId, count);
+        slice.total.add(count);
+        // Tracks are remembered by id once they beat the slice's bar (zero until the first cut)
+        if (estimate > slice.admission && slice.candidates.putIfAbsent(trackId, Boolean.TRUE) == null
+                && slice.candidates.size() > candidateCap) {
+            cut(slice);
+        }
+    }
+
+    long estimate(long trackId, long now) {
+        long sum = 0;
+        for (Slice slice : live(now)) {
+            sum += slice.sketch.estimate(trackId);
+        }
+        return sum;
+    }
+
+    long total(long now) {
+        long sum = 0;
+        for (Slice slice : live(now)) {
+            sum += slice.total.sum();
+        }
+        return sum;
+    }
+
+    Set<Long> candidates(long now) {
+        Set<Long> union = new HashSet<>();
+        for (Slice slice : live(now)) {
+            union.addAll(slice.candidates.keySet());
+        }
+        return union;
+    }
+
+    // One writer cuts at a time; the others carry on, so the set may briefly run over the cap
+    private void cut(Slice slice) {
+        if (!slice.cutting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            long[] estimates = slice.candidates.keySet().stream().mapToLong(slice.sketch::estimate).sorted().toArray();
+            if (estimates.length <= keep) {
+                return;
+            }
+            long bar = estimates[estimates.length - keep];
+            slice.admission = Math.max(slice.admission, bar);
+            slice.candidates.keySet().removeIf(trackId -> slice.sketch.estimate(trackId) < bar);
+        } finally {
+            slice.cutting.set(false);
+        }
+    }
+
+    private List<Slice> live(long now) {
+        long current = now / sliceMillis;
+        List<Slice> live = new ArrayList<>(sliceCount);
+        for (int i = 0; i < sliceCount; i++) {
+            Slice slice = ring.get(i);
+            if (slice != null && slice.id > current - sliceCount && slice.id <= current) {
+                live.add(slice);
+            }
+        }
+        return live;
+    }
+
+    private final class Slice {
+        private final long id;
+        private final CountMinSketch sketch = new CountMinSketch(sketchDepth, sketchWidth);
+        private final LongAdder total = new LongAdder();
+        private final ConcurrentHashMap<Long, Boolean> candidates = new ConcurrentHashMap<>();
+        private final AtomicBoolean cutting = new AtomicBoolean();
+        private volatile long admission;
+
+        private Slice(long id) {
+            this.id = id;
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package com.example.musicplayer.charts;
+
+import com.example.musicplayer.plays.PlayEvent;
+import com.example.musicplayer.plays.PlayEventConsumer;
+import com.example.musicplayer.plays.PlayLog;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Top and trending charts over plays (from the play log) and new favorites (from committed
+ * write-behind flushes). Activity goes into one {@link SlidingWindowCounter} per chart window;
+ * a publisher thread re-ranks only the heavy-hitter candidates every few seconds and swaps in
+ * immutable results, so reads are a volatile load and never wait on writers.
+ * Trending compares the last hour against the day's hourly average.
+ */
+@Component
+public class TrendingCharts implements PlayEventConsumer {
+
+    private static final Logger log = LoggerFactory.getLogger(TrendingCharts.class);
+
+    private final Map<ChartWindow, SlidingWindowCounter> counters = new EnumMap<>(ChartWindow.class);
+    private final int chartSize;
+    private final long favoriteWeight;
+    private final long minTrendingCount;
+    private final long refreshSeconds;
+    private final ScheduledExecutorService publisher = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "chart-publisher");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile Map<ChartWindow, long[]> top = new EnumMap<>(ChartWindow.class);
+    private volatile long[] trending = new long[0];
+
+    public TrendingCharts(@Value("${musicplayer.charts.size:100}") int chartSize,
+                          @Value("${musicplayer.charts.sketch-depth:4}") int sketchDepth,
+                          @Value("${musicplayer.charts.sketch-width:4096}") int sketchWidth,
+                          @Value("${musicplayer.charts.favorite-weight:3}") long favoriteWeight,
+                          @Value("${musicplayer.charts.min-trending-count:5}") long minTrendingCount,
+                          @Value("${musicplayer.charts.refresh-seconds:5}") long refreshSeconds) {
+        this.chartSize = chartSize;
+        this.favoriteWeight = favoriteWeight;
+        this.minTrendingCount = minTrendingCount;
+        this.refreshSeconds = refreshSeconds;
+        for (ChartWindow window : ChartWindow.values()) {
+            // Each slice keeps at least the chart size, so a track strong across many slices isn't lost
+            counters.put(window, new SlidingWindowCounter(window.getMillis(), window.getSlices(),
+                    sketchDepth, sketchWidth, chartSize));
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        publisher.scheduleWithFixedDelay(this::publishQuietly, refreshSeconds, refreshSeconds, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        publisher.shutdownNow();
+    }
+
+    @Override
+    public String name() {
+        return "charts";
+    }
+
+    // In memory only: replay whatever the log still holds; plays older than the widest window are dropped
+    @Override
+    public long resumeFrom(PlayLog playLog) {
+        return playLog.getFirstOffset();
+    }
+
+    @Override
+    public void consume(List<PlayEvent> events, long nextOffset) {
+        for (PlayEvent event : events) {
+            record(event.getTrackId(), 1, event.getPlayedAt());
+        }
+    }
+
+    // Called after a favorites flush commits, with the rows it changed; only new likes count as activity
+    public void onFavoritesChanged(Map<Long, Map<Long, Boolean>> favorites) {
+        long now = System.currentTimeMillis();
+        favorites.values().forEach(tracks -> tracks.forEach((trackId, favorite) -> {
+            if (favorite) {
+                record(trackId, favoriteWeight, now);
+            }
+        }));
+    }
+
+    public long[] top(ChartWindow window, int limit) {
+        return head(top.getOrDefault(window, new long[0]), limit);
+    }
+
+    public long[] trending(int limit) {
+        return head(trending, limit);
+    }
+
+    public void publish() {
+        long now = System.currentTimeMillis();
+        Map<ChartWindow, long[]> published = new EnumMap<>(ChartWindow.class);
+        for (ChartWindow window : ChartWindow.values()) {
+            published.put(window, rank(counters.get(window), now));
+        }
+        top = published;
+        trending = rankTrending(now);
+    }
+
+    private void record(long trackId, long count, long timestamp) {
+        for (SlidingWindowCounter counter : counters.values()) {
+            counter.add(trackId, count, timestamp);
+        }
+    }
+
+    private long[] rank(SlidingWindowCounter counter, long now) {
+        Ranking ranking = new Ranking(chartSize);
+        for (Long trackId : counter.candidates(now)) {
+            ranking.offer(trackId, counter.estimate(trackId, now));
+        }
+        return ranking.drain();
+    }
+
+    // Score = plays this hour over the average hour of the last day, smoothed so a cold track needs real volume
+    private long[] rankTrending(long now) {
+        SlidingWindowCounter hour = counters.get(ChartWindow.HOUR);
+        SlidingWindowCounter day = counters.get(ChartWindow.DAY);
+        Ranking ranking = new Ranking(chartSize);
+        for (Long trackId : hour.candidates(now)) {
+            long recent = hour.estimate(trackId, now);
+            if (recent < minTrendingCount) {
+                continue;
+            }
+            long earlier = Math.max(day.estimate(trackId, now) - recent, 0);
+            double baseline = (double) earlier / (ChartWindow.DAY.getMillis() / ChartWindow.HOUR.getMillis() - 1);
+            ranking.offer(trackId, recent / (baseline + minTrendingCount));
+        }
+        return ranking.drain();
+    }
+
+    private void publishQuietly() {
+        try {
+            publish();
+        } catch (RuntimeException e) {
+            log.warn("Publish failed: {}", e.getMessage());
+        }
+    }
+
+    private static long[] head(long[] chart, int limit) {
+        long[] result = new long[Math.max(0, Math.min(limit, chart.length))];
+        System.arraycopy(chart, 0, result, 0, result.length);
+        return result;
+    }
+
+    // Bounded min-heap keeping the best k; ties go to the lower track id so charts are stable
+    private static final class Ranking {
+        private static final Comparator<Entry> WORST_FIRST =
+                Comparator.comparingDouble((Entry entry) -> entry.score).thenComparingLong(entry -> -entry.trackId);
+
+        private final int k;
+        private final PriorityQueue<Entry> heap = new PriorityQueue<>(WORST_FIRST);
+
+        Ranking(int k) {
+            this.k = k;
+        }
+
+        void offer(long trackId, double score) {
+            if (score <= 0 || k <= 0) {
+                return;
+            }
+            heap.offer(new Entry(trackId, score));
+            if (heap.size() > k) {
+                heap.poll();
+            }
+        }
+
+        long[] drain() {
+            long[] trackIds = new long[heap.size()];
+            for (int i = trackIds.length - 1; i >= 0; i--) {
+                trackIds[i] = heap.poll().trackId;
+            }
+            return trackIds;
+        }
+    }
+
+    private static final class Entry {
+        private final long trackId;
+        private final double score;
+
+        private Entry(long trackId, double score) {
+            this.trackId = trackId;
+            this.score = score;
+        }
+    }
+}
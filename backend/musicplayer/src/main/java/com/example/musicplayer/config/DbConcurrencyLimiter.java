@@ -0,0 +1,132 @@
+package com.example.musicplayer.config;
+
+import com.example.musicplayer.exception.ServiceBusyException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Caps how many threads may hold a JDBC connection at once.
+ * With virtual threads there is no request-thread limit left in front of the pool, so
+ * thousands of requests can pile onto Hikari's wait queue and time out together; this
+ * semaphore turns that into a short bounded wait and then a 503 with Retry-After.
+ * Off unless musicplayer.db.max-concurrent is positive (the virtual profile sets it).
+ */
+@Component
+public class DbConcurrencyLimiter implements BeanPostProcessor {
+
+    private static final Logger log = LoggerFactory.getLogger(DbConcurrencyLimiter.class);
+
+    private final int maxConcurrent;
+    private final long acquireTimeoutMillis;
+    private final long retryAfterSeconds;
+
+    public DbConcurrencyLimiter(@Value("${musicplayer.db.max-concurrent:0}") int maxConcurrent,
+                                @Value("${musicplayer.db.acquire-timeout-ms:2000}") long acquireTimeoutMillis,
+                                @Value("${musicplayer.db.retry-after-seconds:2}") long retryAfterSeconds) {
+        this.maxConcurrent = maxConcurrent;
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (maxConcurrent <= 0 || !(bean instanceof DataSource dataSource) || bean instanceof LimitedDataSource) {
+            return bean;
+        }
+        log.info("Limiting '{}' to {} concurrent connections", beanName, maxConcurrent);
+        return new LimitedDataSource(dataSource, maxConcurrent, acquireTimeoutMillis, retryAfterSeconds);
+    }
+
+    // Gauges are bound once the registry exists; a BeanPostProcessor can't depend on it
+    @Bean
+    public static MeterBinder dbPermitMetrics(ObjectProvider<DataSource> dataSources) {
+        return registry -> dataSources.orderedStream()
+                .filter(LimitedDataSource.class::isInstance)
+                .map(LimitedDataSource.class::cast)
+                .findFirst()
+                .ifPresent(dataSource -> {
+                    Gauge.builder("db.permits.available", dataSource.permits, Semaphore::availablePermits).register(registry);
+                    Gauge.builder("db.permits.waiting", dataSource.permits, Semaphore::getQueueLength).register(registry);
+                });
+    }
+
+    static final class LimitedDataSource extends DelegatingDataSource {
+
+        private final Semaphore permits;
+        private final long acquireTimeoutMillis;
+        private final long retryAfterSeconds;
+
+        LimitedDataSource(DataSource target, int maxConcurrent, long acquireTimeoutMillis, long retryAfterSeconds) {
+            super(target);
+            this.permits = new Semaphore(maxConcurrent, true);
+            this.acquireTimeoutMillis = acquireTimeoutMillis;
+            this.retryAfterSeconds = retryAfterSeconds;
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            acquire();
+            try {
+                return releasing(super.getConnection());
+            } catch (SQLException | RuntimeException e) {
+                permits.release();
+                throw e;
+            }
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            acquire();
+            try {
+                return releasing(super.getConnection(username, password));
+            } catch (SQLException | RuntimeException e) {
+                permits.release();
+                throw e;
+            }
+        }
+
+        private void acquire() throws SQLException {
+            try {
+                if (!permits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                    throw new ServiceBusyException("Database is busy, please retry shortly", retryAfterSeconds);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("Interrupted waiting for a database permit", e);
+            }
+        }
+
+        // The permit goes back exactly once, when the caller closes its connection
+        private Connection releasing(Connection connection) {
+            AtomicBoolean released = new AtomicBoolean();
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                    (proxy, method, args) -> {
+                        if ("close".equals(method.getName()) && released.compareAndSet(false, true)) {
+                            permits.release();
+                        }
+                        try {
+                            return method.invoke(connection, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                    });
+        }
+    }
+}
@@ -1,8 +1,8 @@
 package com.example.musicplayer.config;
 
+import com.example.musicplayer.security.AuthenticatedUser;
 import com.example.musicplayer.security.JwtAuthFilter;
-import com.example.musicplayer.security.JwtProvider;
-import com.example.musicplayer.repository.UserRepository;
+import jakarta.servlet.DispatcherType;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -11,7 +11,6 @@ import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
-import org.springframework.web.cors.CorsConfigurationSource;
 import java.util.Arrays;
 import java.util.Collections;
 
@@ -19,27 +18,31 @@ import java.util.Collections;
 @EnableWebSecurity
 public class SecurityConfig {
 
-    private final JwtProvider jwtProvider;
-    private final UserRepository userRepository;
+    private final JwtAuthFilter jwtAuthFilter;
 
-    public SecurityConfig(JwtProvider jwtProvider, UserRepository userRepository) {
-        this.jwtProvider = jwtProvider;
-        this.userRepository = userRepository;
+    public SecurityConfig(JwtAuthFilter jwtAuthFilter) {
+        this.jwtAuthFilter = jwtAuthFilter;
     }
 
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
-        JwtAuthFilter jwtAuthFilter = new JwtAuthFilter(jwtProvider, userRepository);
-        
         http
             .csrf(csrf -> csrf.disable())
             .authorizeHttpRequests(auth -> auth
+                // The request was authorized before going async (POST /api/plays, streamed lists);
+                // a stateless chain has no saved context to re-check on the async dispatch
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                 .requestMatchers(
                     "/api/auth/**",
                     "/api/tracks/**",
                     "/api/user/check-user",
-                    "/api/user/favorites/**"
+                    "/api/user/favorites/**",
+                    // Scraped by Prometheus without a user token; the full /actuator/metrics stays behind auth
+                    "/actuator/health",
+                    "/actuator/prometheus"
                 ).permitAll()
+                // Bulk catalog imports and library scans write straight to Track
+                .requestMatchers("/api/admin/imports/**", "/api/admin/library/**").hasAuthority(AuthenticatedUser.ADMIN)
                 .anyRequest().authenticated()
             )
             .sessionManagement(session -> session
@@ -52,6 +55,7 @@ public class SecurityConfig {
                     config.setAllowedOrigins(Collections.singletonList("http://localhost:5173"));
                     config.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS"));
                     config.setAllowedHeaders(Arrays.asList("*"));
+                    config.setExposedHeaders(Arrays.asList("ETag")); // favorites version for delta sync
                     config.setAllowCredentials(true);
                     return config;
                 })
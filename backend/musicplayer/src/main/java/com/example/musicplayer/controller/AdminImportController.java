@@ -0,0 +1,36 @@
+package com.example.musicplayer.controller;
+
+import com.example.musicplayer.ingest.CatalogImportService;
+import com.example.musicplayer.ingest.ImportJob;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/imports")
+@CrossOrigin(origins = "http://localhost:5173")
+public class AdminImportController {
+
+    private final CatalogImportService catalogImportService;
+
+    public AdminImportController(CatalogImportService catalogImportService) {
+        this.catalogImportService = catalogImportService;
+    }
+
+    // Body: {"path": "catalog.csv"} relative to musicplayer.import.dir
+    @PostMapping
+    public ResponseEntity<ImportJob> startImport(@RequestBody Map<String, String> body) {
+        String path = body.get("path");
+        if (path == null || path.isBlank()) {
+            throw new RuntimeException("path is required");
+        }
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(catalogImportService.submit(path));
+    }
+
+    @GetMapping("/{id}")
+    public ImportJob getImport(@PathVariable String id) {
+        return catalogImportService.getJob(id);
+    }
+}
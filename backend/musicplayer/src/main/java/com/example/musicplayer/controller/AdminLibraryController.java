@@ -0,0 +1,30 @@
+package com.example.musicplayer.controller;
+
+import com.example.musicplayer.ingest.LibraryScan;
+import com.example.musicplayer.ingest.MediaLibraryScanner;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/admin/library")
+@CrossOrigin(origins = "http://localhost:5173")
+public class AdminLibraryController {
+
+    private final MediaLibraryScanner mediaLibraryScanner;
+
+    public AdminLibraryController(MediaLibraryScanner mediaLibraryScanner) {
+        this.mediaLibraryScanner = mediaLibraryScanner;
+    }
+
+    @PostMapping("/scan")
+    public ResponseEntity<LibraryScan> startScan() {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(mediaLibraryScanner.startScan());
+    }
+
+    @GetMapping("/scan")
+    public ResponseEntity<LibraryScan> getScan() {
+        LibraryScan scan = mediaLibraryScanner.getLastScan();
+        return scan == null ? ResponseEntity.noContent().build() : ResponseEntity.ok(scan);
+    }
+}
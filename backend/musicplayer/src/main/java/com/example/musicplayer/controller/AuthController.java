@@ -1,16 +1,18 @@
 package com.example.musicplayer.controller;
 
+import com.example.musicplayer.datasource.PrimaryReads;
 import com.example.musicplayer.model.User;
 import com.example.musicplayer.repository.UserRepository;
 import com.example.musicplayer.security.JwtProvider;
+import com.example.musicplayer.security.PasswordHashingService;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/auth")
@@ -18,76 +20,83 @@ import java.util.Map;
 public class AuthController {
 
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
     private final JwtProvider jwtProvider;
 
     public AuthController(UserRepository userRepository,
-                          PasswordEncoder passwordEncoder,
+                          PasswordHashingService passwordHashingService,
                           JwtProvider jwtProvider) {
         this.userRepository = userRepository;
-        this.passwordEncoder = passwordEncoder;
+        this.passwordHashingService = passwordHashingService;
         this.jwtProvider = jwtProvider;
     }
 
+    // BCrypt runs on the hashing pool and the request thread is released while it works;
+    // the save and token run once the hash is handed back, off that pool
     @PostMapping("/signup")
-    public ResponseEntity<?> register(@RequestBody Map<String, String> body) {
+    public CompletableFuture<ResponseEntity<?>> register(@RequestBody Map<String, String> body) {
         String name = body.get("name");
         String email = body.get("email");
         String password = body.get("password");
 
         if (name == null || email == null || password == null
                 || name.trim().isEmpty() || email.trim().isEmpty() || password.trim().isEmpty()) {
-            return ResponseEntity.badRequest()
-                    .body(Map.of("error", "Name, email and password are required"));
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest()
+                    .body(Map.of("error", "Name, email and password are required")));
         }
 
-        if (userRepository.existsByEmailIgnoreCase(email.trim())) {
-            return ResponseEntity.status(HttpStatus.CONFLICT)
-                    .body(Map.of("error", "Email is already used"));
+        if (PrimaryReads.call(() -> userRepository.existsByEmailIgnoreCase(email.trim()))) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", "Email is already used")));
         }
 
-        User user = new User();
-        user.setName(name.trim());
-        user.setEmail(email.trim());
-        user.setPassword(passwordEncoder.encode(password.trim()));
-        user.setCreatedAt(LocalDateTime.now());
-        user.setJoinedAt(LocalDate.now());
+        return passwordHashingService.encode(password.trim()).thenApply(hash -> {
+            User user = new User();
+            user.setName(name.trim());
+            user.setEmail(email.trim());
+            user.setPassword(hash);
+            user.setCreatedAt(LocalDateTime.now());
+            user.setJoinedAt(LocalDate.now());
 
-        userRepository.save(user);
+            userRepository.save(user);
 
-        Map<String, Object> response = new HashMap<>();
-        response.put("id", user.getId());
-        response.put("name", user.getName());
-        response.put("email", user.getEmail());
-        response.put("token", jwtProvider.generateToken(user.getEmail()));
+            Map<String, Object> response = new HashMap<>();
+            response.put("id", user.getId());
+            response.put("name", user.getName());
+            response.put("email", user.getEmail());
+            response.put("token", jwtProvider.generateToken(user.getEmail()));
 
-        return ResponseEntity.ok(response);
+            return ResponseEntity.ok(response);
+        });
     }
 
     @PostMapping("/login")
-    public ResponseEntity<?> login(@RequestBody Map<String, String> body) {
+    public CompletableFuture<ResponseEntity<?>> login(@RequestBody Map<String, String> body) {
         String email = body.get("email");
         String password = body.get("password");
 
         if (email == null || password == null
                 || email.trim().isEmpty() || password.trim().isEmpty()) {
-            return ResponseEntity.badRequest()
-                    .body(Map.of("error", "Email and password are required"));
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest()
+                    .body(Map.of("error", "Email and password are required")));
         }
 
-        var userOpt = userRepository.findByEmailIgnoreCase(email.trim());
+        var userOpt = PrimaryReads.call(() -> userRepository.findByEmailIgnoreCase(email.trim()));
         if (userOpt.isEmpty()) {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                    .body(Map.of("error", "Invalid email or password"));
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(Map.of("error", "Invalid email or password")));
         }
 
         User user = userOpt.get();
 
-        if (!passwordEncoder.matches(password, user.getPassword())) {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                    .body(Map.of("error", "Invalid email or password"));
-        }
+        return passwordHashingService.matches(password, user.getPassword()).thenApply(matches -> {
+            if (!matches) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                        .body(Map.of("error", "Invalid email or password"));
+            }
 
-        return ResponseEntity.ok(Map.of("token", jwtProvider.generateToken(user.getEmail())));
+            passwordHashingService.upgradeIfNeeded(user.getId(), password, user.getPassword());
+            return ResponseEntity.ok(Map.of("token", jwtProvider.generateToken(user.getEmail())));
+        });
     }
 }
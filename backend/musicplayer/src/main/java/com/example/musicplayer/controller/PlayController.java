@@ -0,0 +1,69 @@
+package com.example.musicplayer.controller;
+
+import com.example.musicplayer.dto.PlayRequest;
+import com.example.musicplayer.dto.TrackDTO;
+import com.example.musicplayer.plays.PlayEvent;
+import com.example.musicplayer.plays.PlayLog;
+import com.example.musicplayer.plays.RecentlyPlayedConsumer;
+import com.example.musicplayer.security.AuthenticatedUser;
+import com.example.musicplayer.service.TrackService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.security.Principal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+@RestController
+@RequestMapping("/api/plays")
+@CrossOrigin(origins = "http://localhost:5173")
+public class PlayController {
+
+    private static final int MAX_RECENT = 50;
+
+    private final PlayLog playLog;
+    private final RecentlyPlayedConsumer recentlyPlayed;
+    private final TrackService trackService;
+    private final int maxBatchSize;
+
+    public PlayController(PlayLog playLog,
+                          RecentlyPlayedConsumer recentlyPlayed,
+                          TrackService trackService,
+                          @Value("${musicplayer.plays.max-batch-size:500}") int maxBatchSize) {
+        this.playLog = playLog;
+        this.recentlyPlayed = recentlyPlayed;
+        this.trackService = trackService;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    // Answers 202 once the batch is fsynced to the local log; counting happens later, off the request path
+    @PostMapping
+    public CompletableFuture<ResponseEntity<Map<String, Integer>>> record(@RequestBody List<PlayRequest> plays, Principal principal) {
+        if (plays.size() > maxBatchSize) {
+            throw new RuntimeException("At most " + maxBatchSize + " plays per request");
+        }
+        long userId = AuthenticatedUser.of(principal).getId();
+        long now = System.currentTimeMillis();
+        List<PlayEvent> events = new ArrayList<>(plays.size());
+        for (PlayRequest play : plays) {
+            if (play.getTrackId() == null) {
+                throw new RuntimeException("trackId is required");
+            }
+            // Client clocks can't push plays into the future
+            long playedAt = play.getPlayedAt() == null ? now : Math.min(play.getPlayedAt(), now);
+            int seconds = play.getSecondsPlayed() == null ? 0 : Math.max(play.getSecondsPlayed(), 0);
+            events.add(new PlayEvent(userId, play.getTrackId(), playedAt, seconds));
+        }
+        return playLog.append(events)
+                .thenApply(offset -> ResponseEntity.accepted().body(Map.of("accepted", events.size())));
+    }
+
+    @GetMapping("/recent")
+    public List<TrackDTO> recent(@RequestParam(defaultValue = "20") int limit, Principal principal) {
+        long userId = AuthenticatedUser.of(principal).getId();
+        return trackService.findTracks(recentlyPlayed.recentTracks(userId, Math.min(limit, MAX_RECENT)));
+    }
+}
@@ -1,41 +1,91 @@
 package com.example.musicplayer.controller;
 
-import com.example.musicplayer.dto.PlaylistDTO;
-import com.example.musicplayer.dto.TrackDTO;
-import com.example.musicplayer.model.Playlist;
-import com.example.musicplayer.repository.PlaylistRepository;
+import com.example.musicplayer.dto.PlaylistEntryDTO;
+import com.example.musicplayer.dto.PlaylistEntryPage;
+import com.example.musicplayer.security.AuthenticatedUser;
+import com.example.musicplayer.service.LibraryJsonStreamer;
+import com.example.musicplayer.service.PlaylistService;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.List;
-import java.util.stream.Collectors;
+import java.security.Principal;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/playlists")
 @CrossOrigin(origins = "http://localhost:5173")
 public class PlaylistController {
 
-    private final PlaylistRepository playlistRepository;
+    private final PlaylistService playlistService;
+    private final LibraryJsonStreamer libraryJsonStreamer;
 
-    public PlaylistController(PlaylistRepository playlistRepository) {
-        this.playlistRepository = playlistRepository;
+    public PlaylistController(PlaylistService playlistService, LibraryJsonStreamer libraryJsonStreamer) {
+        this.playlistService = playlistService;
+        this.libraryJsonStreamer = libraryJsonStreamer;
     }
 
+    // Streamed from a cursor; the full list of every playlist never sits in memory
     @GetMapping
-    @Transactional(readOnly = true)
-    public ResponseEntity<List<PlaylistDTO>> getAllPlaylists() {
-        List<Playlist> playlists = playlistRepository.findAll();
-        List<PlaylistDTO> playlistDtos = playlists.stream()
-                .map(pl -> new PlaylistDTO(
-                        pl.getId(),
-                        pl.getName(),
-                        pl.getTracks().stream()
-                                .map(t -> new TrackDTO(t.getId(), t.getTitle(), t.getArtist(), t.getCover(), t.getUrl()))
-                                .collect(Collectors.toList())
-                ))
-                .collect(Collectors.toList());
-
-        return ResponseEntity.ok(playlistDtos);
+    public ResponseEntity<StreamingResponseBody> getAllPlaylists() {
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(libraryJsonStreamer.allPlaylists());
+    }
+
+    // Range read for large playlists: pass nextCursor back until it is null
+    @GetMapping("/{playlistId}/entries")
+    public ResponseEntity<PlaylistEntryPage> getEntries(@PathVariable Long playlistId,
+                                                        @RequestParam(required = false) String cursor,
+                                                        @RequestParam(required = false) Integer size,
+                                                        Principal principal) {
+        return ResponseEntity.ok(playlistService.getEntries(AuthenticatedUser.of(principal).getId(), playlistId, cursor, size));
+    }
+
+    // Body: {"trackId": 7, "after": 42} or {"before": 42} places it next to entry 42;
+    // {"index": 3} also works but costs more deep in a long list; with neither the track is appended
+    @PostMapping("/{playlistId}/entries")
+    public ResponseEntity<PlaylistEntryDTO> insertEntry(@PathVariable Long playlistId,
+                                                        @RequestBody Map<String, Long> requestBody,
+                                                        Principal principal) {
+        Long trackId = requestBody.get("trackId");
+        if (trackId == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        Long userId = AuthenticatedUser.of(principal).getId();
+        Long after = requestBody.get("after");
+        Long before = requestBody.get("before");
+        if (after != null || before != null) {
+            return ResponseEntity.ok(playlistService.insertNextTo(userId, playlistId, trackId,
+                    after != null ? after : before, after != null));
+        }
+        Long index = requestBody.get("index");
+        return ResponseEntity.ok(playlistService.insertAt(userId, playlistId, trackId,
+                index == null ? null : Math.toIntExact(index)));
+    }
+
+    // Body: {"after": 42} or {"before": 42} moves the entry next to entry 42; {"index": 0} moves it to the front
+    @PatchMapping("/{playlistId}/entries/{entryId}")
+    public ResponseEntity<Void> moveEntry(@PathVariable Long playlistId,
+                                          @PathVariable Long entryId,
+                                          @RequestBody Map<String, Long> requestBody,
+                                          Principal principal) {
+        Long userId = AuthenticatedUser.of(principal).getId();
+        Long after = requestBody.get("after");
+        Long before = requestBody.get("before");
+        Long index = requestBody.get("index");
+        if (after != null || before != null) {
+            playlistService.moveNextTo(userId, playlistId, entryId, after != null ? after : before, after != null);
+        } else if (index != null) {
+            playlistService.move(userId, playlistId, entryId, Math.toIntExact(index));
+        } else {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok().build();
+    }
+
+    @DeleteMapping("/{playlistId}/entries/{entryId}")
+    public ResponseEntity<Void> removeEntry(@PathVariable Long playlistId, @PathVariable Long entryId, Principal principal) {
+        playlistService.remove(AuthenticatedUser.of(principal).getId(), playlistId, entryId);
+        return ResponseEntity.ok().build();
     }
 }
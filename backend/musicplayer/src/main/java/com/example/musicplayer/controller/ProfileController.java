@@ -1,10 +1,13 @@
 package com.example.musicplayer.controller;
 
-import com.example.musicplayer.dto.UserProfileResponse;
-import com.example.musicplayer.model.User;
-import com.example.musicplayer.repository.UserRepository;
+import com.example.musicplayer.security.AuthenticatedUser;
+import com.example.musicplayer.service.LibraryJsonStreamer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.security.Principal;
 
@@ -13,21 +16,20 @@ import java.security.Principal;
 @CrossOrigin(origins = "http://localhost:5173")
 public class ProfileController {
 
-    private final UserRepository userRepository;
+    private static final Logger log = LoggerFactory.getLogger(ProfileController.class);
 
-    public ProfileController(UserRepository userRepository) {
-        this.userRepository = userRepository;
+    private final LibraryJsonStreamer libraryJsonStreamer;
+
+    public ProfileController(LibraryJsonStreamer libraryJsonStreamer) {
+        this.libraryJsonStreamer = libraryJsonStreamer;
     }
 
     @GetMapping("/profile")
-    @Transactional(readOnly = true)
-    public UserProfileResponse profile(Principal principal) {
-        System.out.println("Profile request for user: " + principal.getName());
-
-        // Use case-insensitive email lookup
-        User user = userRepository.findByEmailIgnoreCase(principal.getName())
-                .orElseThrow(() -> new RuntimeException("User not found"));
+    public ResponseEntity<StreamingResponseBody> profile(Principal principal) {
+        log.debug("Profile request for user {}", principal.getName());
 
-        return new UserProfileResponse(user);
+        // Name, email and join date come from the cached principal; favorites and playlists stream from a cursor
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON)
+                .body(libraryJsonStreamer.profile(AuthenticatedUser.of(principal)));
     }
 }
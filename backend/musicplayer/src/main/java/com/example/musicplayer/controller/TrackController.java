@@ -1,25 +1,107 @@
 package com.example.musicplayer.controller;
 
+import com.example.musicplayer.charts.ChartWindow;
+import com.example.musicplayer.charts.TrendingCharts;
+import com.example.musicplayer.dto.SuggestionDTO;
+import com.example.musicplayer.dto.TrackDTO;
+import com.example.musicplayer.dto.TrackPage;
+import com.example.musicplayer.media.AudioStreamService;
+import com.example.musicplayer.media.MediaStore;
 import com.example.musicplayer.model.Track;
-import com.example.musicplayer.repository.TrackRepository;
+import com.example.musicplayer.recommend.RecommendationEngine;
+import com.example.musicplayer.search.TrackSearchIndex;
+import com.example.musicplayer.search.TrackSuggester;
+import com.example.musicplayer.service.TrackService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/tracks")
 @CrossOrigin(origins = "http://localhost:5173")
 public class TrackController {
 
-    private final TrackRepository trackRepository;
+    private static final int MAX_SEARCH_RESULTS = 100;
+    private static final int MAX_SUGGESTIONS = 20;
+    private static final int MAX_SIMILAR = 50;
+    private static final int MAX_CHART = 100;
 
-    public TrackController(TrackRepository trackRepository) {
-        this.trackRepository = trackRepository;
+    private final TrackService trackService;
+    private final TrackSearchIndex trackSearchIndex;
+    private final TrackSuggester trackSuggester;
+    private final MediaStore mediaStore;
+    private final AudioStreamService audioStreamService;
+    private final RecommendationEngine recommendationEngine;
+    private final TrendingCharts trendingCharts;
+
+    public TrackController(TrackService trackService,
+                           TrackSearchIndex trackSearchIndex,
+                           TrackSuggester trackSuggester,
+                           MediaStore mediaStore,
+                           AudioStreamService audioStreamService,
+                           RecommendationEngine recommendationEngine,
+                           TrendingCharts trendingCharts) {
+        this.trackService = trackService;
+        this.trackSearchIndex = trackSearchIndex;
+        this.trackSuggester = trackSuggester;
+        this.mediaStore = mediaStore;
+        this.audioStreamService = audioStreamService;
+        this.recommendationEngine = recommendationEngine;
+        this.trendingCharts = trendingCharts;
     }
 
     @GetMapping
-    public List<Track> getAllTracks() {
-        // Since this might be public API, consider if you want to expose full Track or a DTO
-        return trackRepository.findAll();
+    public TrackPage getTracks(@RequestParam(required = false) String cursor,
+                               @RequestParam(required = false) Integer size) {
+        return trackService.getTracks(cursor, size);
+    }
+
+    @GetMapping("/search")
+    public List<TrackDTO> search(@RequestParam("q") String query,
+                                 @RequestParam(defaultValue = "20") int limit) {
+        return trackSearchIndex.search(query, Math.min(limit, MAX_SEARCH_RESULTS));
+    }
+
+    @GetMapping("/suggest")
+    public List<SuggestionDTO> suggest(@RequestParam String prefix,
+                                       @RequestParam(defaultValue = "8") int limit) {
+        return trackSuggester.suggest(prefix, Math.min(limit, MAX_SUGGESTIONS));
+    }
+
+    // Charts are republished every few seconds from in-memory counters; reads never touch the database
+    @GetMapping("/trending")
+    public List<TrackDTO> trending(@RequestParam(defaultValue = "20") int limit) {
+        return trackService.findTracks(trendingCharts.trending(Math.min(limit, MAX_CHART)));
+    }
+
+    @GetMapping("/top")
+    public List<TrackDTO> top(@RequestParam(defaultValue = "24h") String window,
+                              @RequestParam(defaultValue = "20") int limit) {
+        return trackService.findTracks(trendingCharts.top(ChartWindow.fromParam(window), Math.min(limit, MAX_CHART)));
+    }
+
+    // "Fans also liked", served from the in-memory co-occurrence matrix
+    @GetMapping("/{id}/similar")
+    public List<TrackDTO> similar(@PathVariable Long id,
+                                  @RequestParam(defaultValue = "10") int limit) {
+        return recommendationEngine.similarTracks(id, Math.min(limit, MAX_SIMILAR));
+    }
+
+    // Counted asynchronously from the play log, so it trails the newest plays by about a second
+    @GetMapping("/{id}/plays")
+    public Map<String, Long> plays(@PathVariable Long id) {
+        return Map.of("trackId", id, "plays", trackService.getPlayCount(id));
+    }
+
+    @RequestMapping(value = "/{id}/stream", method = {RequestMethod.GET, RequestMethod.HEAD})
+    public void stream(@PathVariable Long id,
+                       HttpServletRequest request,
+                       HttpServletResponse response) throws IOException {
+        Track track = trackService.getTrack(id);
+        audioStreamService.stream(mediaStore.resolve(track), request, response);
     }
 }
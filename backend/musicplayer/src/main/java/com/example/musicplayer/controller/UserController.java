@@ -1,86 +1,98 @@
 package com.example.musicplayer.controller;
 
-import com.example.musicplayer.dto.PlaylistDTO;
+import com.example.musicplayer.dto.FavoriteChangesResponse;
 import com.example.musicplayer.dto.TrackDTO;
-import com.example.musicplayer.model.User;
-import com.example.musicplayer.model.Track;
 import com.example.musicplayer.repository.UserRepository;
+import com.example.musicplayer.security.AuthenticatedUser;
+import com.example.musicplayer.service.LibraryJsonStreamer;
 import com.example.musicplayer.service.UserService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import java.util.ArrayList;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import java.util.List;
 import java.util.Map;
 import java.security.Principal;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/user")
 @CrossOrigin(origins = "http://localhost:5173")
 public class UserController {
 
+    private static final Logger log = LoggerFactory.getLogger(UserController.class);
+
+    private static final int MAX_RECOMMENDATIONS = 50;
+
     private final UserRepository userRepository;
     private final UserService userService;
+    private final LibraryJsonStreamer libraryJsonStreamer;
     
-    public UserController(UserRepository userRepository, UserService userService) {
+    public UserController(UserRepository userRepository, UserService userService, LibraryJsonStreamer libraryJsonStreamer) {
         this.userRepository = userRepository;
         this.userService = userService;
+        this.libraryJsonStreamer = libraryJsonStreamer;
     }
 
     @GetMapping("/check-user")
     @Transactional(readOnly = true)
     public ResponseEntity<String> checkUser(String email) {
-        System.out.println("UserController checkUser - Checking email: " + email);
+        log.debug("check-user for {}", email);
         boolean exists = userRepository.existsByEmailIgnoreCase(email);
-        System.out.println("UserController checkUser - User exists: " + exists);
+        log.debug("check-user exists: {}", exists);
         return ResponseEntity.ok("User exists: " + exists);
     }
 
-    private User getUserFromPrincipal(Principal principal) {
-        String email = principal.getName();
-        System.out.println("UserController - Getting user for email: " + email);
-        
-        User user = userRepository.findByEmailIgnoreCase(email)
-                .orElseThrow(() -> {
-                    System.out.println("UserController - User not found for email: " + email);
-                    return new RuntimeException("User not found for email: " + email);
-                });
-                
-        System.out.println("UserController - User found: " + user.getEmail());
-        return user;
+    // The favorites version is the ETag, so an unchanged list costs one PK lookup and a 304
+    @GetMapping("/favorites")
+    public ResponseEntity<StreamingResponseBody> getFavorites(Principal principal, WebRequest webRequest) {
+        Long userId = AuthenticatedUser.of(principal).getId();
+        String etag = favoritesETag(userId, userService.getFavoritesVersion(userId));
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).contentType(MediaType.APPLICATION_JSON)
+                .body(libraryJsonStreamer.favorites(userId));
     }
 
-    @GetMapping("/favorites")
-    @Transactional(readOnly = true)
-    public ResponseEntity<List<TrackDTO>> getFavorites(Principal principal) {
-        User user = getUserFromPrincipal(principal);
-        List<TrackDTO> favorites = user.getFavorites()
-                .stream()
-                .map(t -> new TrackDTO(t.getId(), t.getTitle(), t.getArtist(), t.getCover(), t.getUrl()))
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(favorites);
+    @GetMapping("/favorites/changes")
+    public ResponseEntity<FavoriteChangesResponse> getFavoriteChanges(@RequestParam(defaultValue = "0") long since,
+                                                                      Principal principal,
+                                                                      WebRequest webRequest) {
+        Long userId = AuthenticatedUser.of(principal).getId();
+        FavoriteChangesResponse changes = userService.getFavoriteChanges(userId, since);
+        String etag = favoritesETag(userId, changes.getVersion());
+        if (since == changes.getVersion() && webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).body(changes);
+    }
+
+    // The user id is part of the tag so a shared browser cache can't revalidate one user's list for another
+    private static String favoritesETag(Long userId, long version) {
+        return "\"fav-" + userId + "-" + version + "\"";
     }
 
     @GetMapping("/playlists")
-    @Transactional(readOnly = true)
-    public ResponseEntity<List<PlaylistDTO>> getPlaylists(Principal principal) {
-        User user = getUserFromPrincipal(principal);
-        List<PlaylistDTO> playlists = user.getPlaylists().stream()
-                .map(pl -> new PlaylistDTO(pl.getId(), pl.getName(), pl.getTracks()
-                        .stream()
-                        .map(t -> new TrackDTO(t.getId(), t.getTitle(), t.getArtist(), t.getCover(), t.getUrl()))
-                        .collect(Collectors.toList())))
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(playlists);
+    public ResponseEntity<StreamingResponseBody> getPlaylists(Principal principal) {
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON)
+                .body(libraryJsonStreamer.playlists(AuthenticatedUser.of(principal).getId()));
+    }
+
+    @GetMapping("/recommendations")
+    public List<TrackDTO> getRecommendations(@RequestParam(defaultValue = "20") int limit, Principal principal) {
+        return userService.getRecommendations(AuthenticatedUser.of(principal).getId(), Math.min(limit, MAX_RECOMMENDATIONS));
     }
 
     @PostMapping("/favorites")
     public ResponseEntity<Void> toggleFavorite(@RequestBody Map<String, Long> requestBody, Principal principal) {
-        User user = getUserFromPrincipal(principal);
+        Long userId = AuthenticatedUser.of(principal).getId();
         Long trackId = requestBody.get("trackId");
         
         if (trackId == null) {
@@ -88,41 +100,23 @@ public class UserController {
         }
         
         try {
-            // Check if track is already a favorite
-            boolean isFavorite = user.getFavorites().stream()
-                .anyMatch(t -> t.getId().equals(trackId));
-            
-            if (isFavorite) {
-                userService.removeFavorite(user, trackId);
-            } else {
-                userService.addFavorite(user, trackId);
-            }
-            
+            userService.toggleFavorite(userId, trackId);
             return ResponseEntity.ok().build();
         } catch (Exception e) {
             return ResponseEntity.badRequest().build();
         }
     }
 
-    @GetMapping("/favorites")
-    public ResponseEntity<List<Track>> getFavorites(Principal principal) {
-        User user = getUserFromPrincipal(principal);
-        return ResponseEntity.ok(new ArrayList<>(user.getFavorites()));
-    }
-
     @PostMapping("/playlists")
-    public ResponseEntity<Void> createPlaylist(@RequestBody String playlistName, Principal principal) {
-        User user = getUserFromPrincipal(principal);
-        userService.createPlaylist(user, playlistName);
-        return ResponseEntity.ok().build();
+    public ResponseEntity<Long> createPlaylist(@RequestBody String playlistName, Principal principal) {
+        return ResponseEntity.ok(userService.createPlaylist(AuthenticatedUser.of(principal).getId(), playlistName));
     }
 
     @PostMapping("/playlists/{playlistId}/tracks")
     public ResponseEntity<Void> addTrackToPlaylist(@PathVariable Long playlistId,
                                                    @RequestBody Long trackId,
                                                    Principal principal) {
-        User user = getUserFromPrincipal(principal);
-        userService.addTrackToPlaylist(user, playlistId, trackId);
+        userService.addTrackToPlaylist(AuthenticatedUser.of(principal).getId(), playlistId, trackId);
         return ResponseEntity.ok().build();
     }
 
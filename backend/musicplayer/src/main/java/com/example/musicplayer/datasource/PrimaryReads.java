@@ -0,0 +1,36 @@
+package com.example.musicplayer.datasource;
+
+import java.util.function.Supplier;
+
+/**
+ * Marks reads that must see the primary even inside a read-only transaction, such as the
+ * account lookups behind sign-in and registration: a user who signed up a moment ago may not
+ * be on any replica yet. {@link ReadWriteRoutingDataSource} honours the hint when the
+ * connection is fetched, so it only helps if the transaction has not touched a replica before
+ * the call. Without replicas configured it changes nothing.
+ */
+public final class PrimaryReads {
+
+    private static final ThreadLocal<Integer> depth = ThreadLocal.withInitial(() -> 0);
+
+    private PrimaryReads() {
+    }
+
+    public static <T> T call(Supplier<T> read) {
+        depth.set(depth.get() + 1);
+        try {
+            return read.get();
+        } finally {
+            int remaining = depth.get() - 1;
+            if (remaining == 0) {
+                depth.remove();
+            } else {
+                depth.set(remaining);
+            }
+        }
+    }
+
+    static boolean isRequested() {
+        return depth.get() > 0;
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.musicplayer.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Read/write splitting, on when musicplayer.datasource.replicas lists at least one JDBC URL.
+ * Replaces Boot's single pool with a "primary" pool built from spring.datasource.* and one
+ * "replica-N" pool per URL, all sharing the spring.datasource.hikari.* settings. Hikari metrics
+ * carry the pool name, so hikaricp.* is reported per route. Everything runs against the
+ * primary as before when no replicas are listed.
+ */
+@Configuration
+@ConditionalOnProperty(name = "musicplayer.datasource.replicas")
+public class ReadWriteRoutingConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(ReadWriteRoutingConfig.class);
+
+    @Bean(destroyMethod = "close")
+    ReplicaSet replicaSet(DataSourceProperties properties,
+                          Environment environment,
+                          @Value("${musicplayer.datasource.replica-username:${spring.datasource.username:}}") String username,
+                          @Value("${musicplayer.datasource.replica-password:${spring.datasource.password:}}") String password,
+                          @Value("${musicplayer.datasource.replica-pool-size:10}") int poolSize,
+                          @Value("${musicplayer.datasource.replica-connection-timeout-ms:2000}") long connectionTimeoutMillis) {
+        Binder binder = Binder.get(environment);
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+        primary.setPoolName(ReplicaSet.PRIMARY);
+
+        List<String> urls = binder.bind("musicplayer.datasource.replicas", Bindable.listOf(String.class)).orElse(List.of());
+        List<Replica> replicas = new ArrayList<>();
+        for (String url : urls) {
+            if (url.isBlank()) {
+                continue;
+            }
+            HikariDataSource replica = DataSourceBuilder.create().type(HikariDataSource.class)
+                    .url(url.trim()).username(username).password(password).build();
+            binder.bind("spring.datasource.hikari", Bindable.ofInstance(replica));
+            replica.setPoolName("replica-" + replicas.size());
+            replica.setMaximumPoolSize(poolSize);
+            // A dead replica should fail fast and be skipped, not hold a request for the primary's timeout
+            replica.setConnectionTimeout(connectionTimeoutMillis);
+            replica.setReadOnly(true);
+            replicas.add(new Replica(replica));
+        }
+        log.info("Routing read-only transactions across {} replica(s)", replicas.size());
+        return new ReplicaSet(primary, replicas);
+    }
+
+    @Bean
+    ReplicaMonitor replicaMonitor(ReplicaSet replicaSet,
+                                  @Value("${musicplayer.datasource.max-replica-lag-ms:3000}") long maxLagMillis,
+                                  @Value("${musicplayer.datasource.heartbeat-interval-ms:500}") long heartbeatIntervalMillis,
+                                  @Value("${musicplayer.datasource.replica-check-interval-ms:1000}") long checkIntervalMillis) {
+        return new ReplicaMonitor(replicaSet, maxLagMillis, heartbeatIntervalMillis, checkIntervalMillis);
+    }
+
+    // The only DataSource bean, so JPA, JdbcTemplate and DbConcurrencyLimiter all see the routed one
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaSet replicaSet, ReadYourWritesTracker readYourWrites) {
+        return new LazyConnectionDataSourceProxy(new ReadWriteRoutingDataSource(replicaSet, readYourWrites));
+    }
+
+    @Bean
+    MeterBinder readWriteRoutingMetrics(ReplicaSet replicaSet) {
+        return registry -> {
+            bindPool(replicaSet.getPrimary(), registry);
+            routed(registry, ReplicaSet.PRIMARY, "read-write", replicaSet.getPrimaryReadWrite());
+            routed(registry, ReplicaSet.PRIMARY, "sticky", replicaSet.getPrimarySticky());
+            routed(registry, ReplicaSet.PRIMARY, "hint", replicaSet.getPrimaryHinted());
+            routed(registry, ReplicaSet.PRIMARY, "replica-lag", replicaSet.getPrimaryFallback());
+            for (Replica replica : replicaSet.getReplicas()) {
+                bindPool(replica.getDataSource(), registry);
+                routed(registry, replica.getName(), "read-only", replica.getReads());
+                Gauge.builder("datasource.replica.lag", replica, r -> r.getLagMillis() < 0 ? Double.NaN : r.getLagMillis())
+                        .tag("pool", replica.getName()).baseUnit("milliseconds").register(registry);
+                Gauge.builder("datasource.replica.available", replica, r -> r.isAvailable() ? 1 : 0)
+                        .tag("pool", replica.getName()).register(registry);
+            }
+        };
+    }
+
+    // Boot only instruments the pool it can unwrap from the DataSource bean (the primary); the rest are ours
+    private static void bindPool(HikariDataSource pool, MeterRegistry registry) {
+        if (pool.getMetricsTrackerFactory() == null && pool.getMetricRegistry() == null) {
+            pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry));
+        }
+    }
+
+    private static void routed(MeterRegistry registry, String pool, String reason, LongAdder count) {
+        FunctionCounter.builder("datasource.routed", count, LongAdder::sum)
+                .description("Connections handed out, by pool and why that pool was chosen")
+                .tag("pool", pool).tag("reason", reason).register(registry);
+    }
+}
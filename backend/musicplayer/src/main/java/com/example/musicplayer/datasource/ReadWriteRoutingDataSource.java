@@ -0,0 +1,66 @@
+package com.example.musicplayer.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Sends read-only transactions to a replica and everything else to the primary.
+ * The key is looked up when a connection is actually fetched, so this must sit behind a
+ * LazyConnectionDataSourceProxy: by the first statement the transaction's read-only flag
+ * is known. Read-only work still goes to the primary for a user who wrote recently
+ * ({@link ReadYourWritesTracker}), inside {@link PrimaryReads#call} and when every replica
+ * is past the lag bound. Work outside a transaction counts as read-write, so only reads
+ * under {@code @Transactional(readOnly = true)} ever reach a replica.
+ */
+final class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    private final ReplicaSet replicas;
+    private final ReadYourWritesTracker readYourWrites;
+
+    ReadWriteRoutingDataSource(ReplicaSet replicas, ReadYourWritesTracker readYourWrites) {
+        this.replicas = replicas;
+        this.readYourWrites = readYourWrites;
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(ReplicaSet.PRIMARY, replicas.getPrimary());
+        replicas.getReplicas().forEach(replica -> targets.put(replica.getName(), replica.getDataSource()));
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(replicas.getPrimary());
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Long userId = ReadYourWritesTracker.currentUserId();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (userId != null && TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        readYourWrites.markWritten(userId);
+                    }
+                });
+            }
+            replicas.getPrimaryReadWrite().increment();
+            return ReplicaSet.PRIMARY;
+        }
+        if (PrimaryReads.isRequested()) {
+            replicas.getPrimaryHinted().increment();
+            return ReplicaSet.PRIMARY;
+        }
+        if (readYourWrites.isSticky(userId)) {
+            replicas.getPrimarySticky().increment();
+            return ReplicaSet.PRIMARY;
+        }
+        Replica replica = replicas.pick();
+        if (replica == null) {
+            replicas.getPrimaryFallback().increment();
+            return ReplicaSet.PRIMARY;
+        }
+        replica.getReads().increment();
+        return replica.getName();
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.musicplayer.datasource;
+
+import com.example.musicplayer.security.AuthenticatedUser;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Users whose own writes committed within the last musicplayer.datasource.sticky-ms.
+ * Their read-only transactions stay on the primary until a replica has had time to catch up,
+ * so nobody sees their own like or playlist edit disappear. Recorded whether or not
+ * replicas are configured; only {@link ReadWriteRoutingDataSource} reads it.
+ */
+@Component
+public class ReadYourWritesTracker {
+
+    private final Cache<Long, Boolean> recentWriters;
+
+    public ReadYourWritesTracker(@Value("${musicplayer.datasource.sticky-ms:5000}") long stickyMillis,
+                                 @Value("${musicplayer.datasource.sticky-max-users:1000000}") long maxUsers) {
+        this.recentWriters = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .expireAfterWrite(stickyMillis, TimeUnit.MILLISECONDS)
+                .build();
+    }
+
+    public void markWritten(Long userId) {
+        if (userId != null) {
+            recentWriters.put(userId, Boolean.TRUE);
+        }
+    }
+
+    public void markWritten(Collection<Long> userIds) {
+        userIds.forEach(this::markWritten);
+    }
+
+    public boolean isSticky(Long userId) {
+        return userId != null && recentWriters.getIfPresent(userId) != null;
+    }
+
+    // The user this request thread is working for; null on background threads and anonymous requests
+    static Long currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof AuthenticatedUser user) {
+            return user.getId();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.musicplayer.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import java.util.concurrent.atomic.LongAdder;
+
+// One read replica's pool plus what ReplicaMonitor last saw of it
+final class Replica {
+
+    private final HikariDataSource dataSource;
+    private final LongAdder reads = new LongAdder();
+
+    // Unknown (-1) and unavailable until the first successful check
+    private volatile long lagMillis = -1;
+    private volatile boolean available;
+
+    Replica(HikariDataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    String getName() {
+        return dataSource.getPoolName();
+    }
+
+    HikariDataSource getDataSource() {
+        return dataSource;
+    }
+
+    LongAdder getReads() {
+        return reads;
+    }
+
+    long getLagMillis() {
+        return lagMillis;
+    }
+
+    boolean isAvailable() {
+        return available;
+    }
+
+    void update(long lagMillis, boolean available) {
+        this.lagMillis = lagMillis;
+        this.available = available;
+    }
+}
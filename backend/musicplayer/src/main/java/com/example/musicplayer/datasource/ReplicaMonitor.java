@@ -0,0 +1,106 @@
+package com.example.musicplayer.datasource;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures replica lag with a heartbeat row: the primary stamps replication_heartbeat with
+ * the current time, and a replica is as far behind as the stamp it has replicated is old.
+ * This works without replication-admin privileges and measures what readers actually see.
+ * A replica whose stamp is older than the lag bound, or that can't be read, takes no reads
+ * until it catches up. Several instances may stamp the same row; lag then includes clock skew.
+ */
+class ReplicaMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaMonitor.class);
+
+    private static final String BEAT_SQL = "UPDATE replication_heartbeat SET beat_at = ? WHERE id = 1";
+    private static final String INSERT_SQL = "INSERT INTO replication_heartbeat (id, beat_at) VALUES (1, ?)";
+    private static final String READ_SQL = "SELECT beat_at FROM replication_heartbeat WHERE id = 1";
+
+    private final ReplicaSet replicas;
+    private final JdbcTemplate primaryJdbc;
+    private final long maxLagMillis;
+    private final long heartbeatIntervalMillis;
+    private final long checkIntervalMillis;
+    private final ScheduledExecutorService heartbeat = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "replica-heartbeat");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // Separate thread: a replica that hangs until its connection timeout must not delay the stamps
+    private final ScheduledExecutorService checker = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "replica-lag-monitor");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    ReplicaMonitor(ReplicaSet replicas, long maxLagMillis, long heartbeatIntervalMillis, long checkIntervalMillis) {
+        this.replicas = replicas;
+        this.primaryJdbc = new JdbcTemplate(replicas.getPrimary());
+        this.maxLagMillis = maxLagMillis;
+        this.heartbeatIntervalMillis = heartbeatIntervalMillis;
+        this.checkIntervalMillis = checkIntervalMillis;
+    }
+
+    // After startup, so Hibernate has created the heartbeat table; until then every read uses the primary
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        beatQuietly();
+        checkReplicas();
+        heartbeat.scheduleWithFixedDelay(this::beatQuietly, heartbeatIntervalMillis, heartbeatIntervalMillis, TimeUnit.MILLISECONDS);
+        checker.scheduleWithFixedDelay(this::checkReplicas, checkIntervalMillis, checkIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        heartbeat.shutdownNow();
+        checker.shutdownNow();
+    }
+
+    void beat() {
+        long now = System.currentTimeMillis();
+        if (primaryJdbc.update(BEAT_SQL, now) == 0) {
+            primaryJdbc.update(INSERT_SQL, now);
+        }
+    }
+
+    void checkReplicas() {
+        for (Replica replica : replicas.getReplicas()) {
+            boolean wasAvailable = replica.isAvailable();
+            try {
+                Long beatAt = new JdbcTemplate(replica.getDataSource()).queryForObject(READ_SQL, Long.class);
+                long lag = Math.max(0, System.currentTimeMillis() - beatAt);
+                replica.update(lag, lag <= maxLagMillis);
+            } catch (DataAccessException e) {
+                replica.update(-1, false);
+                if (wasAvailable) {
+                    log.warn("Replica {} unreachable, reads go to the primary: {}", replica.getName(), e.getMessage());
+                }
+                continue;
+            }
+            if (wasAvailable && !replica.isAvailable()) {
+                log.warn("Replica {} is {} ms behind (max {}), reads go elsewhere", replica.getName(), replica.getLagMillis(), maxLagMillis);
+            } else if (!wasAvailable && replica.isAvailable()) {
+                log.info("Replica {} is serving reads ({} ms behind)", replica.getName(), replica.getLagMillis());
+            }
+        }
+    }
+
+    private void beatQuietly() {
+        try {
+            beat();
+        } catch (DataAccessException e) {
+            log.warn("Heartbeat failed: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.musicplayer.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import java.io.Closeable;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+// The primary pool, the replica pools and how many connections went to each
+final class ReplicaSet implements Closeable {
+
+    static final String PRIMARY = "primary";
+
+    private final HikariDataSource primary;
+    private final List<Replica> replicas;
+    private final AtomicInteger next = new AtomicInteger();
+    private final LongAdder primaryReadWrite = new LongAdder();
+    private final LongAdder primarySticky = new LongAdder();
+    private final LongAdder primaryHinted = new LongAdder();
+    private final LongAdder primaryFallback = new LongAdder();
+
+    ReplicaSet(HikariDataSource primary, List<Replica> replicas) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+    }
+
+    HikariDataSource getPrimary() {
+        return primary;
+    }
+
+    List<Replica> getReplicas() {
+        return replicas;
+    }
+
+    // Round-robin over replicas within the lag bound; null when none is, and the primary takes the read
+    Replica pick() {
+        int size = replicas.size();
+        if (size == 0) {
+            return null;
+        }
+        int start = Math.floorMod(next.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.isAvailable()) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    LongAdder getPrimaryReadWrite() {
+        return primaryReadWrite;
+    }
+
+    LongAdder getPrimarySticky() {
+        return primarySticky;
+    }
+
+    LongAdder getPrimaryHinted() {
+        return primaryHinted;
+    }
+
+    LongAdder getPrimaryFallback() {
+        return primaryFallback;
+    }
+
+    @Override
+    public void close() {
+        replicas.forEach(replica -> replica.getDataSource().close());
+        primary.close();
+    }
+}
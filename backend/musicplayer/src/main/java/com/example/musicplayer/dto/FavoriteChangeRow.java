@@ -0,0 +1,42 @@
+package com.example.musicplayer.dto;
+
+// A favorite_changes row joined with its track; title is null when the track has since been deleted
+public class FavoriteChangeRow {
+    private final Long trackId;
+    private final boolean added;
+    private final long version;
+    private final String title;
+    private final String artist;
+    private final String cover;
+    private final String url;
+
+    public FavoriteChangeRow(Long trackId, boolean added, long version, String title, String artist, String cover, String url) {
+        this.trackId = trackId;
+        this.added = added;
+        this.version = version;
+        this.title = title;
+        this.artist = artist;
+        this.cover = cover;
+        this.url = url;
+    }
+
+    public Long getTrackId() {
+        return trackId;
+    }
+
+    public boolean isAdded() {
+        return added;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public TrackDTO toTrack() {
+        return new TrackDTO(trackId, title, artist, cover, url);
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.musicplayer.dto;
+
+import java.util.List;
+
+public class FavoriteChangesResponse {
+    private long version;         // pass back as ?since= on the next sync
+    private boolean reset;        // since was too old (or unknown): added holds the full list, replace local state
+    private List<TrackDTO> added;
+    private List<Long> removed;   // track ids
+
+    public FavoriteChangesResponse() {}
+
+    public FavoriteChangesResponse(long version, boolean reset, List<TrackDTO> added, List<Long> removed) {
+        this.version = version;
+        this.reset = reset;
+        this.added = added;
+        this.removed = removed;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    public boolean isReset() {
+        return reset;
+    }
+
+    public void setReset(boolean reset) {
+        this.reset = reset;
+    }
+
+    public List<TrackDTO> getAdded() {
+        return added;
+    }
+
+    public void setAdded(List<TrackDTO> added) {
+        this.added = added;
+    }
+
+    public List<Long> getRemoved() {
+        return removed;
+    }
+
+    public void setRemoved(List<Long> removed) {
+        this.removed = removed;
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.musicplayer.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+// One entry of a POST /api/plays batch; playedAt is epoch millis and defaults to the time of receipt
+@Getter @Setter
+public class PlayRequest {
+    private Long trackId;
+    private Long playedAt;
+    private Integer secondsPlayed;
+}
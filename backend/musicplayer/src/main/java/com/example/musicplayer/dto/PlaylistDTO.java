@@ -1,6 +1,9 @@
 package com.example.musicplayer.dto;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 public class PlaylistDTO {
     private Long id;
@@ -17,6 +20,19 @@ public class PlaylistDTO {
         this.tracks = tracks;
     }
 
+    // Groups flat rows (ordered by playlist) back into one DTO per playlist
+    public static List<PlaylistDTO> fromRows(List<PlaylistTrackRow> rows) {
+        Map<Long, PlaylistDTO> playlists = new LinkedHashMap<>();
+        for (PlaylistTrackRow row : rows) {
+            PlaylistDTO playlist = playlists.computeIfAbsent(row.getPlaylistId(),
+                    id -> new PlaylistDTO(id, row.getPlaylistName(), new ArrayList<>()));
+            if (row.getTrackId() != null) {
+                playlist.getTracks().add(row.toTrackDTO());
+            }
+        }
+        return new ArrayList<>(playlists.values());
+    }
+
     // ✅ Getters and Setters
     public Long getId() {
         return id;
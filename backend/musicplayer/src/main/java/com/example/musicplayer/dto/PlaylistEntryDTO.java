@@ -0,0 +1,39 @@
+package com.example.musicplayer.dto;
+
+public class PlaylistEntryDTO {
+    private Long entryId;   // stable handle for move/remove; the same track can appear more than once
+    private long position;
+    private TrackDTO track;
+
+    public PlaylistEntryDTO() {}
+
+    public PlaylistEntryDTO(Long entryId, long position, Long trackId, String title, String artist, String cover, String url) {
+        this.entryId = entryId;
+        this.position = position;
+        this.track = new TrackDTO(trackId, title, artist, cover, url);
+    }
+
+    public Long getEntryId() {
+        return entryId;
+    }
+
+    public void setEntryId(Long entryId) {
+        this.entryId = entryId;
+    }
+
+    public long getPosition() {
+        return position;
+    }
+
+    public void setPosition(long position) {
+        this.position = position;
+    }
+
+    public TrackDTO getTrack() {
+        return track;
+    }
+
+    public void setTrack(TrackDTO track) {
+        this.track = track;
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.musicplayer.dto;
+
+import java.util.List;
+
+public class PlaylistEntryPage {
+    private List<PlaylistEntryDTO> items;
+    private String nextCursor; // null at the end of the playlist
+
+    public PlaylistEntryPage() {}
+
+    public PlaylistEntryPage(List<PlaylistEntryDTO> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<PlaylistEntryDTO> getItems() {
+        return items;
+    }
+
+    public void setItems(List<PlaylistEntryDTO> items) {
+        this.items = items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.musicplayer.dto;
+
+// One (playlist, track) pair from a flat join; trackId is null for an empty playlist
+public class PlaylistTrackRow {
+    private final Long playlistId;
+    private final String playlistName;
+    private final Long trackId;
+    private final String title;
+    private final String artist;
+    private final String cover;
+    private final String url;
+
+    public PlaylistTrackRow(Long playlistId, String playlistName, Long trackId,
+                            String title, String artist, String cover, String url) {
+        this.playlistId = playlistId;
+        this.playlistName = playlistName;
+        this.trackId = trackId;
+        this.title = title;
+        this.artist = artist;
+        this.cover = cover;
+        this.url = url;
+    }
+
+    public Long getPlaylistId() {
+        return playlistId;
+    }
+
+    public String getPlaylistName() {
+        return playlistName;
+    }
+
+    public Long getTrackId() {
+        return trackId;
+    }
+
+    public TrackDTO toTrackDTO() {
+        return new TrackDTO(trackId, title, artist, cover, url);
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.musicplayer.dto;
+
+public class SuggestionDTO {
+    private String text;
+    private String type; // "artist" or "title"
+
+    public SuggestionDTO() {}
+
+    public SuggestionDTO(String text, String type) {
+        this.text = text;
+        this.type = type;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public void setText(String text) {
+        this.text = text;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+}
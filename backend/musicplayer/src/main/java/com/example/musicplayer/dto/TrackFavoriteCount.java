@@ -0,0 +1,9 @@
+package com.example.musicplayer.dto;
+
+// Projection used when rebuilding the suggestion dictionary
+public interface TrackFavoriteCount {
+    Long getId();
+    String getTitle();
+    String getArtist();
+    Long getFavoriteCount();
+}
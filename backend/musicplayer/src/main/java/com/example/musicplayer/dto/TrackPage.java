@@ -0,0 +1,31 @@
+package com.example.musicplayer.dto;
+
+import java.util.List;
+
+public class TrackPage {
+    private List<TrackDTO> items;
+    private String nextCursor; // null when there are no more tracks
+
+    public TrackPage() {}
+
+    public TrackPage(List<TrackDTO> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<TrackDTO> getItems() {
+        return items;
+    }
+
+    public void setItems(List<TrackDTO> items) {
+        this.items = items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
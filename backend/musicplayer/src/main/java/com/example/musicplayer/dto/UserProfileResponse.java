@@ -1,9 +1,7 @@
 package com.example.musicplayer.dto;
 
-import com.example.musicplayer.model.User;
 import java.time.LocalDate;
 import java.util.List;
-import java.util.stream.Collectors;
 
 public class UserProfileResponse {
     private String name;
@@ -12,23 +10,34 @@ public class UserProfileResponse {
     private List<TrackDTO> favorites;
     private List<PlaylistDTO> playlists;
 
-    public UserProfileResponse(User user) {
-        this.name = user.getName();
-        this.email = user.getEmail();
-        this.joinedAt = user.getJoinedAt();
-        this.favorites = user.getFavorites().stream()
-                .map(t -> new TrackDTO(t.getId(), t.getTitle(), t.getArtist(), t.getCover(), t.getUrl()))
-                .collect(Collectors.toList());
-        this.playlists = user.getPlaylists().stream()
-                .map(pl -> new PlaylistDTO(
-                        pl.getId(),
-                        pl.getName(),
-                        pl.getTracks().stream()
-                                .map(t -> new TrackDTO(t.getId(), t.getTitle(), t.getArtist(), t.getCover(), t.getUrl()))
-                                .collect(Collectors.toList())
-                ))
-                .collect(Collectors.toList());
+    // Collections are loaded by projection queries, so building this never touches lazy associations
+    public UserProfileResponse(String name, String email, LocalDate joinedAt,
+                               List<TrackDTO> favorites, List<PlaylistDTO> playlists) {
+        this.name = name;
+        this.email = email;
+        this.joinedAt = joinedAt;
+        this.favorites = favorites;
+        this.playlists = playlists;
     }
 
     // Getters
+    public String getName() {
+        return name;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public LocalDate getJoinedAt() {
+        return joinedAt;
+    }
+
+    public List<TrackDTO> getFavorites() {
+        return favorites;
+    }
+
+    public List<PlaylistDTO> getPlaylists() {
+        return playlists;
+    }
 }
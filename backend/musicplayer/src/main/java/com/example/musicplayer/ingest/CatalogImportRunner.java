@@ -0,0 +1,35 @@
+package com.example.musicplayer.ingest;
+
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Paths;
+import java.util.List;
+
+/**
+ * Command-line import: java -jar musicplayer.jar --import=catalog.csv [--import=more.jsonl]
+ */
+@Component
+public class CatalogImportRunner implements ApplicationRunner {
+
+    private final CatalogImportService catalogImportService;
+
+    public CatalogImportRunner(CatalogImportService catalogImportService) {
+        this.catalogImportService = catalogImportService;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        List<String> files = args.getOptionValues("import");
+        if (files == null) {
+            return;
+        }
+        for (String file : files) {
+            ImportJob job = catalogImportService.runNow(Paths.get(file));
+            if (job.getState() == ImportJob.State.FAILED) {
+                throw new IllegalStateException("Catalog import failed for " + file + ": " + job.getError());
+            }
+        }
+    }
+}
@@ -0,0 +1,312 @@
+package com.example.musicplayer.ingest;
+
+import com.example.musicplayer.cache.CacheRegion;
+import com.example.musicplayer.cache.LibraryCache;
+import com.example.musicplayer.search.TrackSearchIndex;
+import com.example.musicplayer.search.TrackSuggester;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Streams CSV or JSON-lines catalog files into the Track table.
+ * Rows go out through JDBC batches of INSERT IGNORE (collapsed into multi-row inserts by
+ * the MySQL driver's rewriteBatchedStatements), so Hibernate's IDENTITY limitation does not
+ * apply and the unique (artist, title) key dedupes both within the file and against the table.
+ * Only one batch is ever held in memory. After each committed batch the line number is
+ * written to a checkpoint file next to the input, and a rerun resumes from there.
+ * CSV is read record by record, so a quoted field may span lines; the checkpoint still counts
+ * physical lines, and a record always ends on a line boundary.
+ */
+@Service
+public class CatalogImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogImportService.class);
+
+    private static final String INSERT_SQL = "INSERT IGNORE INTO Track (title, artist, url, cover) VALUES (?, ?, ?, ?)";
+    private static final String CHECKPOINT_SUFFIX = ".checkpoint";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TrackSearchIndex trackSearchIndex;
+
+    @Autowired
+    private TrackSuggester trackSuggester;
+
+    @Autowired
+    private LibraryCache libraryCache;
+
+    @Value("${musicplayer.import.dir:./imports}")
+    private String importDir;
+
+    @Value("${musicplayer.import.batch-size:5000}")
+    private int batchSize;
+
+    @Value("${musicplayer.import.job-retention-minutes:60}")
+    private long jobRetentionMinutes;
+
+    private final Map<String, ImportJob> jobs = new ConcurrentHashMap<>();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "catalog-import");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Admin endpoint: only files under the import directory may be read
+    public ImportJob submit(String relativePath) {
+        Path root = Paths.get(importDir).toAbsolutePath().normalize();
+        Path file = root.resolve(relativePath).normalize();
+        if (!file.startsWith(root) || !Files.isRegularFile(file)) {
+            throw new RuntimeException("Import file not found: " + relativePath);
+        }
+        ImportJob job = new ImportJob(file);
+        pruneFinishedJobs();
+        jobs.put(job.getId(), job);
+        executor.submit(() -> run(job));
+        return job;
+    }
+
+    public ImportJob getJob(String id) {
+        ImportJob job = jobs.get(id);
+        if (job == null) {
+            throw new RuntimeException("Import job not found: " + id);
+        }
+        return job;
+    }
+
+    // CLI runner: import synchronously on the calling thread
+    public ImportJob runNow(Path file) {
+        ImportJob job = new ImportJob(file.toAbsolutePath().normalize());
+        pruneFinishedJobs();
+        jobs.put(job.getId(), job);
+        run(job);
+        return job;
+    }
+
+    // Finished jobs stay pollable for a while, then go; running and queued jobs are never dropped
+    private void pruneFinishedJobs() {
+        Instant cutoff = Instant.now().minus(Duration.ofMinutes(jobRetentionMinutes));
+        jobs.values().removeIf(job -> job.getFinishedAt() != null && job.getFinishedAt().isBefore(cutoff));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void run(ImportJob job) {
+        job.setState(ImportJob.State.RUNNING);
+        job.setStartedAt(Instant.now());
+        Path checkpoint = job.getPath().resolveSibling(job.getPath().getFileName() + CHECKPOINT_SUFFIX);
+
+        try (BufferedReader reader = Files.newBufferedReader(job.getPath(), StandardCharsets.UTF_8)) {
+            long resumeAfter = Files.exists(checkpoint) ? Long.parseLong(Files.readString(checkpoint).trim()) : 0;
+            job.setResumedFromLine(resumeAfter);
+
+            boolean csv = job.getPath().getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".csv");
+            RecordReader records = new RecordReader(reader, csv);
+            Map<String, Integer> columns = csv ? csvHeader(records.next()) : null;
+
+            List<Object[]> batch = new ArrayList<>(batchSize);
+            String record;
+            while ((record = records.next()) != null) {
+                long lineNumber = records.lineNumber();
+                if (lineNumber <= resumeAfter || record.isBlank()) {
+                    continue;
+                }
+                Object[] row = csv ? parseCsvRow(record, columns) : parseJsonRow(record);
+                if (row == null) {
+                    job.addRowRejected();
+                } else {
+                    batch.add(row);
+                }
+                if (batch.size() >= batchSize) {
+                    flush(job, batch, checkpoint, lineNumber);
+                }
+                job.setLinesRead(lineNumber);
+            }
+            flush(job, batch, checkpoint, records.lineNumber());
+
+            Files.deleteIfExists(checkpoint);
+            job.setState(ImportJob.State.COMPLETED);
+            log.info("Imported {}: {} rows written, {} rejected",
+                    job.getFile(), job.getRowsWritten(), job.getRowsRejected());
+
+            // JDBC writes bypass the entity listeners, so refresh the in-memory indexes in one go
+            trackSearchIndex.rebuild();
+            trackSuggester.rebuild();
+            libraryCache.invalidateAll(CacheRegion.TRACK_PAGE); // import only adds tracks
+        } catch (IOException | RuntimeException e) {
+            job.setError(e.getMessage());
+            job.setState(ImportJob.State.FAILED);
+            log.error("Import failed for {}", job.getFile(), e);
+        } finally {
+            job.setFinishedAt(Instant.now());
+        }
+    }
+
+    private void flush(ImportJob job, List<Object[]> batch, Path checkpoint, long lineNumber) throws IOException {
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SQL, batch);
+            job.addRowsWritten(batch.size());
+            batch.clear();
+        }
+        // Replaying a batch after a crash is harmless: INSERT IGNORE skips rows already present
+        Files.writeString(checkpoint, Long.toString(lineNumber));
+    }
+
+    private Object[] parseJsonRow(String line) {
+        try {
+            JsonNode node = objectMapper.readTree(line);
+            return toRow(text(node, "title"), text(node, "artist"), text(node, "url"), text(node, "cover"));
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private String text(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+
+    private Map<String, Integer> csvHeader(String header) {
+        if (header == null) {
+            throw new RuntimeException("CSV file is empty");
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        List<String> names = splitCsv(header);
+        for (int i = 0; i < names.size(); i++) {
+            columns.put(names.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        if (!columns.containsKey("title") || !columns.containsKey("artist")) {
+            throw new RuntimeException("CSV header must contain title and artist columns");
+        }
+        return columns;
+    }
+
+    private Object[] parseCsvRow(String line, Map<String, Integer> columns) {
+        List<String> fields = splitCsv(line);
+        return toRow(field(fields, columns, "title"), field(fields, columns, "artist"),
+                field(fields, columns, "url"), field(fields, columns, "cover"));
+    }
+
+    private String field(List<String> fields, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        return index == null || index >= fields.size() ? null : fields.get(index);
+    }
+
+    private Object[] toRow(String title, String artist, String url, String cover) {
+        if (title == null || title.isBlank() || artist == null || artist.isBlank()) {
+            return null;
+        }
+        return new Object[]{title.trim(), artist.trim(), url, cover};
+    }
+
+    // RFC 4180 fields of one record: commas, double quotes, "" as an escaped quote
+    private static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        fields.add(current.toString());
+        return fields;
+    }
+
+    /**
+     * Hands out one record at a time: a line for JSON-lines, and for CSV as many lines as it
+     * takes to close an open quote. Tracks the physical line the last record ended on.
+     */
+    private static final class RecordReader {
+
+        private final BufferedReader reader;
+        private final boolean csv;
+        private long lineNumber;
+
+        RecordReader(BufferedReader reader, boolean csv) {
+            this.reader = reader;
+            this.csv = csv;
+        }
+
+        String next() throws IOException {
+            String line = reader.readLine();
+            if (line == null) {
+                return null;
+            }
+            lineNumber++;
+            if (!csv || !openQuote(line)) {
+                return line;
+            }
+            StringBuilder record = new StringBuilder(line);
+            boolean open = true;
+            // An unterminated quote at end of file leaves the rest of the file as one field
+            while (open && (line = reader.readLine()) != null) {
+                lineNumber++;
+                record.append('\n').append(line);
+                open ^= openQuote(line);
+            }
+            return record.toString();
+        }
+
+        long lineNumber() {
+            return lineNumber;
+        }
+
+        // An escaped "" counts twice, so an odd number of quotes flips the open state
+        private static boolean openQuote(String line) {
+            int quotes = 0;
+            for (int i = 0; i < line.length(); i++) {
+                if (line.charAt(i) == '"') {
+                    quotes++;
+                }
+            }
+            return (quotes & 1) == 1;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.musicplayer.ingest;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Progress of one catalog import; polled through /api/admin/imports/{id}.
+ */
+public class ImportJob {
+
+    public enum State { QUEUED, RUNNING, COMPLETED, FAILED }
+
+    private final String id = UUID.randomUUID().toString();
+    private final Path file;
+    private final AtomicLong linesRead = new AtomicLong();
+    private final AtomicLong rowsWritten = new AtomicLong();
+    private final AtomicLong rowsRejected = new AtomicLong();
+    private volatile State state = State.QUEUED;
+    private volatile long resumedFromLine;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile String error;
+
+    public ImportJob(Path file) {
+        this.file = file;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getFile() {
+        return file.toString();
+    }
+
+    Path getPath() {
+        return file;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    void setState(State state) {
+        this.state = state;
+    }
+
+    public long getLinesRead() {
+        return linesRead.get();
+    }
+
+    void setLinesRead(long lines) {
+        linesRead.set(lines);
+    }
+
+    // Rows sent to the database; duplicates of existing (artist, title) pairs are ignored there
+    public long getRowsWritten() {
+        return rowsWritten.get();
+    }
+
+    void addRowsWritten(long rows) {
+        rowsWritten.addAndGet(rows);
+    }
+
+    public long getRowsRejected() {
+        return rowsRejected.get();
+    }
+
+    void addRowRejected() {
+        rowsRejected.incrementAndGet();
+    }
+
+    public long getResumedFromLine() {
+        return resumedFromLine;
+    }
+
+    void setResumedFromLine(long line) {
+        this.resumedFromLine = line;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    void setStartedAt(Instant startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    void setFinishedAt(Instant finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    void setError(String error) {
+        this.error = error;
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.musicplayer.ingest;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Progress of one media library scan; polled through /api/admin/library/scan.
+ */
+public class LibraryScan {
+
+    private static final int MAX_CONFLICTS_LISTED = 100;
+
+    private final AtomicLong filesSeen = new AtomicLong();
+    private final AtomicLong filesChanged = new AtomicLong();
+    private final AtomicLong tracksWritten = new AtomicLong();
+    private final AtomicLong filesFailed = new AtomicLong();
+    private final AtomicLong filesConflicting = new AtomicLong();
+    private final AtomicLong filesMissing = new AtomicLong();
+    private final List<String> conflicts = new CopyOnWriteArrayList<>();
+    private volatile ImportJob.State state = ImportJob.State.QUEUED;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile String error;
+
+    public long getFilesSeen() {
+        return filesSeen.get();
+    }
+
+    void addFileSeen() {
+        filesSeen.incrementAndGet();
+    }
+
+    // Files that were new or whose size/mtime differed from the last scan
+    public long getFilesChanged() {
+        return filesChanged.get();
+    }
+
+    void addFileChanged() {
+        filesChanged.incrementAndGet();
+    }
+
+    public long getTracksWritten() {
+        return tracksWritten.get();
+    }
+
+    void addTracksWritten(long count) {
+        tracksWritten.addAndGet(count);
+    }
+
+    public long getFilesFailed() {
+        return filesFailed.get();
+    }
+
+    void addFileFailed() {
+        filesFailed.incrementAndGet();
+    }
+
+    // Files recorded by an earlier scan that are gone; their tracks were removed, or unlinked if still in use
+    public long getFilesMissing() {
+        return filesMissing.get();
+    }
+
+    void addFileMissing() {
+        filesMissing.incrementAndGet();
+    }
+
+    // Files skipped because another track already has their artist and title
+    public long getFilesConflicting() {
+        return filesConflicting.get();
+    }
+
+    // The first few of those, as "path: artist - title (track id)"
+    public List<String> getConflicts() {
+        return conflicts;
+    }
+
+    void addConflict(String description) {
+        if (filesConflicting.incrementAndGet() <= MAX_CONFLICTS_LISTED) {
+            conflicts.add(description);
+        }
+    }
+
+    public ImportJob.State getState() {
+        return state;
+    }
+
+    void setState(ImportJob.State state) {
+        this.state = state;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    void setStartedAt(Instant startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    void setFinishedAt(Instant finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    void setError(String error) {
+        this.error = error;
+    }
+
+    boolean isActive() {
+        return state == ImportJob.State.QUEUED || state == ImportJob.State.RUNNING;
+    }
+}
@@ -0,0 +1,477 @@
+package com.example.musicplayer.ingest;
+
+import com.example.musicplayer.cache.LibraryCache;
+import com.example.musicplayer.media.MediaStore;
+import com.example.musicplayer.search.TrackSearchIndex;
+import com.example.musicplayer.search.TrackSuggester;
+import jakarta.annotation.PreDestroy;
+import org.jaudiotagger.audio.AudioFile;
+import org.jaudiotagger.audio.AudioFileIO;
+import org.jaudiotagger.audio.AudioHeader;
+import org.jaudiotagger.tag.FieldKey;
+import org.jaudiotagger.tag.Tag;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.logging.Level;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Scans the local media store and writes tag and stream metadata onto Track rows.
+ * Only files whose size or mtime differ from what the row recorded are parsed, so a rescan of
+ * an unchanged library is just a directory walk. Parsing (ID3, Vorbis comments, MP4 atoms via
+ * jaudiotagger) fans out over a dedicated fork-join pool in chunks, and each chunk is written
+ * back with one JDBC batch. Scans run on their own thread and never on a request thread.
+ * Local files are keyed by their url (the path under the media root). Track titles are unique
+ * per artist, so a file whose tags name a track that already exists is handled explicitly: it
+ * takes over a catalog row that has no url yet, and is otherwise skipped and reported on the
+ * {@link LibraryScan} as a conflict. Skipped files are parsed again on the next scan.
+ * Rows whose file was seen by an earlier scan but is gone from the media root are removed once
+ * the walk finishes; a row still in a playlist or favorites instead loses its url and waits for
+ * the file to come back. A file whose tags name such a row (a moved file) is held back until
+ * then, so it takes the row over in the same scan instead of being reported as a conflict.
+ */
+@Component
+public class MediaLibraryScanner {
+
+    private static final Logger log = LoggerFactory.getLogger(MediaLibraryScanner.class);
+
+    private static final Set<String> AUDIO_EXTENSIONS = Set.of("mp3", "flac", "ogg", "oga", "opus", "m4a", "mp4", "aac", "wav", "aif", "aiff", "wma");
+
+    private static final String SELECT_LOCAL_SQL =
+            "SELECT id, url, fileSize, fileModifiedAt FROM Track WHERE url IS NOT NULL AND url NOT LIKE 'http%' " +
+            "AND fileModifiedAt IS NOT NULL";
+    private static final String UPDATE_SQL =
+            "UPDATE Track SET title = ?, artist = ?, album = ?, releaseYear = ?, durationSeconds = ?, bitrateKbps = ?, " +
+            "sampleRate = ?, fileSize = ?, fileModifiedAt = ?, url = ? WHERE id = ?";
+    private static final String INSERT_SQL =
+            "INSERT INTO Track (title, artist, album, releaseYear, durationSeconds, bitrateKbps, sampleRate, " +
+            "fileSize, fileModifiedAt, url) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String SELECT_BY_TITLE_SQL = "SELECT id, artist, title, url FROM Track WHERE title IN (%s)";
+    private static final String SELECT_BY_URL_SQL = "SELECT url FROM Track WHERE url IN (%s)";
+    private static final String DELETE_SQL = "DELETE FROM Track WHERE id = ?";
+    private static final String DETACH_SQL = "UPDATE Track SET url = NULL, fileSize = NULL, fileModifiedAt = NULL WHERE id = ?";
+
+    private final MediaStore mediaStore;
+    private final JdbcTemplate jdbcTemplate;
+    private final TrackSearchIndex trackSearchIndex;
+    private final TrackSuggester trackSuggester;
+    private final LibraryCache libraryCache;
+    private final ForkJoinPool parsers;
+    private final int chunkSize;
+    private final boolean scanOnStartup;
+    private final ExecutorService scanThread = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "library-scan");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile LibraryScan lastScan;
+
+    public MediaLibraryScanner(MediaStore mediaStore,
+                               JdbcTemplate jdbcTemplate,
+                               TrackSearchIndex trackSearchIndex,
+                               TrackSuggester trackSuggester,
+                               LibraryCache libraryCache,
+                               @Value("${musicplayer.library.workers:0}") int workers,
+                               @Value("${musicplayer.library.chunk-size:500}") int chunkSize,
+                               @Value("${musicplayer.library.scan-on-startup:false}") boolean scanOnStartup) {
+        this.mediaStore = mediaStore;
+        this.jdbcTemplate = jdbcTemplate;
+        this.trackSearchIndex = trackSearchIndex;
+        this.trackSuggester = trackSuggester;
+        this.libraryCache = libraryCache;
+        this.parsers = new ForkJoinPool(workers > 0 ? workers : Runtime.getRuntime().availableProcessors());
+        this.chunkSize = chunkSize;
+        this.scanOnStartup = scanOnStartup;
+        java.util.logging.Logger.getLogger("org.jaudiotagger").setLevel(Level.WARNING); // very chatty at INFO
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void scanIfConfigured() {
+        if (scanOnStartup) {
+            startScan();
+        }
+    }
+
+    // Returns the running scan instead of starting a second one
+    public synchronized LibraryScan startScan() {
+        if (lastScan != null && lastScan.isActive()) {
+            return lastScan;
+        }
+        LibraryScan scan = new LibraryScan();
+        lastScan = scan;
+        scanThread.submit(() -> run(scan));
+        return scan;
+    }
+
+    public LibraryScan getLastScan() {
+        return lastScan;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scanThread.shutdownNow();
+        parsers.shutdownNow();
+    }
+
+    private void run(LibraryScan scan) {
+        scan.setState(ImportJob.State.RUNNING);
+        scan.setStartedAt(Instant.now());
+        Path root = mediaStore.getRoot();
+        try {
+            // Files seen by earlier scans; whatever the walk doesn't find again has been deleted
+            Map<String, KnownFile> unseen = loadKnownFiles();
+            List<ChangedFile> pending = new ArrayList<>(chunkSize);
+            List<ScannedFile> deferred = new ArrayList<>();
+
+            try (Stream<Path> files = Files.walk(root)) {
+                for (Path file : (Iterable<Path>) files.filter(this::isAudioFile)::iterator) {
+                    scan.addFileSeen();
+                    String relative = root.relativize(file).toString().replace('\\', '/');
+                    BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                    long size = attributes.size();
+                    long modified = attributes.lastModifiedTime().toMillis();
+
+                    KnownFile previous = unseen.remove(relative);
+                    if (previous != null && Objects.equals(previous.size, size) && Objects.equals(previous.modifiedAt, modified)) {
+                        continue;
+                    }
+                    scan.addFileChanged();
+                    pending.add(new ChangedFile(file, relative, previous == null ? null : previous.id, size, modified));
+                    if (pending.size() >= chunkSize) {
+                        processChunk(scan, pending, unseen, deferred);
+                    }
+                }
+            }
+            processChunk(scan, pending, unseen, deferred);
+            removeMissing(scan, unseen.values());
+            write(scan, deferred, Map.of(), null);
+
+            scan.setState(ImportJob.State.COMPLETED);
+            log.info("Scanned {} files, {} changed, {} failed, {} missing",
+                    scan.getFilesSeen(), scan.getFilesChanged(), scan.getFilesFailed(), scan.getFilesMissing());
+            if (scan.getTracksWritten() > 0 || scan.getFilesMissing() > 0) {
+                trackSearchIndex.rebuild();
+                trackSuggester.rebuild();
+                libraryCache.invalidateCatalog();
+            }
+        } catch (IOException | RuntimeException | InterruptedException | ExecutionException e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            scan.setError(e.getMessage());
+            scan.setState(ImportJob.State.FAILED);
+            log.error("Scan failed", e);
+        } finally {
+            scan.setFinishedAt(Instant.now());
+        }
+    }
+
+    // A scan sets fileModifiedAt, so catalog rows whose file was never seen are left alone
+    private Map<String, KnownFile> loadKnownFiles() {
+        Map<String, KnownFile> known = new HashMap<>();
+        jdbcTemplate.query(SELECT_LOCAL_SQL, rs -> {
+            known.put(rs.getString("url"), new KnownFile(rs.getLong("id"),
+                    rs.getObject("fileSize", Long.class), rs.getObject("fileModifiedAt", Long.class)));
+        });
+        return known;
+    }
+
+    private void processChunk(LibraryScan scan, List<ChangedFile> chunk, Map<String, KnownFile> unseen,
+                              List<ScannedFile> deferred) throws InterruptedException, ExecutionException {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        // Parallel stream inside our own pool, so parsing never competes with the common pool
+        List<ScannedFile> scanned = parsers.submit(() -> chunk.parallelStream()
+                .map(file -> {
+                    ScannedFile row = extract(file);
+                    if (row == null) {
+                        scan.addFileFailed();
+                    }
+                    return row;
+                })
+                .filter(Objects::nonNull)
+                .toList()).get();
+        write(scan, scanned, unseen, deferred);
+        chunk.clear();
+    }
+
+    // Files colliding with a row whose own file hasn't been walked past yet go to deferred, if given
+    private void write(LibraryScan scan, List<ScannedFile> scanned, Map<String, KnownFile> unseen,
+                       List<ScannedFile> deferred) {
+        // (artist, title) -> the track holding it, for rows in the table and rows claimed by this chunk
+        Map<String, Owner> owners = loadOwners(scanned);
+        List<Object[]> updates = new ArrayList<>();
+        List<Object[]> inserts = new ArrayList<>();
+        for (ScannedFile file : scanned) {
+            Long trackId = file.trackId;
+            Owner owner = owners.get(file.key());
+            if (owner != null && (owner.id == null || !owner.id.equals(trackId))) {
+                if (trackId == null && owner.id != null && (owner.url == null || owner.url.isBlank())) {
+                    trackId = owner.id; // a catalog row waiting for its file
+                } else if (deferred != null && owner.url != null && unseen.containsKey(owner.url)) {
+                    deferred.add(file);
+                    continue;
+                } else {
+                    reportConflict(scan, file, owner);
+                    continue;
+                }
+            }
+            owners.put(file.key(), new Owner(trackId, file.url()));
+            if (trackId != null) {
+                updates.add(file.updateRow(trackId));
+            } else {
+                inserts.add(file.values);
+            }
+        }
+        int written = writeUpdates(scan, updates) + writeInserts(scan, inserts);
+        scan.addTracksWritten(written);
+    }
+
+    private void removeMissing(LibraryScan scan, Collection<KnownFile> missing) {
+        for (KnownFile file : missing) {
+            try {
+                jdbcTemplate.update(DELETE_SQL, file.id);
+            } catch (DataIntegrityViolationException referenced) {
+                jdbcTemplate.update(DETACH_SQL, file.id);
+            }
+            scan.addFileMissing();
+        }
+    }
+
+    private Map<String, Owner> loadOwners(List<ScannedFile> scanned) {
+        Map<String, Owner> owners = new HashMap<>();
+        List<Object> titles = scanned.stream().map(file -> file.values[0]).distinct().collect(Collectors.toList());
+        if (titles.isEmpty()) {
+            return owners;
+        }
+        jdbcTemplate.query(String.format(SELECT_BY_TITLE_SQL, placeholders(titles.size())), rs -> {
+            owners.put(key(rs.getString("artist"), rs.getString("title")),
+                    new Owner(rs.getLong("id"), rs.getString("url")));
+        }, titles.toArray());
+        return owners;
+    }
+
+    // The pre-check compares case-insensitively like the column collation, but the database
+    // has the last word: a batch that still collides is retried row by row
+    private int writeUpdates(LibraryScan scan, List<Object[]> updates) {
+        if (updates.isEmpty()) {
+            return 0;
+        }
+        try {
+            jdbcTemplate.batchUpdate(UPDATE_SQL, updates);
+            return updates.size();
+        } catch (DuplicateKeyException e) {
+            int written = 0;
+            for (Object[] row : updates) {
+                try {
+                    written += jdbcTemplate.update(UPDATE_SQL, row);
+                } catch (DuplicateKeyException conflict) {
+                    reportConflict(scan, row);
+                }
+            }
+            return written;
+        }
+    }
+
+    private int writeInserts(LibraryScan scan, List<Object[]> inserts) {
+        if (inserts.isEmpty()) {
+            return 0;
+        }
+        try {
+            jdbcTemplate.batchUpdate(INSERT_SQL, inserts);
+            return inserts.size();
+        } catch (DuplicateKeyException e) {
+            // Part of the batch may have gone in before the failing row; don't insert those twice
+            List<Object> urls = inserts.stream().map(row -> row[row.length - 1]).collect(Collectors.toList());
+            Set<String> present = new HashSet<>(jdbcTemplate.queryForList(
+                    String.format(SELECT_BY_URL_SQL, placeholders(urls.size())), String.class, urls.toArray()));
+            int written = 0;
+            for (Object[] row : inserts) {
+                if (present.contains((String) row[row.length - 1])) {
+                    written++;
+                    continue;
+                }
+                try {
+                    written += jdbcTemplate.update(INSERT_SQL, row);
+                } catch (DuplicateKeyException conflict) {
+                    reportConflict(scan, row);
+                }
+            }
+            return written;
+        }
+    }
+
+    private void reportConflict(LibraryScan scan, ScannedFile file, Owner owner) {
+        String description = file.url() + ": " + file.values[1] + " - " + file.values[0]
+                + (owner.id == null ? " (another file in this scan)" : " (track " + owner.id + ")");
+        log.warn("Skipped {}: artist and title already taken", description);
+        scan.addConflict(description);
+    }
+
+    // Rows are laid out as in UPDATE_SQL/INSERT_SQL: title, artist, ..., url[, id]
+    private void reportConflict(LibraryScan scan, Object[] row) {
+        String description = row[9] + ": " + row[1] + " - " + row[0];
+        log.warn("Skipped {}: artist and title already taken", description);
+        scan.addConflict(description);
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+
+    private static String key(String artist, String title) {
+        return artist.toLowerCase(Locale.ROOT) + '\0' + title.toLowerCase(Locale.ROOT);
+    }
+
+    private ScannedFile extract(ChangedFile file) {
+        try {
+            AudioFile audioFile = AudioFileIO.read(file.path.toFile());
+            AudioHeader header = audioFile.getAudioHeader();
+            Tag tag = audioFile.getTag();
+
+            String title = tagValue(tag, FieldKey.TITLE);
+            String artist = tagValue(tag, FieldKey.ARTIST);
+            if (title == null) {
+                String name = file.path.getFileName().toString();
+                title = name.contains(".") ? name.substring(0, name.lastIndexOf('.')) : name;
+            }
+            return new ScannedFile(file.trackId, new Object[]{
+                    title,
+                    artist == null ? "Unknown Artist" : artist,
+                    tagValue(tag, FieldKey.ALBUM),
+                    parseYear(tagValue(tag, FieldKey.YEAR)),
+                    header.getTrackLength(),
+                    (int) header.getBitRateAsNumber(),
+                    header.getSampleRateAsNumber(),
+                    file.size,
+                    file.modifiedAt,
+                    file.relativePath
+            });
+        } catch (Exception e) {
+            // jaudiotagger throws a zoo of checked exceptions for corrupt or unsupported files
+            log.warn("Could not read {}: {}", file.relativePath, e.getMessage());
+            return null;
+        }
+    }
+
+    private String tagValue(Tag tag, FieldKey key) {
+        if (tag == null) {
+            return null;
+        }
+        String value = tag.getFirst(key);
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    private Integer parseYear(String value) {
+        // Tags hold "2001", "2001-05-17" or worse; keep the leading four digits
+        if (value == null || value.length() < 4) {
+            return null;
+        }
+        try {
+            return Integer.parseInt(value.substring(0, 4));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private boolean isAudioFile(Path path) {
+        String name = path.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        return dot > 0 && Files.isRegularFile(path)
+                && AUDIO_EXTENSIONS.contains(name.substring(dot + 1).toLowerCase(Locale.ROOT));
+    }
+
+    private static final class KnownFile {
+        private final Long id;
+        private final Long size;
+        private final Long modifiedAt;
+
+        private KnownFile(Long id, Long size, Long modifiedAt) {
+            this.id = id;
+            this.size = size;
+            this.modifiedAt = modifiedAt;
+        }
+    }
+
+    private static final class Owner {
+        private final Long id;
+        private final String url;
+
+        private Owner(Long id, String url) {
+            this.id = id;
+            this.url = url;
+        }
+    }
+
+    // Parsed column values in INSERT_SQL order, plus the row this file already has, if any
+    private static final class ScannedFile {
+        private final Long trackId;
+        private final Object[] values;
+
+        private ScannedFile(Long trackId, Object[] values) {
+            this.trackId = trackId;
+            this.values = values;
+        }
+
+        private String key() {
+            return MediaLibraryScanner.key((String) values[1], (String) values[0]);
+        }
+
+        private String url() {
+            return (String) values[values.length - 1];
+        }
+
+        private Object[] updateRow(Long id) {
+            Object[] row = Arrays.copyOf(values, values.length + 1);
+            row[values.length] = id;
+            return row;
+        }
+    }
+
+    private static final class ChangedFile {
+        private final Path path;
+        private final String relativePath;
+        private final Long trackId;
+        private final long size;
+        private final long modifiedAt;
+
+        private ChangedFile(Path path, String relativePath, Long trackId, long size, long modifiedAt) {
+            this.path = path;
+            this.relativePath = relativePath;
+            this.trackId = trackId;
+            this.size = size;
+            this.modifiedAt = modifiedAt;
+        }
+    }
+}
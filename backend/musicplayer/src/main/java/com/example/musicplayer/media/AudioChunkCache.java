@@ -0,0 +1,278 @@
+package com.example.musicplayer.media;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Hot-track cache of memory-mapped, fixed-size audio chunks.
+ * A file is addressed as chunk index = offset / chunkSize; each chunk is a read-only
+ * MappedByteBuffer, so the bytes live in the OS page cache rather than on the Java heap.
+ * A chunk is only mapped once it has missed {@code admit-after-misses} times; until then, and
+ * whenever any chunk of a range is not mapped, the caller streams the range through sendfile.
+ * Caffeine's W-TinyLFU policy bounds the total mapped bytes and only admits chunks whose
+ * play frequency beats what they would evict, so a one-off listen cannot flush the top tracks.
+ * An evicted chunk is unmapped as soon as the last response reading it lets go, so
+ * {@code max-size-mb} bounds the address space held, not just the cache's bookkeeping.
+ */
+@Component
+public class AudioChunkCache {
+
+    private static final Logger log = LoggerFactory.getLogger(AudioChunkCache.class);
+
+    private final boolean enabled;
+    private final Consumer<MappedByteBuffer> unmapper;
+    private final int chunkSize;
+    private final int admitAfterMisses;
+    private final Cache<ChunkKey, MappedChunk> chunks;
+    private final Cache<ChunkKey, AtomicInteger> misses;
+
+    @Autowired
+    public AudioChunkCache(MeterRegistry meterRegistry,
+                           @Value("${musicplayer.media.chunk-cache.enabled:true}") boolean enabled,
+                           @Value("${musicplayer.media.chunk-cache.chunk-size-kb:1024}") int chunkSizeKb,
+                           @Value("${musicplayer.media.chunk-cache.max-size-mb:512}") long maxSizeMb,
+                           @Value("${musicplayer.media.chunk-cache.admit-after-misses:2}") int admitAfterMisses) {
+        this(meterRegistry, enabled, chunkSizeKb, maxSizeMb, admitAfterMisses, unsafeUnmapper());
+    }
+
+    // unmapper is null when this JVM offers no way to unmap early
+    AudioChunkCache(MeterRegistry meterRegistry, boolean enabled, int chunkSizeKb, long maxSizeMb,
+                    int admitAfterMisses, Consumer<MappedByteBuffer> unmapper) {
+        if (enabled && unmapper == null) {
+            // Without unmapping, evicted mappings would pile up until GC: stream everything instead
+            log.warn("Audio chunk cache disabled: evicted chunks cannot be unmapped on this JVM");
+        }
+        this.enabled = enabled && unmapper != null;
+        this.unmapper = unmapper;
+        this.chunkSize = chunkSizeKb * 1024;
+        this.admitAfterMisses = Math.max(admitAfterMisses, 1);
+        this.chunks = Caffeine.newBuilder()
+                .maximumWeight(maxSizeMb * 1024 * 1024)
+                .weigher((ChunkKey key, MappedChunk chunk) -> chunk.buffer.capacity())
+                .removalListener((ChunkKey key, MappedChunk chunk, RemovalCause cause) -> {
+                    if (chunk != null) {
+                        chunk.release();
+                    }
+                })
+                // Releasing is cheap; doing it on the evicting thread keeps unmapping in step with eviction
+                .executor(Runnable::run)
+                .recordStats()
+                .build();
+        // Remembers recent misses only, a few times as many chunks as the cache can hold
+        this.misses = Caffeine.newBuilder()
+                .maximumSize(Math.max(1024, maxSizeMb * 1024 * 1024 / chunkSize * 4))
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, chunks, "audio.chunks");
+        Gauge.builder("audio.chunks.hit.ratio", chunks, c -> c.stats().hitRate()).register(meterRegistry);
+        Gauge.builder("audio.chunks.mapped.bytes", chunks,
+                c -> c.policy().eviction().map(e -> e.weightedSize().orElse(0L)).orElse(0L)).register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Pins the chunks covering bytes [start, start + count) of the file, or returns null if any
+     * of them is not hot yet, in which case the caller should stream the range itself.
+     * The lease must be closed once written so evicted chunks can be unmapped.
+     * @param version changes when the file does (its mtime), so stale chunks are never served
+     */
+    public Lease lease(Path file, long version, long start, long count) {
+        Lease lease = new Lease(start, count);
+        boolean complete = true;
+        for (long index = start / chunkSize; index <= (start + count - 1) / chunkSize; index++) {
+            ChunkKey key = new ChunkKey(file, version, index);
+            MappedChunk chunk = chunks.getIfPresent(key);
+            if (chunk == null && misses.get(key, k -> new AtomicInteger()).incrementAndGet() >= admitAfterMisses) {
+                chunk = chunks.get(key, this::map);
+                misses.invalidate(key);
+            }
+            // Keep counting misses for the rest of the range, so a whole hot range warms together
+            if (complete && chunk != null && chunk.acquire()) {
+                lease.chunks.add(chunk);
+            } else {
+                complete = false;
+            }
+        }
+        // A chunk shorter than the range means the file shrank underneath us
+        if (!complete || !lease.coversRange()) {
+            lease.close();
+            return null;
+        }
+        return lease;
+    }
+
+    // Drops every chunk; leased ones are unmapped once their leases close
+    void evictAll() {
+        chunks.invalidateAll();
+        chunks.cleanUp();
+    }
+
+    private MappedChunk map(ChunkKey key) {
+        try (FileChannel channel = FileChannel.open(key.file, StandardOpenOption.READ)) {
+            long offset = key.index * chunkSize;
+            long length = Math.max(0, Math.min(chunkSize, channel.size() - offset));
+            // The mapping stays valid after the channel is closed
+            return new MappedChunk(channel.map(FileChannel.MapMode.READ_ONLY, offset, length), unmapper);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // sun.misc.Unsafe.invokeCleaner is the only supported way to unmap before GC. It is looked up
+    // reflectively, so the build does not depend on the internal API and a JVM without it just
+    // runs without the cache.
+    private static Consumer<MappedByteBuffer> unsafeUnmapper() {
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field field = unsafeClass.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            MethodHandle invokeCleaner = MethodHandles.lookup()
+                    .findVirtual(unsafeClass, "invokeCleaner", MethodType.methodType(void.class, ByteBuffer.class))
+                    .bindTo(field.get(null));
+            return buffer -> {
+                try {
+                    invokeCleaner.invokeExact((ByteBuffer) buffer);
+                } catch (Throwable e) {
+                    log.warn("Could not unmap audio chunk: {}", e.toString());
+                }
+            };
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * The chunks behind one response. Closing it drops this response's hold on them.
+     */
+    public final class Lease implements AutoCloseable {
+        private final long start;
+        private final long count;
+        private final List<MappedChunk> chunks = new ArrayList<>();
+
+        private Lease(long start, long count) {
+            this.start = start;
+            this.count = count;
+        }
+
+        public void writeTo(WritableByteChannel out) throws IOException {
+            long position = start;
+            long remaining = count;
+            for (MappedChunk chunk : chunks) {
+                int offset = (int) (position % chunkSize);
+                int length = (int) Math.min(remaining, chunk.buffer.capacity() - offset);
+                ByteBuffer slice = chunk.buffer.duplicate();
+                slice.position(offset).limit(offset + length);
+                while (slice.hasRemaining()) {
+                    out.write(slice);
+                }
+                position += length;
+                remaining -= length;
+            }
+        }
+
+        private boolean coversRange() {
+            long end = start + count;
+            long chunkStart = start / chunkSize * chunkSize;
+            for (MappedChunk chunk : chunks) {
+                if (chunkStart + chunk.buffer.capacity() < Math.min(end, chunkStart + chunkSize)) {
+                    return false;
+                }
+                chunkStart += chunkSize;
+            }
+            return true;
+        }
+
+        @Override
+        public void close() {
+            chunks.forEach(MappedChunk::release);
+            chunks.clear();
+        }
+    }
+
+    // The cache holds one reference and every lease one more; the last release unmaps
+    private static final class MappedChunk {
+        private final MappedByteBuffer buffer;
+        private final Consumer<MappedByteBuffer> unmapper;
+        private final AtomicInteger references = new AtomicInteger(1);
+
+        private MappedChunk(MappedByteBuffer buffer, Consumer<MappedByteBuffer> unmapper) {
+            this.buffer = buffer;
+            this.unmapper = unmapper;
+        }
+
+        private boolean acquire() {
+            int current;
+            do {
+                current = references.get();
+                if (current == 0) {
+                    return false; // already unmapped
+                }
+            } while (!references.compareAndSet(current, current + 1));
+            return true;
+        }
+
+        private void release() {
+            if (references.decrementAndGet() == 0 && buffer.capacity() > 0) {
+                unmapper.accept(buffer);
+            }
+        }
+    }
+
+    private static final class ChunkKey {
+        private final Path file;
+        private final long version;
+        private final long index;
+
+        private ChunkKey(Path file, long version, long index) {
+            this.file = file;
+            this.version = version;
+            this.index = index;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof ChunkKey other)) {
+                return false;
+            }
+            return version == other.version && index == other.index && file.equals(other.file);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(file, version, index);
+        }
+    }
+}
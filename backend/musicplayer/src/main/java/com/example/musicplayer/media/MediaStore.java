@@ -0,0 +1,40 @@
+package com.example.musicplayer.media;
+
+import com.example.musicplayer.model.Track;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Local directory holding audio files. A track is served locally when its url is a
+ * path relative to the store root (e.g. "artist/album/01.mp3") rather than an http(s) link.
+ */
+@Component
+public class MediaStore {
+
+    private final Path root;
+
+    public MediaStore(@Value("${musicplayer.media.root:./media}") String root) {
+        this.root = Paths.get(root).toAbsolutePath().normalize();
+    }
+
+    public Path getRoot() {
+        return root;
+    }
+
+    public Path resolve(Track track) {
+        String url = track.getUrl();
+        if (url == null || url.isBlank() || url.startsWith("http://") || url.startsWith("https://")) {
+            throw new RuntimeException("Track " + track.getId() + " has no local audio");
+        }
+        Path file = root.resolve(url).normalize();
+        // Reject "../" escapes out of the store
+        if (!file.startsWith(root) || !Files.isRegularFile(file)) {
+            throw new RuntimeException("Audio file not found for track " + track.getId());
+        }
+        return file;
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.musicplayer.model;
+
+import jakarta.persistence.*;
+
+// Outbox row for OutboxInvalidationTransport; written and polled with JDBC
+@Entity
+@Table(name = "cache_invalidations")
+public class CacheInvalidation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String region;
+
+    @Column(name = "cache_key", length = 512)
+    private String cacheKey;
+
+    @Column(nullable = false)
+    private String origin;
+
+    @Column(name = "created_at", nullable = false)
+    private long createdAt;
+
+    public CacheInvalidation() {}
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getRegion() {
+        return region;
+    }
+
+    public String getCacheKey() {
+        return cacheKey;
+    }
+
+    public String getOrigin() {
+        return origin;
+    }
+
+    public long getCreatedAt() {
+        return createdAt;
+    }
+}
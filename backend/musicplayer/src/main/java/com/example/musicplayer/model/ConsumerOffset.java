@@ -0,0 +1,26 @@
+package com.example.musicplayer.model;
+
+import jakarta.persistence.*;
+
+// Committed PlayLog position of a play-event consumer; written with JDBC by the consumer itself
+@Entity
+@Table(name = "consumer_offsets")
+public class ConsumerOffset {
+
+    @Id
+    @Column(length = 64)
+    private String consumer;
+
+    @Column(name = "next_offset", nullable = false)
+    private long nextOffset;
+
+    public ConsumerOffset() {}
+
+    public String getConsumer() {
+        return consumer;
+    }
+
+    public long getNextOffset() {
+        return nextOffset;
+    }
+}
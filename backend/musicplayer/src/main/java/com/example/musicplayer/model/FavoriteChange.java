@@ -0,0 +1,57 @@
+package com.example.musicplayer.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+// One row per favorite add/remove, stamped with the user's favorites version after the change
+@Entity
+@Table(name = "favorite_changes",
+        indexes = @Index(name = "idx_favorite_changes_user_version", columnList = "user_id, version"))
+public class FavoriteChange {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "track_id", nullable = false)
+    private Long trackId;
+
+    @Column(nullable = false)
+    private long version;
+
+    @Column(nullable = false)
+    private boolean added;
+
+    @Column(name = "changed_at")
+    private LocalDateTime changedAt;
+
+    public FavoriteChange() {}
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public Long getTrackId() {
+        return trackId;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public boolean isAdded() {
+        return added;
+    }
+
+    public LocalDateTime getChangedAt() {
+        return changedAt;
+    }
+}
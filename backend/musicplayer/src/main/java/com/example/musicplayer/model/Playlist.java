@@ -29,11 +29,8 @@ public class Playlist {
     @JsonBackReference    // <-- This side will not be serialized again (breaks recursion)
     private User user;
 
-    @ManyToMany
-    @JoinTable(
-            name = "playlist_tracks",
-            joinColumns = @JoinColumn(name = "playlist_id"),
-            inverseJoinColumns = @JoinColumn(name = "track_id")
-    )
-    private List<Track> tracks = new ArrayList<>();
+    // Ordered by sparse position; edits go through PlaylistService and touch single entries
+    @OneToMany(mappedBy = "playlist", cascade = CascadeType.ALL, orphanRemoval = true)
+    @OrderBy("position ASC, id ASC")
+    private List<PlaylistEntry> entries = new ArrayList<>();
 }
@@ -0,0 +1,44 @@
+package com.example.musicplayer.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * One slot in a playlist. Order comes from a sparse position key rather than a list index:
+ * entries start {@link #GAP} apart and an insert takes the midpoint of its neighbours, so
+ * inserting or moving rewrites only the entry itself. Only when two neighbours end up
+ * adjacent does the playlist get renumbered.
+ */
+@Entity
+@Table(name = "playlist_entries",
+        indexes = @Index(name = "idx_playlist_entries_position", columnList = "playlist_id, position"))
+@Getter
+@Setter
+@NoArgsConstructor
+public class PlaylistEntry {
+
+    public static final long GAP = 1L << 16;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "playlist_id")
+    private Playlist playlist;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "track_id")
+    private Track track;
+
+    @Column(nullable = false)
+    private long position;
+
+    public PlaylistEntry(Playlist playlist, Track track, long position) {
+        this.playlist = playlist;
+        this.track = track;
+        this.position = position;
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.musicplayer.model;
+
+import jakarta.persistence.*;
+
+// Single row stamped by the primary; replicas' copies show how far behind they are (see ReplicaMonitor)
+@Entity
+@Table(name = "replication_heartbeat")
+public class ReplicationHeartbeat {
+
+    @Id
+    private int id;
+
+    @Column(name = "beat_at", nullable = false)
+    private long beatAt;
+
+    public ReplicationHeartbeat() {}
+
+    public int getId() {
+        return id;
+    }
+
+    public long getBeatAt() {
+        return beatAt;
+    }
+}
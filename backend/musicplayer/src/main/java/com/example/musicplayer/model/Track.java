@@ -1,12 +1,16 @@
 package com.example.musicplayer.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.example.musicplayer.cache.TrackCacheListener;
+import com.example.musicplayer.search.TrackIndexListener;
 import jakarta.persistence.*;
 
 import java.util.HashSet;
 import java.util.Set;
 
 @Entity
+@EntityListeners({TrackIndexListener.class, TrackCacheListener.class})
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_track_artist_title", columnNames = {"artist", "title"}))
 public class Track {
 
     @Id
@@ -21,6 +25,25 @@ public class Track {
 
     private String cover; // Cover image url
 
+    // Filled in by MediaLibraryScanner for files in the local media store
+    private String album;
+
+    private Integer releaseYear;
+
+    private Integer durationSeconds;
+
+    private Integer bitrateKbps;
+
+    private Integer sampleRate;
+
+    private Long fileSize; // size and mtime of the file when last scanned; unchanged files are skipped
+
+    private Long fileModifiedAt;
+
+    // Only ever incremented in SQL by PlayCountConsumer, so JPA must never write it back
+    @Column(insertable = false, updatable = false, columnDefinition = "bigint default 0 not null")
+    private long playCount;
+
     @ManyToMany(mappedBy = "favorites", fetch = FetchType.LAZY)
     @JsonIgnore
     private Set<User> usersWhoFavorited = new HashSet<>();
@@ -78,11 +101,71 @@ public class Track {
         this.cover = cover;
     }
 
-    public Set<User> getFavoredByUsers() {
-        return favoredByUsers;
+    public String getAlbum() {
+        return album;
+    }
+
+    public void setAlbum(String album) {
+        this.album = album;
+    }
+
+    public Integer getReleaseYear() {
+        return releaseYear;
+    }
+
+    public void setReleaseYear(Integer releaseYear) {
+        this.releaseYear = releaseYear;
+    }
+
+    public Integer getDurationSeconds() {
+        return durationSeconds;
+    }
+
+    public void setDurationSeconds(Integer durationSeconds) {
+        this.durationSeconds = durationSeconds;
+    }
+
+    public Integer getBitrateKbps() {
+        return bitrateKbps;
+    }
+
+    public void setBitrateKbps(Integer bitrateKbps) {
+        this.bitrateKbps = bitrateKbps;
+    }
+
+    public Integer getSampleRate() {
+        return sampleRate;
+    }
+
+    public void setSampleRate(Integer sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+    public Long getFileSize() {
+        return fileSize;
+    }
+
+    public void setFileSize(Long fileSize) {
+        this.fileSize = fileSize;
+    }
+
+    public Long getFileModifiedAt() {
+        return fileModifiedAt;
+    }
+
+    public void setFileModifiedAt(Long fileModifiedAt) {
+        this.fileModifiedAt = fileModifiedAt;
+    }
+
+    public long getPlayCount() {
+        return playCount;
+    }
+
+    public Set<User> getUsersWhoFavorited() {
+        return usersWhoFavorited;
     }
 
-    public void setFavoredByUsers(Set<User> favoredByUsers) {
-        this.favoredByUsers = favoredByUsers;
+    public void setUsersWhoFavorited(Set<User> usersWhoFavorited) {
+        this.usersWhoFavorited = usersWhoFavorited;
     }
 }
@@ -1,9 +1,10 @@
 package com.example.musicplayer.model;
 
+import com.example.musicplayer.security.AuthenticatedUser;
+import com.example.musicplayer.security.PrincipalCacheListener;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
 import java.time.LocalDate;
@@ -11,9 +12,9 @@ import java.time.LocalDateTime;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.Collection;
-import java.util.ArrayList;
 
 @Entity
+@EntityListeners(PrincipalCacheListener.class)
 @Table(name = "users") // avoid naming conflict with reserved words
 public class User implements UserDetails {
 
@@ -34,6 +35,14 @@ public class User implements UserDetails {
 
     private LocalDate joinedAt;
 
+    // Bumped by FavoriteChangeLog whenever a flush changes this user's favorites; served as the favorites ETag
+    @Column(name = "favorites_version", nullable = false)
+    private long favoritesVersion;
+
+    // Granted out of band (UPDATE users SET admin = true ...), so JPA never writes it
+    @Column(insertable = false, updatable = false, columnDefinition = "boolean default false not null")
+    private boolean admin;
+
     @ManyToMany(fetch = FetchType.LAZY)
     @JoinTable(
             name = "user_favorites",
@@ -63,14 +72,6 @@ public class User implements UserDetails {
         favorites.remove(track);
     }
 
-    public void createPlaylist(String playlistName) {
-        Playlist playlist = new Playlist(null, playlistName, this, new ArrayList<>());
-        playlists.add(playlist);
-    }
-
-    public void addTrackToPlaylist(Playlist playlist, Track track) {
-        playlist.getTracks().add(track);
-    }
 
 
 
@@ -114,6 +115,14 @@ public class User implements UserDetails {
         this.joinedAt = joinedAt;
     }
 
+    public boolean isAdmin() {
+        return admin;
+    }
+
+    public long getFavoritesVersion() {
+        return favoritesVersion;
+    }
+
     public Set<Track> getFavorites() {
         return favorites;
     }
@@ -132,7 +141,7 @@ public class User implements UserDetails {
 
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
-        return Set.of(new SimpleGrantedAuthority("USER"));
+        return AuthenticatedUser.authorities(admin);
     }
 
     @Override
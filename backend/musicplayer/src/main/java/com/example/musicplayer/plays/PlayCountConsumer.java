@@ -0,0 +1,120 @@
+package com.example.musicplayer.plays;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Folds plays into Track.playCount. Counts are summed per track in memory and written as one
+ * batch per flush interval, in the same transaction as this consumer's log offset, so a crash
+ * replays exactly what was not yet counted. Each node counts its own local log under its own
+ * consumer name.
+ */
+@Component
+public class PlayCountConsumer implements PlayEventConsumer {
+
+    private static final Logger log = LoggerFactory.getLogger(PlayCountConsumer.class);
+
+    private static final String INCREMENT_SQL = "UPDATE Track SET playCount = playCount + ? WHERE id = ?";
+    private static final String SELECT_OFFSET_SQL = "SELECT next_offset FROM consumer_offsets WHERE consumer = ?";
+    private static final String UPDATE_OFFSET_SQL = "UPDATE consumer_offsets SET next_offset = ? WHERE consumer = ?";
+    private static final String INSERT_OFFSET_SQL = "INSERT INTO consumer_offsets (consumer, next_offset) VALUES (?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final String name;
+    private final long flushIntervalMillis;
+
+    // Only touched on the consumer thread
+    private final Map<Long, Long> pendingCounts = new HashMap<>();
+    private long pendingOffset = -1;
+    private long lastFlush = System.currentTimeMillis();
+
+    public PlayCountConsumer(JdbcTemplate jdbcTemplate,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${musicplayer.plays.node-id:${HOSTNAME:local}}") String nodeId,
+                             @Value("${musicplayer.plays.count-flush-interval-ms:1000}") long flushIntervalMillis) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.name = "play-count-" + nodeId;
+        this.flushIntervalMillis = flushIntervalMillis;
+    }
+
+    @Override
+    public String name() {
+        return name;
+    }
+
+    @Override
+    public long resumeFrom(PlayLog playLog) {
+        List<Long> stored = jdbcTemplate.queryForList(SELECT_OFFSET_SQL, Long.class, name);
+        if (stored.isEmpty()) {
+            return playLog.getFirstOffset();
+        }
+        long offset = stored.get(0);
+        if (offset > playLog.getWrittenOffset()) {
+            // The local log was wiped or replaced; count what it holds now
+            log.warn("Stored offset {} is past the end of the log ({}), restarting from {}",
+                    offset, playLog.getWrittenOffset(), playLog.getFirstOffset());
+            return playLog.getFirstOffset();
+        }
+        if (offset < playLog.getFirstOffset()) {
+            log.warn("Plays {}..{} were deleted before being counted", offset, playLog.getFirstOffset());
+        }
+        return offset;
+    }
+
+    @Override
+    public void consume(List<PlayEvent> events, long nextOffset) {
+        for (PlayEvent event : events) {
+            pendingCounts.merge(event.getTrackId(), 1L, Long::sum);
+        }
+        pendingOffset = nextOffset;
+        if (System.currentTimeMillis() - lastFlush >= flushIntervalMillis) {
+            flushQuietly();
+        }
+    }
+
+    @Override
+    public void idle() {
+        flushQuietly();
+    }
+
+    // Never throws: the events are already folded in, so a failed flush is retried rather than re-consumed
+    private void flushQuietly() {
+        if (pendingOffset < 0) {
+            return;
+        }
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.warn("Flush failed, will retry: {}", e.getMessage());
+        }
+    }
+
+    private void flush() {
+        List<Object[]> increments = new ArrayList<>(pendingCounts.size());
+        pendingCounts.forEach((trackId, count) -> increments.add(new Object[]{count, trackId}));
+        long offset = pendingOffset;
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!increments.isEmpty()) {
+                jdbcTemplate.batchUpdate(INCREMENT_SQL, increments); // plays of deleted tracks match no row
+            }
+            if (jdbcTemplate.update(UPDATE_OFFSET_SQL, offset, name) == 0) {
+                jdbcTemplate.update(INSERT_OFFSET_SQL, name, offset);
+            }
+        });
+        pendingCounts.clear();
+        pendingOffset = -1;
+        lastFlush = System.currentTimeMillis();
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.musicplayer.plays;
+
+// One listen as stored in the PlayLog; playedAt is epoch millis
+public final class PlayEvent {
+
+    private final long userId;
+    private final long trackId;
+    private final long playedAt;
+    private final int secondsPlayed;
+
+    public PlayEvent(long userId, long trackId, long playedAt, int secondsPlayed) {
+        this.userId = userId;
+        this.trackId = trackId;
+        this.playedAt = playedAt;
+        this.secondsPlayed = secondsPlayed;
+    }
+
+    public long getUserId() {
+        return userId;
+    }
+
+    public long getTrackId() {
+        return trackId;
+    }
+
+    public long getPlayedAt() {
+        return playedAt;
+    }
+
+    public int getSecondsPlayed() {
+        return secondsPlayed;
+    }
+}
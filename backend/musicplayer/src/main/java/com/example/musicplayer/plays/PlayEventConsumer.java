@@ -0,0 +1,22 @@
+package com.example.musicplayer.plays;
+
+import java.util.List;
+
+/**
+ * A reader of the PlayLog, driven on its own thread by PlayLogDispatcher.
+ * Each consumer owns its position: {@link #resumeFrom} is asked once at startup, and
+ * {@link #consume} is handed the offset just past the batch so it can persist it with its own
+ * side effects. A batch that throws is retried from the same offset.
+ */
+public interface PlayEventConsumer {
+
+    String name();
+
+    long resumeFrom(PlayLog playLog);
+
+    void consume(List<PlayEvent> events, long nextOffset);
+
+    // Called when the consumer has caught up with the durable end of the log
+    default void idle() {
+    }
+}
@@ -0,0 +1,401 @@
+package com.example.musicplayer.plays;
+
+import com.example.musicplayer.exception.ServiceBusyException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only play-event log on local disk; the only thing POST /api/plays touches.
+ * Records are fixed 32-byte slots in memory-mapped segment files named after their first
+ * offset, so an offset is just a record number and reads need no index. Appenders copy into
+ * the mapping under a short lock; one sync thread forces the dirty range every few
+ * milliseconds and completes every append that range covers (group commit), so thousands of
+ * requests share one fsync. Consumers only ever see durable records. A failed sync answers
+ * its waiting appends with a 503 and takes their records back, so a client's retry is the
+ * only copy that ever gets counted.
+ */
+@Component
+public class PlayLog {
+
+    private static final Logger log = LoggerFactory.getLogger(PlayLog.class);
+
+    static final int RECORD_BYTES = 32;
+    private static final int CHECKSUMMED_BYTES = 28; // userId, trackId, playedAt, secondsPlayed
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    private final Path dir;
+    private final long recordsPerSegment;
+    private final long syncIntervalMillis;
+    private final int retainedSegments;
+
+    private final ConcurrentSkipListMap<Long, Segment> segments = new ConcurrentSkipListMap<>();
+    // Locks rather than synchronized: appends and syncs can block on page faults and fsync
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final ReentrantLock durableLock = new ReentrantLock();
+    private final Condition durableAdvanced = durableLock.newCondition();
+    // Appends in offset order; enqueued under appendLock
+    private final ConcurrentLinkedQueue<PendingAppend> pending = new ConcurrentLinkedQueue<>();
+    private final ScheduledExecutorService syncer = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "play-log-sync");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Counter appended;
+    private final Timer syncTime;
+
+    private Segment current; // guarded by appendLock
+    private volatile long writtenOffset;
+    private volatile long durableOffset;
+
+    @Autowired
+    public PlayLog(MeterRegistry meterRegistry,
+                   @Value("${musicplayer.plays.log-dir:./data/plays}") String dir,
+                   @Value("${musicplayer.plays.segment-mb:64}") int segmentMb,
+                   @Value("${musicplayer.plays.sync-interval-ms:5}") long syncIntervalMillis,
+                   @Value("${musicplayer.plays.retained-segments:16}") int retainedSegments) {
+        this(meterRegistry, Paths.get(dir), (long) segmentMb * 1024 * 1024 / RECORD_BYTES, syncIntervalMillis, retainedSegments);
+    }
+
+    PlayLog(MeterRegistry meterRegistry, Path dir, long recordsPerSegment, long syncIntervalMillis, int retainedSegments) {
+        this.dir = dir;
+        this.recordsPerSegment = recordsPerSegment;
+        this.syncIntervalMillis = syncIntervalMillis;
+        this.retainedSegments = Math.max(retainedSegments, 1);
+        this.appended = Counter.builder("plays.log.appended").register(meterRegistry);
+        this.syncTime = Timer.builder("plays.log.sync").register(meterRegistry);
+        Gauge.builder("plays.log.segments", segments, Map::size).register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void open() throws IOException {
+        Files.createDirectories(dir);
+        List<Long> baseOffsets;
+        try (Stream<Path> files = Files.list(dir)) {
+            baseOffsets = files.map(file -> file.getFileName().toString())
+                    .filter(name -> name.endsWith(SEGMENT_SUFFIX))
+                    .map(name -> Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length())))
+                    .sorted()
+                    .toList();
+        }
+        for (Long baseOffset : baseOffsets) {
+            segments.put(baseOffset, Segment.map(segmentPath(baseOffset), baseOffset, recordsPerSegment));
+        }
+        if (segments.isEmpty()) {
+            current = createSegment(0);
+            writtenOffset = 0;
+        } else {
+            // Segments are forced before the next one is created, so only the newest can have a torn tail
+            current = segments.lastEntry().getValue();
+            writtenOffset = current.baseOffset + current.recover();
+        }
+        durableOffset = writtenOffset;
+        log.info("Opened {} with {} segment(s), offsets {}..{}", dir, segments.size(), getFirstOffset(), writtenOffset);
+        syncer.scheduleWithFixedDelay(this::sync, syncIntervalMillis, syncIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void close() {
+        syncer.shutdown();
+        try {
+            syncer.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        sync(); // whatever was appended is durable once the app has stopped
+    }
+
+    /**
+     * Appends the events and returns a future completed with the offset just past them once they
+     * are on disk. The request thread never waits on the disk itself.
+     */
+    public CompletableFuture<Long> append(List<PlayEvent> events) {
+        CompletableFuture<Long> durable = new CompletableFuture<>();
+        if (events.isEmpty()) {
+            durable.complete(writtenOffset);
+            return durable;
+        }
+        appendLock.lock();
+        try {
+            long offset = writtenOffset;
+            for (PlayEvent event : events) {
+                if (offset == current.baseOffset + recordsPerSegment) {
+                    current = roll(offset);
+                }
+                current.write(offset - current.baseOffset, event);
+                offset++;
+            }
+            // Queued before the offset is published: a sync that sees the offset must also see the waiter
+            pending.add(new PendingAppend(offset, durable));
+            writtenOffset = offset;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not roll play log segment", e);
+        } finally {
+            appendLock.unlock();
+        }
+        appended.increment(events.size());
+        return durable;
+    }
+
+    /**
+     * Reads up to max durable records starting at from into the list and returns the offset to
+     * continue from. Offsets below the oldest retained segment skip ahead to it.
+     */
+    public long read(long from, int max, List<PlayEvent> into) {
+        long offset = Math.max(from, getFirstOffset());
+        long end = Math.min(durableOffset, offset + max);
+        while (offset < end) {
+            Segment segment = segments.floorEntry(offset).getValue();
+            long segmentEnd = Math.min(end, segment.baseOffset + recordsPerSegment);
+            for (; offset < segmentEnd; offset++) {
+                into.add(segment.read(offset - segment.baseOffset));
+            }
+        }
+        return offset;
+    }
+
+    // Waits until records at or after offset are durable; returns false on timeout
+    public boolean awaitDurable(long offset, long timeoutMillis) throws InterruptedException {
+        long nanos = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        durableLock.lock();
+        try {
+            while (durableOffset <= offset) {
+                if (nanos <= 0) {
+                    return false;
+                }
+                nanos = durableAdvanced.awaitNanos(nanos);
+            }
+            return true;
+        } finally {
+            durableLock.unlock();
+        }
+    }
+
+    public long getFirstOffset() {
+        Map.Entry<Long, Segment> first = segments.firstEntry();
+        return first == null ? 0 : first.getKey();
+    }
+
+    public long getWrittenOffset() {
+        return writtenOffset;
+    }
+
+    public long getDurableOffset() {
+        return durableOffset;
+    }
+
+    /**
+     * Deletes whole segments that end at or before the given offset, always keeping the newest
+     * retainedSegments for replay. Called with the slowest consumer's position.
+     */
+    public void deleteSegmentsBefore(long offset) {
+        List<Long> deletable = new ArrayList<>(segments.headMap(segments.lastKey()).keySet());
+        int keepFrom = Math.max(0, segments.size() - retainedSegments);
+        for (int i = 0; i < Math.min(keepFrom, deletable.size()); i++) {
+            long baseOffset = deletable.get(i);
+            if (baseOffset + recordsPerSegment > offset) {
+                break;
+            }
+            segments.remove(baseOffset);
+            try {
+                // The mapping stays valid until collected; nobody reads below the slowest consumer
+                Files.deleteIfExists(segmentPath(baseOffset));
+            } catch (IOException e) {
+                log.warn("Could not delete segment {}: {}", baseOffset, e.getMessage());
+            }
+        }
+    }
+
+    private void sync() {
+        long target = writtenOffset;
+        long from = durableOffset;
+        if (target == from) {
+            completeUpTo(from);
+            return;
+        }
+        try {
+            long start = System.nanoTime();
+            for (Segment segment : segments.subMap(segments.floorKey(from), true, target, false).values()) {
+                long first = Math.max(from, segment.baseOffset) - segment.baseOffset;
+                long last = Math.min(target, segment.baseOffset + recordsPerSegment) - segment.baseOffset;
+                segment.force(first, last);
+            }
+            syncTime.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        } catch (RuntimeException e) {
+            log.error("Sync failed: {}", e.getMessage());
+            discardUnsynced();
+            return;
+        }
+        durableLock.lock();
+        try {
+            durableOffset = target;
+            durableAdvanced.signalAll();
+        } finally {
+            durableLock.unlock();
+        }
+        completeUpTo(target);
+    }
+
+    // Also run on idle ticks, so no waiter can outlive the sync that made it durable
+    private void completeUpTo(long durable) {
+        PendingAppend waiter;
+        while ((waiter = pending.peek()) != null && waiter.endOffset <= durable) {
+            pending.poll().future.complete(waiter.endOffset);
+        }
+    }
+
+    // Fails every waiting append and rewinds the log to durableOffset, dropping segments rolled since;
+    // the zeroed slots read as a torn tail if some of those pages reached the disk anyway
+    void discardUnsynced() {
+        appendLock.lock();
+        try {
+            long from = durableOffset;
+            Map.Entry<Long, Segment> keep = segments.floorEntry(from);
+            for (Long baseOffset : new ArrayList<>(segments.tailMap(keep.getKey(), false).keySet())) {
+                segments.remove(baseOffset);
+                try {
+                    Files.deleteIfExists(segmentPath(baseOffset));
+                } catch (IOException e) {
+                    log.warn("Could not delete segment {}: {}", baseOffset, e.getMessage());
+                }
+            }
+            current = keep.getValue();
+            long to = Math.min(writtenOffset, current.baseOffset + recordsPerSegment);
+            current.clear(from - current.baseOffset, to - current.baseOffset);
+            writtenOffset = from;
+            PendingAppend waiter;
+            while ((waiter = pending.poll()) != null) {
+                waiter.future.completeExceptionally(new ServiceBusyException("Play log is unavailable, please retry", 1));
+            }
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    private Segment roll(long baseOffset) throws IOException {
+        current.force(0, recordsPerSegment);
+        return createSegment(baseOffset);
+    }
+
+    private Segment createSegment(long baseOffset) throws IOException {
+        Segment segment = Segment.map(segmentPath(baseOffset), baseOffset, recordsPerSegment);
+        segments.put(baseOffset, segment);
+        return segment;
+    }
+
+    private Path segmentPath(long baseOffset) {
+        return dir.resolve(String.format("%020d%s", baseOffset, SEGMENT_SUFFIX));
+    }
+
+    private static final class Segment {
+        private final long baseOffset;
+        private final long records;
+        private final MappedByteBuffer buffer;
+
+        private Segment(long baseOffset, long records, MappedByteBuffer buffer) {
+            this.baseOffset = baseOffset;
+            this.records = records;
+            this.buffer = buffer;
+        }
+
+        static Segment map(Path path, long baseOffset, long records) throws IOException {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                // The mapping outlives the channel; mapping past the end grows the (sparse) file
+                return new Segment(baseOffset, records, channel.map(FileChannel.MapMode.READ_WRITE, 0, records * RECORD_BYTES));
+            }
+        }
+
+        void write(long slot, PlayEvent event) {
+            int position = (int) (slot * RECORD_BYTES);
+            buffer.putLong(position, event.getUserId());
+            buffer.putLong(position + 8, event.getTrackId());
+            buffer.putLong(position + 16, event.getPlayedAt());
+            buffer.putInt(position + 24, event.getSecondsPlayed());
+            buffer.putInt(position + 28, checksum(position));
+        }
+
+        PlayEvent read(long slot) {
+            int position = (int) (slot * RECORD_BYTES);
+            return new PlayEvent(buffer.getLong(position), buffer.getLong(position + 8),
+                    buffer.getLong(position + 16), buffer.getInt(position + 24));
+        }
+
+        void clear(long fromSlot, long toSlot) {
+            for (int position = (int) (fromSlot * RECORD_BYTES); position < toSlot * RECORD_BYTES; position += 8) {
+                buffer.putLong(position, 0);
+            }
+        }
+
+        void force(long fromSlot, long toSlot) {
+            buffer.force((int) (fromSlot * RECORD_BYTES), (int) ((toSlot - fromSlot) * RECORD_BYTES));
+        }
+
+        // Number of valid records; anything after the first bad checksum is a torn write and is zeroed
+        long recover() {
+            long valid = 0;
+            while (valid < records && buffer.getInt((int) (valid * RECORD_BYTES) + CHECKSUMMED_BYTES) == checksum((int) (valid * RECORD_BYTES))) {
+                valid++;
+            }
+            boolean zeroed = false;
+            for (int position = (int) (valid * RECORD_BYTES); position < records * RECORD_BYTES; position += 8) {
+                if (buffer.getLong(position) != 0) {
+                    buffer.putLong(position, 0);
+                    zeroed = true;
+                }
+            }
+            if (zeroed) {
+                log.warn("Truncated torn tail of segment {} at record {}", baseOffset, valid);
+                buffer.force();
+            }
+            return valid;
+        }
+
+        private int checksum(int position) {
+            CRC32 crc = new CRC32();
+            crc.update(buffer.slice(position, CHECKSUMMED_BYTES));
+            return (int) crc.getValue();
+        }
+    }
+
+    private static final class PendingAppend {
+        private final long endOffset;
+        private final CompletableFuture<Long> future;
+
+        private PendingAppend(long endOffset, CompletableFuture<Long> future) {
+            this.endOffset = endOffset;
+            this.future = future;
+        }
+    }
+}
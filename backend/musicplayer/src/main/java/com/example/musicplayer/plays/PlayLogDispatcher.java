@@ -0,0 +1,126 @@
+package com.example.musicplayer.plays;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tails the PlayLog on one thread per consumer, so a slow database flush in one consumer
+ * never holds up another. Also drops log segments every consumer has moved past.
+ */
+@Component
+public class PlayLogDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(PlayLogDispatcher.class);
+
+    private static final long IDLE_WAIT_MILLIS = 200;
+    private static final long MAX_BACKOFF_MILLIS = 5000;
+
+    private final PlayLog playLog;
+    private final List<PlayEventConsumer> consumers;
+    private final MeterRegistry meterRegistry;
+    private final int batchSize;
+    private final Map<String, AtomicLong> positions = new ConcurrentHashMap<>();
+    private final ExecutorService workers;
+    private final ScheduledExecutorService retention = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "play-log-retention");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile boolean running = true;
+
+    public PlayLogDispatcher(PlayLog playLog,
+                             List<PlayEventConsumer> consumers,
+                             MeterRegistry meterRegistry,
+                             @Value("${musicplayer.plays.consumer-batch-size:5000}") int batchSize) {
+        this.playLog = playLog;
+        this.consumers = consumers;
+        this.meterRegistry = meterRegistry;
+        this.batchSize = batchSize;
+        this.workers = Executors.newFixedThreadPool(Math.max(consumers.size(), 1), r -> {
+            Thread thread = new Thread(r);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        for (PlayEventConsumer consumer : consumers) {
+            AtomicLong position = new AtomicLong(consumer.resumeFrom(playLog));
+            positions.put(consumer.name(), position);
+            Gauge.builder("plays.consumer.lag", () -> playLog.getDurableOffset() - position.get())
+                    .tag("consumer", consumer.name()).register(meterRegistry);
+            workers.submit(() -> run(consumer, position));
+        }
+        retention.scheduleWithFixedDelay(this::dropConsumedSegments, 1, 1, TimeUnit.MINUTES);
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        retention.shutdown();
+        workers.shutdown();
+        try {
+            workers.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run(PlayEventConsumer consumer, AtomicLong position) {
+        Thread.currentThread().setName("play-consumer-" + consumer.name());
+        List<PlayEvent> batch = new ArrayList<>(batchSize);
+        long backoff = 0;
+        while (running) {
+            try {
+                batch.clear();
+                long next = playLog.read(position.get(), batchSize, batch);
+                if (batch.isEmpty()) {
+                    consumer.idle();
+                    playLog.awaitDurable(position.get(), IDLE_WAIT_MILLIS);
+                    continue;
+                }
+                consumer.consume(batch, next);
+                position.set(next);
+                backoff = 0;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                // Same batch again after a pause; consumers make their side effects idempotent per offset
+                backoff = Math.min(Math.max(backoff * 2, 100), MAX_BACKOFF_MILLIS);
+                log.warn("Consumer {} failed, retrying in {} ms: {}", consumer.name(), backoff, e.getMessage());
+                try {
+                    Thread.sleep(backoff);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+        consumer.idle(); // last chance to persist what was consumed
+    }
+
+    private void dropConsumedSegments() {
+        long slowest = positions.values().stream().mapToLong(AtomicLong::get).min().orElse(playLog.getDurableOffset());
+        playLog.deleteSegmentsBefore(slowest);
+    }
+}
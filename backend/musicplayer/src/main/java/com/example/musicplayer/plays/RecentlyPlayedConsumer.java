@@ -0,0 +1,76 @@
+package com.example.musicplayer.plays;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps each user's last few distinct tracks in memory. Nothing is persisted: on startup the
+ * tail of the local log is replayed, which is enough to rebuild every recent list.
+ */
+@Component
+public class RecentlyPlayedConsumer implements PlayEventConsumer {
+
+    private final int perUser;
+    private final long replayRecords;
+    private final ConcurrentHashMap<Long, RecentTracks> recent = new ConcurrentHashMap<>();
+
+    public RecentlyPlayedConsumer(@Value("${musicplayer.plays.recent-per-user:20}") int perUser,
+                                  @Value("${musicplayer.plays.recent-replay-records:5000000}") long replayRecords) {
+        this.perUser = perUser;
+        this.replayRecords = replayRecords;
+    }
+
+    @Override
+    public String name() {
+        return "recently-played";
+    }
+
+    @Override
+    public long resumeFrom(PlayLog playLog) {
+        return Math.max(playLog.getFirstOffset(), playLog.getDurableOffset() - replayRecords);
+    }
+
+    @Override
+    public void consume(List<PlayEvent> events, long nextOffset) {
+        for (PlayEvent event : events) {
+            recent.computeIfAbsent(event.getUserId(), id -> new RecentTracks(perUser)).add(event.getTrackId());
+        }
+    }
+
+    // Most recent first
+    public long[] recentTracks(long userId, int limit) {
+        RecentTracks tracks = recent.get(userId);
+        return tracks == null ? new long[0] : tracks.snapshot(limit);
+    }
+
+    // Fixed-size move-to-front list; a replayed play of the same track just moves it up again
+    private static final class RecentTracks {
+        private final long[] trackIds;
+        private int size;
+
+        RecentTracks(int capacity) {
+            this.trackIds = new long[capacity];
+        }
+
+        synchronized void add(long trackId) {
+            int existing = 0;
+            while (existing < size && trackIds[existing] != trackId) {
+                existing++;
+            }
+            if (existing == size && size < trackIds.length) {
+                size++;
+            }
+            System.arraycopy(trackIds, 0, trackIds, 1, Math.min(existing, trackIds.length - 1));
+            trackIds[0] = trackId;
+        }
+
+        synchronized long[] snapshot(int limit) {
+            long[] copy = new long[Math.min(limit, size)];
+            System.arraycopy(trackIds, 0, copy, 0, copy.length);
+            return copy;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.musicplayer.reactive;
+
+import com.example.musicplayer.dto.PlaylistDTO;
+import com.example.musicplayer.dto.TrackDTO;
+import com.example.musicplayer.dto.TrackPage;
+import com.example.musicplayer.dto.UserProfileResponse;
+import com.example.musicplayer.security.AuthenticatedUser;
+import com.example.musicplayer.service.TrackService;
+import org.springframework.http.MediaType;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * WebFlux handlers for the read-heavy endpoints. Responses match the MVC controllers field for field.
+ * Nothing here blocks, so a few event-loop threads can hold many slow connections open.
+ * Buffered favorite and playlist writes on the MVC side reach these reads within one write-behind window.
+ */
+public class ReactiveCatalogHandler {
+
+    private static final String STREAM_SQL = "SELECT id, title, artist, cover, url FROM Track ORDER BY id";
+
+    private final ReactiveTrackRepository trackRepository;
+    private final ReactiveUserRepository userRepository;
+    private final ReactivePlaylistRepository playlistRepository;
+    private final DatabaseClient databaseClient;
+    private final int defaultPageSize;
+    private final int maxPageSize;
+    private final int streamFetchSize;
+
+    public ReactiveCatalogHandler(ReactiveTrackRepository trackRepository,
+                                  ReactiveUserRepository userRepository,
+                                  ReactivePlaylistRepository playlistRepository,
+                                  DatabaseClient databaseClient,
+                                  int defaultPageSize,
+                                  int maxPageSize,
+                                  int streamFetchSize) {
+        this.trackRepository = trackRepository;
+        this.userRepository = userRepository;
+        this.playlistRepository = playlistRepository;
+        this.databaseClient = databaseClient;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+        this.streamFetchSize = streamFetchSize;
+    }
+
+    // GET /api/tracks?cursor=&size= : same TrackPage and cursors as TrackController
+    public Mono<ServerResponse> tracks(ServerRequest request) {
+        int pageSize;
+        Long afterId;
+        try {
+            pageSize = request.queryParam("size")
+                    .map(size -> Math.min(Math.max(Integer.parseInt(size), 1), maxPageSize))
+                    .orElse(defaultPageSize);
+            String cursor = request.queryParam("cursor").orElse(null);
+            afterId = cursor == null || cursor.isBlank() ? null : TrackService.decodeCursor(cursor);
+        } catch (RuntimeException e) {
+            return ServerResponse.badRequest().bodyValue(Map.of("error", String.valueOf(e.getMessage())));
+        }
+
+        Flux<TrackDTO> rows = afterId == null
+                ? trackRepository.findFirstPage(pageSize + 1)
+                : trackRepository.findPageAfter(afterId, pageSize + 1);
+        return rows.collectList()
+                .map(list -> toPage(list, pageSize))
+                .flatMap(page -> ServerResponse.ok().bodyValue(page));
+    }
+
+    // GET /api/tracks with Accept: application/x-ndjson : the whole catalog, one track per line.
+    // The socket's demand drives the fetch: limitRate keeps at most one fetch-size of rows in flight,
+    // and the driver reads through a server-side cursor of the same size.
+    public Mono<ServerResponse> streamTracks(ServerRequest request) {
+        Flux<TrackDTO> tracks = databaseClient.sql(STREAM_SQL)
+                .filter((statement, next) -> next.execute(statement.fetchSize(streamFetchSize)))
+                .map((row, metadata) -> new TrackDTO(row.get("id", Long.class), row.get("title", String.class),
+                        row.get("artist", String.class), row.get("cover", String.class), row.get("url", String.class)))
+                .all()
+                .limitRate(streamFetchSize);
+        return ServerResponse.ok().contentType(MediaType.APPLICATION_NDJSON).body(tracks, TrackDTO.class);
+    }
+
+    // GET /api/user/playlists
+    public Mono<ServerResponse> playlists(ServerRequest request) {
+        return principal(request).flatMap(user -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON)
+                .body(playlists(user.getId()), PlaylistDTO.class));
+    }
+
+    // GET /api/user/profile : favorites and playlists are queried concurrently
+    public Mono<ServerResponse> profile(ServerRequest request) {
+        return principal(request)
+                .flatMap(user -> Mono.zip(userRepository.findFavoriteTracks(user.getId()).collectList(),
+                                playlists(user.getId()).collectList())
+                        .map(lists -> new UserProfileResponse(user.getDisplayName(), user.getEmail(),
+                                user.getJoinedAt(), lists.getT1(), lists.getT2())))
+                .flatMap(profile -> ServerResponse.ok().bodyValue(profile));
+    }
+
+    // Rows arrive ordered by playlist, so each playlist is emitted as soon as its last row has been read
+    private Flux<PlaylistDTO> playlists(Long userId) {
+        return playlistRepository.findTrackRowsByUserId(userId)
+                .bufferUntilChanged(row -> row.getPlaylistId())
+                .map(rows -> PlaylistDTO.fromRows(rows).get(0));
+    }
+
+    private Mono<AuthenticatedUser> principal(ServerRequest request) {
+        return request.principal().map(AuthenticatedUser::of);
+    }
+
+    private TrackPage toPage(List<TrackDTO> rows, int pageSize) {
+        if (rows.size() <= pageSize) {
+            return new TrackPage(rows, null);
+        }
+        List<TrackDTO> items = rows.subList(0, pageSize);
+        return new TrackPage(items, TrackService.encodeCursor(items.get(pageSize - 1).getId()));
+    }
+}
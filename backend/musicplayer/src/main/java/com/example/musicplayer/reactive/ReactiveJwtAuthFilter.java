@@ -0,0 +1,61 @@
+package com.example.musicplayer.reactive;
+
+import com.example.musicplayer.security.AuthenticatedUser;
+import com.example.musicplayer.security.JwtProvider;
+import com.example.musicplayer.security.PrincipalCache;
+import io.jsonwebtoken.Claims;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.util.Collections;
+import java.util.Optional;
+
+// Reactive counterpart of security.JwtAuthFilter; the user lookup goes through R2DBC instead of JPA
+public class ReactiveJwtAuthFilter implements WebFilter {
+
+    private final JwtProvider jwtProvider;
+    private final ReactiveUserRepository userRepository;
+    private final PrincipalCache principalCache;
+
+    public ReactiveJwtAuthFilter(JwtProvider jwtProvider, ReactiveUserRepository userRepository, PrincipalCache principalCache) {
+        this.jwtProvider = jwtProvider;
+        this.userRepository = userRepository;
+        this.principalCache = principalCache;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        String header = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (header == null || !header.startsWith("Bearer ")) {
+            return chain.filter(exchange);
+        }
+
+        // Optional keeps "no principal" distinct from the chain's own empty completion
+        return resolve(header.substring(7))
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .flatMap(principal -> principal
+                        .map(user -> chain.filter(exchange).contextWrite(ReactiveSecurityContextHolder.withAuthentication(
+                                new UsernamePasswordAuthenticationToken(user, null, Collections.emptyList()))))
+                        .orElseGet(() -> chain.filter(exchange)));
+    }
+
+    private Mono<AuthenticatedUser> resolve(String token) {
+        AuthenticatedUser cached = principalCache.get(token);
+        if (cached != null) {
+            return Mono.just(cached);
+        }
+        Claims claims = jwtProvider.parseClaims(token);
+        if (claims == null) {
+            return Mono.empty();
+        }
+        return userRepository.findByEmailIgnoreCase(claims.getSubject())
+                .map(user -> new AuthenticatedUser(user.getId(), user.getEmail(), user.getName(), user.getJoinedAt()))
+                .doOnNext(principal -> principalCache.put(token, principal, claims.getExpiration().getTime()));
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.musicplayer.reactive;
+
+import com.example.musicplayer.dto.PlaylistTrackRow;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import reactor.core.publisher.Flux;
+
+// Non-blocking mirror of repository.PlaylistRepository (read side only)
+public interface ReactivePlaylistRepository extends R2dbcRepository<PlaylistRecord, Long> {
+
+    // Ordered by playlist so rows can be regrouped as they stream in
+    @Query("SELECT p.id AS playlist_id, p.name AS playlist_name, t.id AS track_id, t.title, t.artist, t.cover, t.url " +
+           "FROM playlists p LEFT JOIN playlist_entries e ON e.playlist_id = p.id LEFT JOIN Track t ON t.id = e.track_id " +
+           "WHERE p.user_id = :userId ORDER BY p.id, e.position, e.id")
+    Flux<PlaylistTrackRow> findTrackRowsByUserId(long userId);
+}
@@ -0,0 +1,103 @@
+package com.example.musicplayer.reactive;
+
+import com.example.musicplayer.security.JwtProvider;
+import com.example.musicplayer.security.PrincipalCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceTransactionManagerAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.autoconfigure.security.reactive.ReactiveUserDetailsServiceAutoConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.authentication.HttpStatusServerEntryPoint;
+import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
+import org.springframework.web.cors.CorsConfiguration;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.springframework.web.reactive.function.server.RequestPredicates.GET;
+import static org.springframework.web.reactive.function.server.RouterFunctions.route;
+
+/**
+ * Non-blocking read tier: WebFlux on Netty with R2DBC, serving /api/tracks, /api/user/profile and
+ * /api/user/playlists on its own port. The MVC app starts it via {@link ReactiveTierLauncher} when the
+ * "reactive" profile is active. It shares the JWT key and principal cache with the MVC app, so tokens
+ * work against both tiers.
+ * The condition keeps the MVC application's component scan from picking this class up.
+ */
+@SpringBootConfiguration(proxyBeanMethods = false)
+@EnableAutoConfiguration(exclude = {
+        DataSourceAutoConfiguration.class,
+        DataSourceTransactionManagerAutoConfiguration.class,
+        HibernateJpaAutoConfiguration.class,
+        ReactiveUserDetailsServiceAutoConfiguration.class
+})
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@EnableWebFluxSecurity
+public class ReactiveReadApplication {
+
+    @Bean
+    public ReactiveCatalogHandler reactiveCatalogHandler(ReactiveTrackRepository trackRepository,
+                                                         ReactiveUserRepository userRepository,
+                                                         ReactivePlaylistRepository playlistRepository,
+                                                         DatabaseClient databaseClient,
+                                                         @Value("${musicplayer.tracks.page-size:50}") int defaultPageSize,
+                                                         @Value("${musicplayer.tracks.max-page-size:500}") int maxPageSize,
+                                                         @Value("${musicplayer.reactive.stream-fetch-size:256}") int streamFetchSize) {
+        return new ReactiveCatalogHandler(trackRepository, userRepository, playlistRepository, databaseClient,
+                defaultPageSize, maxPageSize, streamFetchSize);
+    }
+
+    @Bean
+    public RouterFunction<ServerResponse> catalogRoutes(ReactiveCatalogHandler handler) {
+        // Only a client that names NDJSON gets the stream; accept() would also match */*
+        return route(GET("/api/tracks").and(request -> request.headers().accept().stream()
+                        .anyMatch(MediaType.APPLICATION_NDJSON::equalsTypeAndSubtype)), handler::streamTracks)
+                .andRoute(GET("/api/tracks"), handler::tracks)
+                .andRoute(GET("/api/user/profile"), handler::profile)
+                .andRoute(GET("/api/user/playlists"), handler::playlists);
+    }
+
+    // Mirrors config.SecurityConfig: stateless JWT, catalog is public, everything else needs a principal
+    @Bean
+    public SecurityWebFilterChain reactiveSecurityFilterChain(ServerHttpSecurity http,
+                                                              JwtProvider jwtProvider,
+                                                              ReactiveUserRepository userRepository,
+                                                              PrincipalCache principalCache) {
+        return http
+                .csrf(csrf -> csrf.disable())
+                .httpBasic(basic -> basic.disable())
+                .formLogin(form -> form.disable())
+                .securityContextRepository(NoOpServerSecurityContextRepository.getInstance())
+                .authorizeExchange(exchanges -> exchanges
+                        .pathMatchers(HttpMethod.OPTIONS).permitAll()
+                        .pathMatchers("/api/tracks/**").permitAll()
+                        .anyExchange().authenticated())
+                .exceptionHandling(handling -> handling
+                        .authenticationEntryPoint(new HttpStatusServerEntryPoint(HttpStatus.FORBIDDEN)))
+                .addFilterAt(new ReactiveJwtAuthFilter(jwtProvider, userRepository, principalCache),
+                        SecurityWebFiltersOrder.AUTHENTICATION)
+                .cors(cors -> cors.configurationSource(exchange -> {
+                    CorsConfiguration config = new CorsConfiguration();
+                    config.setAllowedOrigins(Collections.singletonList("http://localhost:5173"));
+                    config.setAllowedMethods(Arrays.asList("GET", "OPTIONS"));
+                    config.setAllowedHeaders(Arrays.asList("*"));
+                    config.setAllowCredentials(true);
+                    return config;
+                }))
+                .build();
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.musicplayer.reactive;
+
+import com.example.musicplayer.security.JwtProvider;
+import com.example.musicplayer.security.PrincipalCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.Banner;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.reactive.context.ReactiveWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Starts {@link ReactiveReadApplication} next to the MVC app when the "reactive" profile is active.
+ * The reactive context is separate, with its own Netty server and R2DBC pool. It is handed this
+ * app's JwtProvider, whose signing key exists only in memory, and its PrincipalCache.
+ */
+@Component
+@Profile("reactive")
+public class ReactiveTierLauncher implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(ReactiveTierLauncher.class);
+
+    // Settings read here (application-reactive.properties, command line, tests) and passed to the reactive context
+    private static final String[] FORWARDED = {
+            "spring.r2dbc.url",
+            "spring.r2dbc.username",
+            "spring.r2dbc.password",
+            "spring.r2dbc.pool.initial-size",
+            "spring.r2dbc.pool.max-size",
+            "server.netty.idle-timeout",
+            "server.netty.connection-timeout",
+            "musicplayer.reactive.stream-fetch-size"
+    };
+
+    private final JwtProvider jwtProvider;
+    private final PrincipalCache principalCache;
+    private final Environment environment;
+
+    private volatile ConfigurableApplicationContext context;
+
+    public ReactiveTierLauncher(JwtProvider jwtProvider, PrincipalCache principalCache, Environment environment) {
+        this.jwtProvider = jwtProvider;
+        this.principalCache = principalCache;
+        this.environment = environment;
+    }
+
+    @Override
+    public void start() {
+        List<String> args = new ArrayList<>();
+        args.add("--server.port=" + environment.getProperty("musicplayer.reactive.port", "8081"));
+        args.add("--spring.application.name=musicplayer-reactive");
+        for (String name : FORWARDED) {
+            String value = environment.getProperty(name);
+            if (value != null) {
+                args.add("--" + name + "=" + value);
+            }
+        }
+
+        context = new SpringApplicationBuilder(ReactiveReadApplication.class)
+                .web(WebApplicationType.REACTIVE)
+                .bannerMode(Banner.Mode.OFF)
+                .initializers(reactive -> {
+                    reactive.getBeanFactory().registerSingleton("jwtProvider", jwtProvider);
+                    reactive.getBeanFactory().registerSingleton("principalCache", principalCache);
+                })
+                .run(args.toArray(new String[0]));
+        log.info("Reactive read tier listening on port {}", getPort());
+    }
+
+    @Override
+    public void stop() {
+        if (context != null) {
+            context.close();
+            context = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return context != null;
+    }
+
+    // Starts after the MVC web server, stops before it
+    @Override
+    public int getPhase() {
+        return Integer.MAX_VALUE;
+    }
+
+    public int getPort() {
+        return ((ReactiveWebServerApplicationContext) context).getWebServer().getPort();
+    }
+}
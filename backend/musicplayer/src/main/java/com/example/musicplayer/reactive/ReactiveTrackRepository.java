@@ -0,0 +1,17 @@
+package com.example.musicplayer.reactive;
+
+import com.example.musicplayer.dto.TrackDTO;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import reactor.core.publisher.Flux;
+
+// Non-blocking mirror of repository.TrackRepository for the reactive read tier
+public interface ReactiveTrackRepository extends R2dbcRepository<TrackRecord, Long> {
+
+    // Same keyset pagination as the JPA repository, so cursors work against either tier
+    @Query("SELECT id, title, artist, cover, url FROM Track ORDER BY id LIMIT :limit")
+    Flux<TrackDTO> findFirstPage(int limit);
+
+    @Query("SELECT id, title, artist, cover, url FROM Track WHERE id > :afterId ORDER BY id LIMIT :limit")
+    Flux<TrackDTO> findPageAfter(long afterId, int limit);
+}
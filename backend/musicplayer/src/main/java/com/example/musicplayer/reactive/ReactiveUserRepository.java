@@ -0,0 +1,17 @@
+package com.example.musicplayer.reactive;
+
+import com.example.musicplayer.dto.TrackDTO;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Non-blocking mirror of repository.UserRepository (read side only)
+public interface ReactiveUserRepository extends R2dbcRepository<UserRecord, Long> {
+
+    Mono<UserRecord> findByEmailIgnoreCase(String email);   // JWT subject -> principal
+
+    @Query("SELECT t.id, t.title, t.artist, t.cover, t.url FROM user_favorites f " +
+           "JOIN Track t ON t.id = f.track_id WHERE f.user_id = :userId")
+    Flux<TrackDTO> findFavoriteTracks(long userId);
+}
@@ -0,0 +1,50 @@
+package com.example.musicplayer.reactive;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDate;
+
+// R2DBC view of the users table: what the principal needs, never the password hash
+@Table("users")
+public class UserRecord {
+    @Id
+    private Long id;
+    private String name;
+    private String email;
+    @Column("joinedAt") // JPA keeps field names as column names
+    private LocalDate joinedAt;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    public LocalDate getJoinedAt() {
+        return joinedAt;
+    }
+
+    public void setJoinedAt(LocalDate joinedAt) {
+        this.joinedAt = joinedAt;
+    }
+}
@@ -0,0 +1,254 @@
+package com.example.musicplayer.recommend;
+
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Sparse item-item co-occurrence counts over user_favorites, on primitive arrays.
+ * Tracks get dense indexes; row i maps every track j that shares a fan with i to the number of
+ * users who favorited both. Similarity is cosine over the fan sets: co(i, j) / sqrt(fans(i) * fans(j)).
+ * Each user's favorites are kept as a sorted index array, so one favorite change updates exactly
+ * the pairs it adds or removes. Users with more than maxFavoritesPerUser favorites are left out of
+ * the counts (a pair per favorite squared, and little signal), but can still get recommendations.
+ * Not thread-safe; {@link RecommendationEngine} guards it with a read/write lock.
+ */
+final class CooccurrenceMatrix {
+
+    private static final int[] NONE = new int[0];
+    private static final long[] NO_IDS = new long[0];
+
+    private final int maxFavoritesPerUser;
+    private final LongIntHashMap trackIndexes = new LongIntHashMap(1024);
+    private final LongIntHashMap userSlots = new LongIntHashMap(1024);
+    private long[] trackIds = new long[1024];
+    private int[] fans = new int[1024];
+    private IntIntHashMap[] rows = new IntIntHashMap[1024];
+    private int[][] userFavorites = new int[1024][];
+    private int trackCount;
+    private int userCount;
+
+    CooccurrenceMatrix(int maxFavoritesPerUser) {
+        this.maxFavoritesPerUser = maxFavoritesPerUser;
+    }
+
+    int trackCount() {
+        return trackCount;
+    }
+
+    int userCount() {
+        return userCount;
+    }
+
+    // Users who favorited the track (among counted users)
+    int fans(long trackId) {
+        int item = trackIndex(trackId, false);
+        return item < 0 ? 0 : fans[item];
+    }
+
+    // Users who favorited both tracks (among counted users)
+    int together(long trackA, long trackB) {
+        int a = trackIndex(trackA, false);
+        int b = trackIndex(trackB, false);
+        return a < 0 || b < 0 || rows[a] == null ? 0 : rows[a].get(b);
+    }
+
+    // Bulk load: records a user's favorites without counting pairs; call computeCooccurrence afterwards
+    void loadUser(long userId, long[] favoriteTrackIds, int length) {
+        int[] items = new int[length];
+        for (int i = 0; i < length; i++) {
+            items[i] = trackIndex(favoriteTrackIds[i], true);
+        }
+        Arrays.sort(items);
+        userFavorites[userSlot(userId, true)] = items;
+    }
+
+    /**
+     * Counts all pairs from the loaded favorites. Rows are partitioned by index across the pool,
+     * so each worker writes only its own rows and fan counts and nothing needs merging.
+     */
+    void computeCooccurrence(ForkJoinPool pool) throws InterruptedException, ExecutionException {
+        int partitions = pool.getParallelism();
+        pool.submit(() -> IntStream.range(0, partitions).parallel().forEach(partition -> {
+            for (int slot = 0; slot < userCount; slot++) {
+                int[] items = userFavorites[slot];
+                if (items.length > maxFavoritesPerUser) {
+                    continue;
+                }
+                for (int i : items) {
+                    if (i % partitions == partition) {
+                        fans[i]++;
+                        IntIntHashMap row = row(i, items.length);
+                        for (int j : items) {
+                            if (j != i) {
+                                row.addTo(j, 1);
+                            }
+                        }
+                    }
+                }
+            }
+        })).get();
+    }
+
+    // Applies one favorite change; returns false when it was already in that state
+    boolean setFavorite(long userId, long trackId, boolean favorite) {
+        int slot = userSlot(userId, favorite);
+        int item = trackIndex(trackId, favorite);
+        if (slot < 0 || item < 0) {
+            return false;
+        }
+        int[] current = userFavorites[slot];
+        int position = Arrays.binarySearch(current, item);
+        if (favorite == (position >= 0)) {
+            return false;
+        }
+
+        int[] next;
+        if (favorite) {
+            int insertAt = -position - 1;
+            next = new int[current.length + 1];
+            System.arraycopy(current, 0, next, 0, insertAt);
+            next[insertAt] = item;
+            System.arraycopy(current, insertAt, next, insertAt + 1, current.length - insertAt);
+        } else {
+            next = new int[current.length - 1];
+            System.arraycopy(current, 0, next, 0, position);
+            System.arraycopy(current, position + 1, next, position, current.length - position - 1);
+        }
+
+        boolean counted = current.length <= maxFavoritesPerUser;
+        boolean countedAfter = next.length <= maxFavoritesPerUser;
+        if (counted && countedAfter) {
+            int sign = favorite ? 1 : -1;
+            fans[item] += sign;
+            for (int other : favorite ? current : next) {
+                row(item, 1).addTo(other, sign);
+                row(other, 1).addTo(item, sign);
+            }
+        } else if (counted) {
+            count(current, -1);      // user just crossed the cap
+        } else if (countedAfter) {
+            count(next, 1);          // user dropped back under it
+        }
+        userFavorites[slot] = next;
+        return true;
+    }
+
+    // Best matches for one track, best first
+    long[] similar(long trackId, int limit) {
+        int item = trackIndex(trackId, false);
+        if (item < 0 || rows[item] == null || limit <= 0) {
+            return NO_IDS;
+        }
+        TopK top = new TopK(limit, trackIds);
+        int fansOfItem = fans[item];
+        rows[item].forEach((other, together) -> top.offer(other, cosine(together, fansOfItem, fans[other])));
+        return toIds(top.drain());
+    }
+
+    /**
+     * Sums similarity to everything the user already likes, minus what they already like.
+     * Heavy users are sampled down to maxFavoritesPerUser seeds. Users with no usable signal
+     * get the most-favorited tracks instead.
+     */
+    long[] recommend(long userId, int limit) {
+        if (limit <= 0) {
+            return NO_IDS;
+        }
+        int slot = userSlot(userId, false);
+        int[] liked = slot < 0 ? NONE : userFavorites[slot];
+        int step = Math.max(1, (liked.length + maxFavoritesPerUser - 1) / Math.max(1, maxFavoritesPerUser));
+
+        IntDoubleHashMap scores = new IntDoubleHashMap(64);
+        for (int k = 0; k < liked.length; k += step) {
+            int seed = liked[k];
+            IntIntHashMap row = rows[seed];
+            if (row != null) {
+                int fansOfSeed = fans[seed];
+                row.forEach((other, together) -> scores.addTo(other, cosine(together, fansOfSeed, fans[other])));
+            }
+        }
+
+        TopK top = new TopK(limit, trackIds);
+        scores.forEach((item, score) -> {
+            if (Arrays.binarySearch(liked, item) < 0) {
+                top.offer(item, score);
+            }
+        });
+        int[] best = top.drain();
+        if (best.length == 0) {
+            for (int item = 0; item < trackCount; item++) {
+                if (fans[item] > 0 && Arrays.binarySearch(liked, item) < 0) {
+                    top.offer(item, fans[item]);
+                }
+            }
+            best = top.drain();
+        }
+        return toIds(best);
+    }
+
+    private void count(int[] items, int sign) {
+        for (int i : items) {
+            fans[i] += sign;
+            IntIntHashMap row = row(i, items.length);
+            for (int j : items) {
+                if (j != i) {
+                    row.addTo(j, sign);
+                }
+            }
+        }
+    }
+
+    private static double cosine(int together, int fansA, int fansB) {
+        return fansA == 0 || fansB == 0 ? 0 : together / Math.sqrt((double) fansA * fansB);
+    }
+
+    private IntIntHashMap row(int item, int expected) {
+        IntIntHashMap row = rows[item];
+        if (row == null) {
+            row = new IntIntHashMap(expected);
+            rows[item] = row;
+        }
+        return row;
+    }
+
+    private int trackIndex(long trackId, boolean create) {
+        int item = trackIndexes.get(trackId, -1);
+        if (item >= 0 || !create) {
+            return item;
+        }
+        item = trackCount++;
+        if (item == trackIds.length) {
+            int capacity = trackIds.length * 2;
+            trackIds = Arrays.copyOf(trackIds, capacity);
+            fans = Arrays.copyOf(fans, capacity);
+            rows = Arrays.copyOf(rows, capacity);
+        }
+        trackIds[item] = trackId;
+        trackIndexes.put(trackId, item);
+        return item;
+    }
+
+    private int userSlot(long userId, boolean create) {
+        int slot = userSlots.get(userId, -1);
+        if (slot >= 0 || !create) {
+            return slot;
+        }
+        slot = userCount++;
+        if (slot == userFavorites.length) {
+            userFavorites = Arrays.copyOf(userFavorites, userFavorites.length * 2);
+        }
+        userFavorites[slot] = NONE;
+        userSlots.put(userId, slot);
+        return slot;
+    }
+
+    private long[] toIds(int[] items) {
+        long[] ids = new long[items.length];
+        for (int i = 0; i < items.length; i++) {
+            ids[i] = trackIds[items[i]];
+        }
+        return ids;
+    }
+}
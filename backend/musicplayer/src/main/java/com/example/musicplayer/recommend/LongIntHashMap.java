@@ -0,0 +1,83 @@
+package com.example.musicplayer.recommend;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing long -> int map with linear probing; no boxing. Grow-only, since ids
+ * are only ever added between full rebuilds. Not thread-safe.
+ */
+final class LongIntHashMap {
+
+    private static final long EMPTY = Long.MIN_VALUE;
+
+    private long[] keys;
+    private int[] values;
+    private int size;
+
+    LongIntHashMap(int expected) {
+        allocate(capacityFor(expected));
+    }
+
+    // The value for key, or missing when absent
+    int get(long key, int missing) {
+        int slot = slot(key);
+        return keys[slot] == key ? values[slot] : missing;
+    }
+
+    void put(long key, int value) {
+        int slot = slot(key);
+        if (keys[slot] != key) {
+            keys[slot] = key;
+            if (++size > keys.length / 2) {
+                resize();
+                slot = slot(key);
+            }
+        }
+        values[slot] = value;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private int slot(long key) {
+        int mask = keys.length - 1;
+        int slot = hash(key) & mask;
+        while (keys[slot] != EMPTY && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void resize() {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(oldKeys.length * 2);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int slot = slot(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new int[capacity];
+        Arrays.fill(keys, EMPTY);
+    }
+
+    static int capacityFor(int expected) {
+        int capacity = 8;
+        while (capacity / 2 < expected) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -0,0 +1,206 @@
+package com.example.musicplayer.recommend;
+
+import com.example.musicplayer.dto.TrackDTO;
+import com.example.musicplayer.service.TrackService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * "Fans also liked": item-item recommendations served from an in-memory {@link CooccurrenceMatrix}.
+ * A full rebuild streams user_favorites once and counts pairs in parallel on its own fork-join pool.
+ * In between, every committed favorites flush is applied incrementally. Changes that land while a
+ * rebuild is loading are replayed onto the new matrix before it is swapped in. Replays are safe
+ * because applying a change that is already in place does nothing.
+ * Periodic rebuilds also pick up changes made by other instances.
+ */
+@Component
+public class RecommendationEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(RecommendationEngine.class);
+
+    private static final String LOAD_SQL = "SELECT user_id, track_id FROM user_favorites ORDER BY user_id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TrackService trackService;
+    private final ForkJoinPool builders;
+    private final int maxFavoritesPerUser;
+    private final long rebuildIntervalMinutes;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ReentrantLock rebuildLock = new ReentrantLock(); // one rebuild at a time
+    private final ScheduledExecutorService rebuildThread = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "recommendation-rebuild");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private CooccurrenceMatrix matrix;       // guarded by lock
+    private List<long[]> changedDuringRebuild; // [userId, trackId, 1|0]; non-null while a rebuild loads
+
+    public RecommendationEngine(DataSource dataSource,
+                                TrackService trackService,
+                                @Value("${musicplayer.recommendations.workers:0}") int workers,
+                                @Value("${musicplayer.recommendations.max-favorites-per-user:500}") int maxFavoritesPerUser,
+                                @Value("${musicplayer.recommendations.rebuild-interval-minutes:360}") long rebuildIntervalMinutes,
+                                @Value("${musicplayer.recommendations.fetch-size:5000}") int fetchSize) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.trackService = trackService;
+        this.builders = new ForkJoinPool(workers > 0 ? workers : Runtime.getRuntime().availableProcessors());
+        this.maxFavoritesPerUser = maxFavoritesPerUser;
+        this.rebuildIntervalMinutes = rebuildIntervalMinutes;
+        this.matrix = new CooccurrenceMatrix(maxFavoritesPerUser);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        rebuildThread.scheduleWithFixedDelay(this::rebuildQuietly, 0, rebuildIntervalMinutes, TimeUnit.MINUTES);
+    }
+
+    @PreDestroy
+    public void stop() {
+        rebuildThread.shutdownNow();
+        builders.shutdownNow();
+    }
+
+    public void rebuild() throws InterruptedException, ExecutionException {
+        rebuildLock.lock();
+        try {
+            rebuildExclusively();
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private void rebuildExclusively() throws InterruptedException, ExecutionException {
+        long start = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            changedDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        CooccurrenceMatrix fresh = null;
+        try {
+            fresh = load();
+            fresh.computeCooccurrence(builders);
+        } finally {
+            lock.writeLock().lock();
+            try {
+                if (fresh != null) {
+                    for (long[] change : changedDuringRebuild) {
+                        fresh.setFavorite(change[0], change[1], change[2] == 1);
+                    }
+                    matrix = fresh;
+                }
+                changedDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        log.info("Rebuilt from {} users and {} tracks in {} ms",
+                fresh.userCount(), fresh.trackCount(), System.currentTimeMillis() - start);
+    }
+
+    // Called by MutationWriteBuffer once a batch has committed: userId -> (trackId -> is a favorite now)
+    public void onFavoritesChanged(Map<Long, Map<Long, Boolean>> favoritesByUser) {
+        lock.writeLock().lock();
+        try {
+            favoritesByUser.forEach((userId, tracks) -> tracks.forEach((trackId, favorite) -> {
+                matrix.setFavorite(userId, trackId, favorite);
+                if (changedDuringRebuild != null) {
+                    changedDuringRebuild.add(new long[]{userId, trackId, favorite ? 1 : 0});
+                }
+            }));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<TrackDTO> similarTracks(Long trackId, int limit) {
+        long[] ids;
+        lock.readLock().lock();
+        try {
+            ids = matrix.similar(trackId, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+        return trackService.findTracks(ids);
+    }
+
+    public List<TrackDTO> recommendationsFor(Long userId, int limit) {
+        long[] ids;
+        lock.readLock().lock();
+        try {
+            ids = matrix.recommend(userId, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+        return trackService.findTracks(ids);
+    }
+
+    // Rows arrive grouped by user (primary key order), so one reusable buffer holds the current user's tracks
+    private CooccurrenceMatrix load() {
+        CooccurrenceMatrix fresh = new CooccurrenceMatrix(maxFavoritesPerUser);
+        UserRows current = new UserRows();
+        jdbcTemplate.query(LOAD_SQL, rs -> {
+            long userId = rs.getLong(1);
+            if (userId != current.userId) {
+                current.flushTo(fresh);
+                current.userId = userId;
+            }
+            current.add(rs.getLong(2));
+        });
+        current.flushTo(fresh);
+        return fresh;
+    }
+
+    private void rebuildQuietly() {
+        try {
+            rebuild();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | RuntimeException e) {
+            log.error("Rebuild failed", e);
+        }
+    }
+
+    private static final class UserRows {
+        private long userId = Long.MIN_VALUE;
+        private long[] trackIds = new long[64];
+        private int size;
+
+        void add(long trackId) {
+            if (size == trackIds.length) {
+                trackIds = Arrays.copyOf(trackIds, size * 2);
+            }
+            trackIds[size++] = trackId;
+        }
+
+        void flushTo(CooccurrenceMatrix matrix) {
+            if (size > 0) {
+                matrix.loadUser(userId, trackIds, size);
+                size = 0;
+            }
+        }
+    }
+}
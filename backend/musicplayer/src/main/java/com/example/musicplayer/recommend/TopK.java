@@ -0,0 +1,88 @@
+package com.example.musicplayer.recommend;
+
+/**
+ * Bounded min-heap of (item, score) on parallel primitive arrays; keeps the k best offers.
+ * Ties go to the lower track id, so results don't depend on the order indexes were assigned in.
+ */
+final class TopK {
+
+    private final int[] items;
+    private final double[] scores;
+    private final long[] trackIds; // item index -> track id, for tie-breaks
+    private int size;
+
+    TopK(int k, long[] trackIds) {
+        this.items = new int[k];
+        this.scores = new double[k];
+        this.trackIds = trackIds;
+    }
+
+    void offer(int item, double score) {
+        if (items.length == 0) {
+            return;
+        }
+        if (size < items.length) {
+            items[size] = item;
+            scores[size] = score;
+            siftUp(size++);
+        } else if (worse(0, item, score)) {
+            items[0] = item;
+            scores[0] = score;
+            siftDown(0);
+        }
+    }
+
+    // Best first; empties the heap
+    int[] drain() {
+        int[] result = new int[size];
+        for (int i = size - 1; i >= 0; i--) {
+            result[i] = items[0];
+            size--;
+            items[0] = items[size];
+            scores[0] = scores[size];
+            siftDown(0);
+        }
+        return result;
+    }
+
+    // Whether the entry at slot ranks below (item, score)
+    private boolean worse(int slot, int item, double score) {
+        return scores[slot] < score || (scores[slot] == score && trackIds[items[slot]] > trackIds[item]);
+    }
+
+    private void siftUp(int slot) {
+        while (slot > 0) {
+            int parent = (slot - 1) / 2;
+            if (!worse(slot, items[parent], scores[parent])) {
+                break;
+            }
+            swap(slot, parent);
+            slot = parent;
+        }
+    }
+
+    private void siftDown(int slot) {
+        while (true) {
+            int smallest = slot;
+            for (int child = 2 * slot + 1; child <= 2 * slot + 2 && child < size; child++) {
+                if (worse(child, items[smallest], scores[smallest])) {
+                    smallest = child;
+                }
+            }
+            if (smallest == slot) {
+                return;
+            }
+            swap(slot, smallest);
+            slot = smallest;
+        }
+    }
+
+    private void swap(int a, int b) {
+        int item = items[a];
+        items[a] = items[b];
+        items[b] = item;
+        double score = scores[a];
+        scores[a] = scores[b];
+        scores[b] = score;
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.musicplayer.repository;
+
+import com.example.musicplayer.dto.FavoriteChangeRow;
+import com.example.musicplayer.model.FavoriteChange;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface FavoriteChangeRepository extends JpaRepository<FavoriteChange, Long> {
+
+    @Query("select new com.example.musicplayer.dto.FavoriteChangeRow(c.trackId, c.added, c.version, t.title, t.artist, t.cover, t.url) " +
+           "from FavoriteChange c left join Track t on t.id = c.trackId " +
+           "where c.userId = :userId and c.version > :since order by c.version, c.id")
+    List<FavoriteChangeRow> findChangesAfter(@Param("userId") Long userId, @Param("since") long since);
+
+    @Transactional
+    @Modifying
+    @Query("delete from FavoriteChange c where c.changedAt < :cutoff")
+    int deleteOlderThan(@Param("cutoff") LocalDateTime cutoff);   // retention; clients older than this get a reset
+}
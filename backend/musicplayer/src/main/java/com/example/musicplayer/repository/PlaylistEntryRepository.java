@@ -0,0 +1,67 @@
+package com.example.musicplayer.repository;
+
+import com.example.musicplayer.dto.PlaylistEntryDTO;
+import com.example.musicplayer.model.PlaylistEntry;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface PlaylistEntryRepository extends JpaRepository<PlaylistEntry, Long> {
+
+    Optional<PlaylistEntry> findByIdAndPlaylistId(Long id, Long playlistId);
+
+    // Keyset range read on (position, id); the index makes each page O(log n + page size)
+    @Query("select new com.example.musicplayer.dto.PlaylistEntryDTO(e.id, e.position, t.id, t.title, t.artist, t.cover, t.url) " +
+           "from PlaylistEntry e join e.track t where e.playlist.id = :playlistId " +
+           "and (e.position > :position or (e.position = :position and e.id > :entryId)) " +
+           "order by e.position, e.id")
+    List<PlaylistEntryDTO> findPageAfter(@Param("playlistId") Long playlistId,
+                                         @Param("position") long position,
+                                         @Param("entryId") long entryId,
+                                         Pageable pageable);
+
+    // Neighbour positions around a list index, leaving out the entry being moved (-1 = none).
+    // OFFSET steps over every index entry before it, so this is linear in the list index;
+    // anchored edits use the keyset seeks below instead
+    @Query(value = "SELECT position FROM playlist_entries WHERE playlist_id = :playlistId AND id <> :excludeId " +
+                   "ORDER BY position, id LIMIT :limit OFFSET :offset", nativeQuery = true)
+    List<Long> findPositions(@Param("playlistId") Long playlistId,
+                             @Param("excludeId") long excludeId,
+                             @Param("offset") int offset,
+                             @Param("limit") int limit);
+
+    @Query("select e.position from PlaylistEntry e where e.id = :id and e.playlist.id = :playlistId")
+    Optional<Long> findPosition(@Param("id") Long id, @Param("playlistId") Long playlistId);
+
+    // Keyset seeks on (playlist_id, position) for the neighbour after / before an anchor entry
+    @Query(value = "SELECT position FROM playlist_entries WHERE playlist_id = :playlistId AND id <> :excludeId " +
+                   "AND (position > :position OR (position = :position AND id > :anchorId)) " +
+                   "ORDER BY position, id LIMIT 1", nativeQuery = true)
+    Optional<Long> findPositionAfter(@Param("playlistId") Long playlistId,
+                                     @Param("position") long position,
+                                     @Param("anchorId") long anchorId,
+                                     @Param("excludeId") long excludeId);
+
+    @Query(value = "SELECT position FROM playlist_entries WHERE playlist_id = :playlistId AND id <> :excludeId " +
+                   "AND (position < :position OR (position = :position AND id < :anchorId)) " +
+                   "ORDER BY position DESC, id DESC LIMIT 1", nativeQuery = true)
+    Optional<Long> findPositionBefore(@Param("playlistId") Long playlistId,
+                                      @Param("position") long position,
+                                      @Param("anchorId") long anchorId,
+                                      @Param("excludeId") long excludeId);
+
+    @Query("select max(e.position) from PlaylistEntry e where e.playlist.id = :playlistId")
+    Long findMaxPosition(@Param("playlistId") Long playlistId);
+
+    @Query("select e.id from PlaylistEntry e where e.playlist.id = :playlistId order by e.position, e.id")
+    List<Long> findIdsInOrder(@Param("playlistId") Long playlistId);
+
+    @Modifying
+    @Query("delete from PlaylistEntry e where e.id = :id and e.playlist.id = :playlistId")
+    int deleteByIdAndPlaylistId(@Param("id") Long id, @Param("playlistId") Long playlistId);
+}
@@ -1,4 +1,16 @@
 package com.example.musicplayer.repository;
+import com.example.musicplayer.dto.PlaylistTrackRow;
 import com.example.musicplayer.model.Playlist;
 import org.springframework.data.jpa.repository.JpaRepository;
-public interface PlaylistRepository extends JpaRepository<Playlist, Long> {}
\ No newline at end of file
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.util.List;
+public interface PlaylistRepository extends JpaRepository<Playlist, Long> {
+
+    boolean existsByIdAndUserId(Long id, Long userId);
+
+    // Playlists and their tracks in one round trip instead of one query per playlist
+    @Query("select new com.example.musicplayer.dto.PlaylistTrackRow(p.id, p.name, t.id, t.title, t.artist, t.cover, t.url) " +
+           "from Playlist p left join p.entries e left join e.track t where p.user.id = :userId order by p.id, e.position, e.id")
+    List<PlaylistTrackRow> findTrackRowsByUserId(@Param("userId") Long userId);
+}
@@ -1,8 +1,31 @@
 package com.example.musicplayer.repository;
+import com.example.musicplayer.dto.TrackDTO;
+import com.example.musicplayer.dto.TrackFavoriteCount;
 import com.example.musicplayer.model.Track;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.util.List;
 import java.util.Optional;
 public interface TrackRepository extends JpaRepository<Track, Long> {
     Optional<Track> findById(Long id);
     boolean existsById(Long id);
-}
\ No newline at end of file
+
+    // Keyset pagination: seek past the last id seen instead of OFFSET, so every page costs the same
+    @Query("select new com.example.musicplayer.dto.TrackDTO(t.id, t.title, t.artist, t.cover, t.url) " +
+           "from Track t order by t.id asc")
+    List<TrackDTO> findFirstPage(Pageable pageable);
+
+    @Query("select new com.example.musicplayer.dto.TrackDTO(t.id, t.title, t.artist, t.cover, t.url) " +
+           "from Track t where t.id > :afterId order by t.id asc")
+    List<TrackDTO> findPageAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("select t.id as id, t.title as title, t.artist as artist, count(u) as favoriteCount " +
+           "from Track t left join t.usersWhoFavorited u where t.id > :afterId " +
+           "group by t.id, t.title, t.artist order by t.id asc")
+    List<TrackFavoriteCount> findFavoriteCountsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("select t.playCount from Track t where t.id = :id")
+    Long findPlayCount(@Param("id") Long id);
+}
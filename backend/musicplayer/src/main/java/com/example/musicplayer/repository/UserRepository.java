@@ -1,12 +1,34 @@
 package com.example.musicplayer.repository;
 
+import com.example.musicplayer.dto.TrackDTO;
 import com.example.musicplayer.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
 
+    // Sign-in and registration wrap these in PrimaryReads.call: a new account may not be on a replica yet
     Optional<User> findByEmailIgnoreCase(String email);         // for login & profile
     boolean existsByEmailIgnoreCase(String email);              // for register
+
+    @Query("select new com.example.musicplayer.dto.TrackDTO(t.id, t.title, t.artist, t.cover, t.url) " +
+           "from User u join u.favorites t where u.id = :userId")
+    List<TrackDTO> findFavoriteTracks(@Param("userId") Long userId);   // favorites without hydrating the collection
+
+    @Transactional
+    @Modifying
+    @Query("update User u set u.password = :password where u.id = :userId")
+    int updatePassword(@Param("userId") Long userId, @Param("password") String password);   // cost-factor upgrade on login
+
+    @Query("select u.favoritesVersion from User u where u.id = :userId")
+    Long findFavoritesVersion(@Param("userId") Long userId);   // ETag for favorites, no entity load
+
+    @Query(value = "SELECT COUNT(*) FROM user_favorites WHERE user_id = :userId AND track_id = :trackId", nativeQuery = true)
+    int countFavorite(@Param("userId") Long userId, @Param("trackId") Long trackId);   // PK lookup for toggle
 }
@@ -0,0 +1,230 @@
+package com.example.musicplayer.search;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Immutable, weighted prefix dictionary.
+ * Keys are sorted by their UTF-8 bytes and front-coded in blocks of {@value #BLOCK_SIZE}: each
+ * entry stores only the suffix it does not share with its predecessor, and every block starts
+ * with a full key so lookups binary-search the block heads and scan at most one block.
+ * A max-segment-tree over the weights answers "best k entries in this prefix range" in
+ * O(k log n) without visiting the whole range.
+ */
+public final class SuggestionDictionary {
+
+    static final int BLOCK_SIZE = 16;
+
+    public static final SuggestionDictionary EMPTY = build(Map.of());
+
+    private final byte[] data;
+    private final int[] blockOffsets;
+    private final int[] weights;
+    private final int[] maxTree; // index of the heaviest entry per node, leaves at [size, 2 * size)
+    private final int size;
+
+    private SuggestionDictionary(byte[] data, int[] blockOffsets, int[] weights) {
+        this.data = data;
+        this.blockOffsets = blockOffsets;
+        this.weights = weights;
+        this.size = weights.length;
+        this.maxTree = new int[Math.max(2 * size, 1)];
+        for (int i = 0; i < size; i++) {
+            maxTree[size + i] = i;
+        }
+        for (int node = size - 1; node > 0; node--) {
+            maxTree[node] = heavier(maxTree[2 * node], maxTree[2 * node + 1]);
+        }
+    }
+
+    /**
+     * @param weightedKeys key -> weight; keys must be non-empty
+     */
+    public static SuggestionDictionary build(Map<String, Long> weightedKeys) {
+        List<byte[]> keys = new ArrayList<>(weightedKeys.size());
+        for (String key : weightedKeys.keySet()) {
+            keys.add(key.getBytes(StandardCharsets.UTF_8));
+        }
+        keys.sort(Arrays::compareUnsigned);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        int[] blockOffsets = new int[(keys.size() + BLOCK_SIZE - 1) / BLOCK_SIZE];
+        int[] weights = new int[keys.size()];
+        byte[] previous = new byte[0];
+
+        for (int i = 0; i < keys.size(); i++) {
+            byte[] key = keys.get(i);
+            weights[i] = (int) Math.min(Integer.MAX_VALUE,
+                    weightedKeys.get(new String(key, StandardCharsets.UTF_8)));
+            int shared = 0;
+            if (i % BLOCK_SIZE == 0) {
+                blockOffsets[i / BLOCK_SIZE] = out.size();
+            } else {
+                shared = Arrays.mismatch(previous, key);
+                shared = shared < 0 ? key.length : shared;
+                writeVarInt(out, shared);
+            }
+            writeVarInt(out, key.length - shared);
+            out.write(key, shared, key.length - shared);
+            previous = key;
+        }
+        return new SuggestionDictionary(out.toByteArray(), blockOffsets, weights);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /** Bytes held by the encoded keys, for comparing against the raw strings. */
+    public int encodedBytes() {
+        return data.length;
+    }
+
+    /**
+     * Returns up to {@code limit} keys starting with {@code prefix}, heaviest first.
+     */
+    public List<String> topK(String prefix, int limit) {
+        if (size == 0 || limit <= 0 || prefix.isEmpty()) {
+            return List.of();
+        }
+        byte[] from = prefix.getBytes(StandardCharsets.UTF_8);
+        int lo = lowerBound(from);
+        int hi = lowerBound(successor(from));
+        if (lo >= hi) {
+            return List.of();
+        }
+
+        // Best-first over sub-ranges: pop the heaviest, split its range around it
+        PriorityQueue<int[]> ranges = new PriorityQueue<>((a, b) -> a[2] == b[2] ? 0 : heavier(a[2], b[2]) == a[2] ? -1 : 1);
+        ranges.add(new int[]{lo, hi, rangeMax(lo, hi)});
+        List<String> results = new ArrayList<>(limit);
+        while (!ranges.isEmpty() && results.size() < limit) {
+            int[] range = ranges.poll();
+            int best = range[2];
+            results.add(keyAt(best));
+            if (range[0] < best) {
+                ranges.add(new int[]{range[0], best, rangeMax(range[0], best)});
+            }
+            if (best + 1 < range[1]) {
+                ranges.add(new int[]{best + 1, range[1], rangeMax(best + 1, range[1])});
+            }
+        }
+        return results;
+    }
+
+    String keyAt(int index) {
+        int block = index / BLOCK_SIZE;
+        int[] cursor = {blockOffsets[block]};
+        byte[] key = readFirst(cursor);
+        for (int i = block * BLOCK_SIZE + 1; i <= index; i++) {
+            key = readNext(cursor, key);
+        }
+        return new String(key, StandardCharsets.UTF_8);
+    }
+
+    /** First index whose key is >= target, or size if none. */
+    private int lowerBound(byte[] target) {
+        if (target == null) {
+            return size;
+        }
+        // Last block whose head key is < target; the answer lies in it or at the next block head
+        int lo = 0;
+        int hi = blockOffsets.length - 1;
+        int block = -1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int[] cursor = {blockOffsets[mid]};
+            if (Arrays.compareUnsigned(readFirst(cursor), target) < 0) {
+                block = mid;
+                lo = mid + 1;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        if (block < 0) {
+            return 0;
+        }
+        int[] cursor = {blockOffsets[block]};
+        byte[] key = readFirst(cursor);
+        int index = block * BLOCK_SIZE;
+        int end = Math.min(size, index + BLOCK_SIZE);
+        while (++index < end) {
+            key = readNext(cursor, key);
+            if (Arrays.compareUnsigned(key, target) >= 0) {
+                return index;
+            }
+        }
+        return index;
+    }
+
+    /** Smallest byte string greater than every string starting with prefix, or null if unbounded. */
+    private static byte[] successor(byte[] prefix) {
+        for (int i = prefix.length - 1; i >= 0; i--) {
+            if (prefix[i] != (byte) 0xFF) {
+                byte[] next = Arrays.copyOf(prefix, i + 1);
+                next[i]++;
+                return next;
+            }
+        }
+        return null;
+    }
+
+    private int rangeMax(int from, int to) {
+        int best = from;
+        for (int l = from + size, r = to + size; l < r; l >>= 1, r >>= 1) {
+            if ((l & 1) == 1) {
+                best = heavier(best, maxTree[l++]);
+            }
+            if ((r & 1) == 1) {
+                best = heavier(best, maxTree[--r]);
+            }
+        }
+        return best;
+    }
+
+    private int heavier(int a, int b) {
+        // Ties go to the lexicographically smaller key
+        return weights[b] > weights[a] || (weights[b] == weights[a] && b < a) ? b : a;
+    }
+
+    private byte[] readFirst(int[] cursor) {
+        int length = readVarInt(cursor);
+        byte[] key = Arrays.copyOfRange(data, cursor[0], cursor[0] + length);
+        cursor[0] += length;
+        return key;
+    }
+
+    private byte[] readNext(int[] cursor, byte[] previous) {
+        int shared = readVarInt(cursor);
+        int suffix = readVarInt(cursor);
+        byte[] key = Arrays.copyOf(previous, shared + suffix);
+        System.arraycopy(data, cursor[0], key, shared, suffix);
+        cursor[0] += suffix;
+        return key;
+    }
+
+    private int readVarInt(int[] cursor) {
+        int value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = data[cursor[0]++];
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+
+    private static void writeVarInt(ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+}
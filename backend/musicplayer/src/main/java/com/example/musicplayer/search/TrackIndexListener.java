@@ -0,0 +1,54 @@
+package com.example.musicplayer.search;
+
+import com.example.musicplayer.dto.TrackDTO;
+import com.example.musicplayer.model.Track;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Keeps {@link TrackSearchIndex} in step with JPA writes to Track. Changes reach the index only
+ * once their transaction commits, so a rolled-back save never shows up in search.
+ * The index is looked up lazily: it reads through TrackRepository, which needs the
+ * EntityManagerFactory that instantiates this listener.
+ */
+@Component
+public class TrackIndexListener {
+
+    private final ObjectProvider<TrackSearchIndex> searchIndex;
+
+    public TrackIndexListener(ObjectProvider<TrackSearchIndex> searchIndex) {
+        this.searchIndex = searchIndex;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void onSave(Track track) {
+        // Snapshot now: the entity may change again before the commit
+        TrackDTO document = new TrackDTO(track.getId(), track.getTitle(), track.getArtist(), track.getCover(), track.getUrl());
+        afterCommit(() -> searchIndex.getObject().index(document));
+    }
+
+    @PostRemove
+    public void onRemove(Track track) {
+        Long trackId = track.getId();
+        afterCommit(() -> searchIndex.getObject().remove(trackId));
+    }
+
+    private void afterCommit(Runnable change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    change.run();
+                }
+            });
+        } else {
+            change.run();
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.example.musicplayer.search;
+
+import com.example.musicplayer.dto.TrackDTO;
+import com.example.musicplayer.repository.TrackRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * In-memory inverted index over Track.title and Track.artist.
+ * Terms live in a sorted map so a typeahead prefix is a single range scan; each posting
+ * records which field the term came from so title hits outrank artist hits.
+ * Reads are lock-free; writers are serialized.
+ */
+@Component
+public class TrackSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(TrackSearchIndex.class);
+
+    private static final int FIELD_TITLE = 1;
+    private static final int FIELD_ARTIST = 2;
+    private static final int MIN_PREFIX_LENGTH = 2; // shorter tokens only match whole terms
+    private static final int LOAD_BATCH_SIZE = 5000;
+
+    private final TrackRepository trackRepository;
+
+    // term -> (trackId -> field mask)
+    private final ConcurrentSkipListMap<String, Map<Long, Integer>> postings = new ConcurrentSkipListMap<>();
+    private final Map<Long, TrackDTO> documents = new ConcurrentHashMap<>();
+
+    public TrackSearchIndex(TrackRepository trackRepository) {
+        this.trackRepository = trackRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        List<TrackDTO> batch = trackRepository.findFirstPage(PageRequest.of(0, LOAD_BATCH_SIZE));
+        while (!batch.isEmpty()) {
+            batch.forEach(this::index);
+            Long lastId = batch.get(batch.size() - 1).getId();
+            batch = trackRepository.findPageAfter(lastId, PageRequest.of(0, LOAD_BATCH_SIZE));
+        }
+        log.info("Indexed {} tracks in {} ms", documents.size(), System.currentTimeMillis() - start);
+    }
+
+    public synchronized void index(TrackDTO track) {
+        TrackDTO previous = documents.put(track.getId(), track);
+        if (previous != null) {
+            removePostings(previous);
+        }
+        addPostings(track.getId(), track.getTitle(), FIELD_TITLE);
+        addPostings(track.getId(), track.getArtist(), FIELD_ARTIST);
+    }
+
+    public synchronized void remove(Long trackId) {
+        TrackDTO previous = documents.remove(trackId);
+        if (previous != null) {
+            removePostings(previous);
+        }
+    }
+
+    public int size() {
+        return documents.size();
+    }
+
+    /**
+     * Every query token must match (AND). The last token is treated as a prefix so results
+     * update per keystroke; earlier tokens still prefer exact matches through scoring.
+     */
+    public List<TrackDTO> search(String query, int limit) {
+        List<String> tokens = TextNormalizer.tokenize(query);
+        if (tokens.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        Map<Long, Integer> scores = null;
+        for (String token : tokens) {
+            Map<Long, Integer> tokenScores = scoreToken(token);
+            if (scores == null) {
+                scores = tokenScores;
+            } else {
+                Map<Long, Integer> merged = new HashMap<>();
+                Map<Long, Integer> smaller = scores.size() <= tokenScores.size() ? scores : tokenScores;
+                Map<Long, Integer> larger = smaller == scores ? tokenScores : scores;
+                smaller.forEach((id, score) -> {
+                    Integer other = larger.get(id);
+                    if (other != null) {
+                        merged.put(id, score + other);
+                    }
+                });
+                scores = merged;
+            }
+            if (scores.isEmpty()) {
+                return List.of();
+            }
+        }
+
+        // Bounded min-heap keeps only the best `limit` hits
+        Comparator<Map.Entry<Long, Integer>> byRank = Map.Entry.<Long, Integer>comparingByValue()
+                .thenComparing(Map.Entry.<Long, Integer>comparingByKey().reversed());
+        PriorityQueue<Map.Entry<Long, Integer>> top = new PriorityQueue<>(limit + 1, byRank);
+        for (Map.Entry<Long, Integer> entry : scores.entrySet()) {
+            top.offer(entry);
+            if (top.size() > limit) {
+                top.poll();
+            }
+        }
+
+        List<TrackDTO> results = new ArrayList<>(top.size());
+        while (!top.isEmpty()) {
+            TrackDTO track = documents.get(top.poll().getKey());
+            if (track != null) {
+                results.add(track);
+            }
+        }
+        Collections.reverse(results);
+        return results;
+    }
+
+    private Map<Long, Integer> scoreToken(String token) {
+        Map<Long, Integer> tokenScores = new HashMap<>();
+        NavigableMap<String, Map<Long, Integer>> matches = token.length() < MIN_PREFIX_LENGTH
+                ? postings.subMap(token, true, token, true)
+                : postings.subMap(token, true, token + Character.MAX_VALUE, false);
+
+        for (Map.Entry<String, Map<Long, Integer>> term : matches.entrySet()) {
+            boolean exact = term.getKey().equals(token);
+            term.getValue().forEach((id, fields) ->
+                    tokenScores.merge(id, fieldScore(fields, exact), Math::max));
+        }
+        return tokenScores;
+    }
+
+    private int fieldScore(int fields, boolean exact) {
+        // exact title > exact artist > prefix title > prefix artist
+        int score = (fields & FIELD_TITLE) != 0 ? 2 : 1;
+        return exact ? score + 2 : score;
+    }
+
+    private void addPostings(Long trackId, String text, int field) {
+        for (String token : TextNormalizer.tokenize(text)) {
+            postings.computeIfAbsent(token, t -> new ConcurrentHashMap<>())
+                    .merge(trackId, field, (a, b) -> a | b);
+        }
+    }
+
+    private void removePostings(TrackDTO track) {
+        List<String> tokens = new ArrayList<>(TextNormalizer.tokenize(track.getTitle()));
+        tokens.addAll(TextNormalizer.tokenize(track.getArtist()));
+        for (String token : tokens) {
+            Map<Long, Integer> ids = postings.get(token);
+            if (ids != null) {
+                ids.remove(track.getId());
+                if (ids.isEmpty()) {
+                    postings.remove(token, ids);
+                }
+            }
+        }
+    }
+}
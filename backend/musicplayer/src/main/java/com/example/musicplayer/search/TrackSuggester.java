@@ -0,0 +1,116 @@
+package com.example.musicplayer.search;
+
+import com.example.musicplayer.dto.SuggestionDTO;
+import com.example.musicplayer.dto.TrackFavoriteCount;
+import com.example.musicplayer.repository.TrackRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Typeahead over artist names and track titles, weighted by favorite count.
+ * The dictionary is rebuilt from MySQL on a background thread and swapped in whole,
+ * so requests only ever read an immutable snapshot.
+ */
+@Component
+public class TrackSuggester {
+
+    private static final Logger log = LoggerFactory.getLogger(TrackSuggester.class);
+
+    private static final char SEPARATOR = '\0';
+    private static final char TYPE_ARTIST = 'a';
+    private static final char TYPE_TITLE = 't';
+    private static final int LOAD_BATCH_SIZE = 5000;
+
+    private final TrackRepository trackRepository;
+    private final AtomicReference<SuggestionDictionary> dictionary = new AtomicReference<>(SuggestionDictionary.EMPTY);
+    private final ScheduledExecutorService rebuilder = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "track-suggest-rebuild");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Value("${musicplayer.suggest.rebuild-interval-minutes:15}")
+    private long rebuildIntervalMinutes;
+
+    public TrackSuggester(TrackRepository trackRepository) {
+        this.trackRepository = trackRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        rebuilder.scheduleWithFixedDelay(this::rebuildQuietly, 0, rebuildIntervalMinutes, TimeUnit.MINUTES);
+    }
+
+    @PreDestroy
+    public void stop() {
+        rebuilder.shutdownNow();
+    }
+
+    public List<SuggestionDTO> suggest(String prefix, int limit) {
+        String key = String.join(" ", TextNormalizer.tokenize(prefix));
+        if (key.isEmpty()) {
+            return List.of();
+        }
+        List<SuggestionDTO> suggestions = new ArrayList<>();
+        for (String entry : dictionary.get().topK(key, limit)) {
+            // entry = normalized key, separator, type, display text
+            int split = entry.indexOf(SEPARATOR);
+            String type = entry.charAt(split + 1) == TYPE_ARTIST ? "artist" : "title";
+            suggestions.add(new SuggestionDTO(entry.substring(split + 2), type));
+        }
+        return suggestions;
+    }
+
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        Map<String, Long> weights = new HashMap<>();
+        Long lastId = 0L;
+        List<TrackFavoriteCount> batch;
+        do {
+            batch = trackRepository.findFavoriteCountsAfter(lastId, PageRequest.of(0, LOAD_BATCH_SIZE));
+            for (TrackFavoriteCount row : batch) {
+                // +1 so tracks nobody has favorited yet still rank by how often the name occurs
+                long weight = row.getFavoriteCount() + 1;
+                addEntry(weights, row.getArtist(), TYPE_ARTIST, weight);
+                addEntry(weights, row.getTitle(), TYPE_TITLE, weight);
+                lastId = row.getId();
+            }
+        } while (batch.size() == LOAD_BATCH_SIZE);
+
+        SuggestionDictionary built = SuggestionDictionary.build(weights);
+        dictionary.set(built);
+        log.info("Built {} suggestions ({} bytes) in {} ms",
+                built.size(), built.encodedBytes(), System.currentTimeMillis() - start);
+    }
+
+    private void rebuildQuietly() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            // Keep serving the previous snapshot; the next scheduled run retries
+            log.warn("Rebuild failed: {}", e.getMessage());
+        }
+    }
+
+    private void addEntry(Map<String, Long> weights, String display, char type, long weight) {
+        String key = String.join(" ", TextNormalizer.tokenize(display));
+        if (!key.isEmpty()) {
+            weights.merge(key + SEPARATOR + type + display.trim(), weight, Long::sum);
+        }
+    }
+}
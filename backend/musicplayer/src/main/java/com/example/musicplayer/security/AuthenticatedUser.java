@@ -0,0 +1,87 @@
+package com.example.musicplayer.security;
+
+import com.example.musicplayer.model.User;
+import org.springframework.security.core.AuthenticatedPrincipal;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.security.Principal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Lightweight principal placed in the Authentication by {@link JwtAuthFilter}.
+ * Carries the user id so controllers can query by key instead of re-reading the user row,
+ * and the authorities SecurityConfig checks: every user has USER, operators also have ADMIN.
+ */
+public class AuthenticatedUser implements AuthenticatedPrincipal {
+
+    public static final String USER = "USER";
+    public static final String ADMIN = "ADMIN";
+
+    private static final List<GrantedAuthority> USER_AUTHORITIES = List.of(new SimpleGrantedAuthority(USER));
+    private static final List<GrantedAuthority> ADMIN_AUTHORITIES =
+            List.of(new SimpleGrantedAuthority(USER), new SimpleGrantedAuthority(ADMIN));
+
+    private final Long id;
+    private final String email;
+    private final String name;
+    private final LocalDate joinedAt;
+    private final boolean admin;
+
+    public AuthenticatedUser(Long id, String email, String name, LocalDate joinedAt) {
+        this(id, email, name, joinedAt, false);
+    }
+
+    public AuthenticatedUser(Long id, String email, String name, LocalDate joinedAt, boolean admin) {
+        this.id = id;
+        this.email = email;
+        this.name = name;
+        this.joinedAt = joinedAt;
+        this.admin = admin;
+    }
+
+    public static AuthenticatedUser from(User user) {
+        return new AuthenticatedUser(user.getId(), user.getEmail(), user.getName(), user.getJoinedAt(), user.isAdmin());
+    }
+
+    public static List<GrantedAuthority> authorities(boolean admin) {
+        return admin ? ADMIN_AUTHORITIES : USER_AUTHORITIES;
+    }
+
+    // Unwraps the principal MVC injects for an authenticated request
+    public static AuthenticatedUser of(Principal principal) {
+        if (principal instanceof Authentication authentication
+                && authentication.getPrincipal() instanceof AuthenticatedUser user) {
+            return user;
+        }
+        throw new RuntimeException("Unauthorized");
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public LocalDate getJoinedAt() {
+        return joinedAt;
+    }
+
+    // Spring resolves Principal#getName() to this, so existing principal.getName() callers still get the email
+    @Override
+    public String getName() {
+        return email;
+    }
+
+    public String getDisplayName() {
+        return name;
+    }
+
+    public List<GrantedAuthority> getAuthorities() {
+        return authorities(admin);
+    }
+}
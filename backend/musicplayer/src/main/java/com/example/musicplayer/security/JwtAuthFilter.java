@@ -1,7 +1,9 @@
 package com.example.musicplayer.security;
 
+import com.example.musicplayer.datasource.PrimaryReads;
 import com.example.musicplayer.model.User;
 import com.example.musicplayer.repository.UserRepository;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -11,16 +13,17 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.Collections;
 
 public class JwtAuthFilter extends OncePerRequestFilter {
 
     private final JwtProvider jwtProvider;
     private final UserRepository userRepository;
+    private final PrincipalCache principalCache;
 
-    public JwtAuthFilter(JwtProvider jwtProvider, UserRepository userRepository) {
+    public JwtAuthFilter(JwtProvider jwtProvider, UserRepository userRepository, PrincipalCache principalCache) {
         this.jwtProvider = jwtProvider;
         this.userRepository = userRepository;
+        this.principalCache = principalCache;
     }
 
     @Override
@@ -37,22 +40,32 @@ public class JwtAuthFilter extends OncePerRequestFilter {
 
         String token = header.substring(7); // Remove "Bearer " prefix
 
-        if (!jwtProvider.validate(token)) {
-            chain.doFilter(request, response);
-            return;
-        }
+        // Cache hit: this exact token was already verified and resolved
+        AuthenticatedUser principal = principalCache.get(token);
 
-        String email = jwtProvider.getEmailFromJWT(token);
+        if (principal == null) {
+            // Parse and verify once; the claims carry both subject and expiry
+            Claims claims = jwtProvider.parseClaims(token);
+            if (claims == null) {
+                chain.doFilter(request, response);
+                return;
+            }
 
-        // ✅ Updated to match repository method
-        User user = userRepository.findByEmailIgnoreCase(email).orElse(null);
+            // The token may have been issued at registration, before a replica has the account
+            User user = PrimaryReads.call(() -> userRepository.findByEmailIgnoreCase(claims.getSubject())).orElse(null);
+            if (user == null) {
+                chain.doFilter(request, response);
+                return;
+            }
 
-        if (user != null) {
-            UsernamePasswordAuthenticationToken authentication =
-                    new UsernamePasswordAuthenticationToken(user.getEmail(), null, Collections.emptyList());
-            SecurityContextHolder.getContext().setAuthentication(authentication);
+            principal = AuthenticatedUser.from(user);
+            principalCache.put(token, principal, claims.getExpiration().getTime());
         }
 
+        UsernamePasswordAuthenticationToken authentication =
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+
         chain.doFilter(request, response);
     }
 }
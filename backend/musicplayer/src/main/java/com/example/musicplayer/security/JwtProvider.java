@@ -2,52 +2,86 @@ package com.example.musicplayer.security;
 
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
 import java.security.Key;
 import java.util.Date;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class JwtProvider {
+
+    private static final Logger log = LoggerFactory.getLogger(JwtProvider.class);
+
     private final Key key = Keys.secretKeyFor(SignatureAlgorithm.HS256);
     private final long expiration = 604800000L; // 7 days in milliseconds
+    private final JwtParser parser = Jwts.parserBuilder().setSigningKey(key).build(); // immutable, thread-safe
+
+    private final Timer signTime;
+    private final Timer parseValid;
+    private final Timer parseExpired;
+    private final Timer parseInvalid;
+
+    public JwtProvider(MeterRegistry meterRegistry) {
+        this.signTime = Timer.builder("jwt.sign").register(meterRegistry);
+        this.parseValid = parseTimer(meterRegistry, "valid");
+        this.parseExpired = parseTimer(meterRegistry, "expired");
+        this.parseInvalid = parseTimer(meterRegistry, "invalid");
+    }
+
+    private static Timer parseTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("jwt.parse").tag("outcome", outcome).register(meterRegistry);
+    }
 
     public String generateToken(String email) {
+        long start = System.nanoTime();
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + expiration);
 
-        return Jwts.builder()
+        String token = Jwts.builder()
                 .setSubject(email)
                 .setIssuedAt(now)
                 .setExpiration(expiryDate)
                 .signWith(key)
                 .compact();
+        signTime.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return token;
     }
 
-    public String getEmailFromJWT(String token) {
+    /**
+     * Verifies the token and returns its claims in a single parse, or null if it is invalid or expired.
+     * Bad tokens are client errors on a hot path, so they are counted and only logged at debug.
+     */
+    public Claims parseClaims(String token) {
+        long start = System.nanoTime();
         try {
-            return Jwts.parserBuilder()
-                    .setSigningKey(key)
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody()
-                    .getSubject();
-        } catch (JwtException e) {
-            System.err.println("JWT Parsing Error: " + e.getMessage());
-            throw e;
+            Claims claims = parser.parseClaimsJws(token).getBody();
+            parseValid.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return claims;
+        } catch (ExpiredJwtException e) {
+            parseExpired.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            log.debug("Token expired: {}", e.getMessage());
+            return null;
+        } catch (JwtException | IllegalArgumentException e) {
+            parseInvalid.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            log.debug("JWT validation error: {}", e.getMessage());
+            return null;
         }
     }
 
-    public boolean validate(String token) {
-        try {
-            Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token);
-            return true;
-        } catch (ExpiredJwtException e) {
-            System.err.println("Token expired: " + e.getMessage());
-            return false;
-        } catch (JwtException | IllegalArgumentException e) {
-            System.err.println("JWT Validation Error: " + e.getMessage());
-            return false;
+    public String getEmailFromJWT(String token) {
+        Claims claims = parseClaims(token);
+        if (claims == null) {
+            throw new JwtException("Invalid or expired token");
         }
+        return claims.getSubject();
+    }
+
+    public boolean validate(String token) {
+        return parseClaims(token) != null;
     }
 }
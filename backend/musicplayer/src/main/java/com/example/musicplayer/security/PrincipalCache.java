@@ -0,0 +1,104 @@
+package com.example.musicplayer.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Bounded LRU of token -> resolved principal, so a repeat request with the same JWT
+ * skips both signature parsing and the user lookup.
+ * Entries expire after the configured TTL or when the token itself expires, whichever is first.
+ * Tokens are also indexed by user id, so a changed user drops only their own entries.
+ */
+@Component
+public class PrincipalCache {
+
+    private final int maxSize;
+    private final long ttlMillis;
+    private final LinkedHashMap<String, Entry> entries;
+    private final Map<Long, Set<String>> tokensByUser = new HashMap<>();
+    private final Counter hits;
+    private final Counter misses;
+
+    public PrincipalCache(MeterRegistry meterRegistry,
+                          @Value("${musicplayer.security.principal-cache.max-size:10000}") int maxSize,
+                          @Value("${musicplayer.security.principal-cache.ttl-seconds:300}") long ttlSeconds) {
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlSeconds * 1000;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() <= PrincipalCache.this.maxSize) {
+                    return false;
+                }
+                unindex(eldest.getKey(), eldest.getValue());
+                return true;
+            }
+        };
+        this.hits = Counter.builder("security.principal.cache.gets").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("security.principal.cache.gets").tag("result", "miss").register(meterRegistry);
+        Gauge.builder("security.principal.cache.size", this, PrincipalCache::size).register(meterRegistry);
+    }
+
+    public synchronized AuthenticatedUser get(String token) {
+        Entry entry = entries.get(token);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        if (entry.expiresAt <= System.currentTimeMillis()) {
+            entries.remove(token);
+            unindex(token, entry);
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.user;
+    }
+
+    public synchronized void put(String token, AuthenticatedUser user, long tokenExpiresAt) {
+        long expiresAt = Math.min(System.currentTimeMillis() + ttlMillis, tokenExpiresAt);
+        Entry previous = entries.put(token, new Entry(user, expiresAt));
+        if (previous != null) {
+            unindex(token, previous);
+        }
+        tokensByUser.computeIfAbsent(user.getId(), id -> new HashSet<>()).add(token);
+    }
+
+    // Drops every token issued to this user; called when the user row changes, email included
+    public synchronized void invalidate(Long userId) {
+        Set<String> tokens = tokensByUser.remove(userId);
+        if (tokens != null) {
+            tokens.forEach(entries::remove);
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private void unindex(String token, Entry entry) {
+        Set<String> tokens = tokensByUser.get(entry.user.getId());
+        if (tokens != null && tokens.remove(token) && tokens.isEmpty()) {
+            tokensByUser.remove(entry.user.getId());
+        }
+    }
+
+    private static final class Entry {
+        private final AuthenticatedUser user;
+        private final long expiresAt;
+
+        private Entry(AuthenticatedUser user, long expiresAt) {
+            this.user = user;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.musicplayer.security;
+
+import com.example.musicplayer.model.User;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Evicts cached principals whenever a User row is updated or deleted.
+ */
+@Component
+public class PrincipalCacheListener {
+
+    private final PrincipalCache principalCache;
+
+    public PrincipalCacheListener(PrincipalCache principalCache) {
+        this.principalCache = principalCache;
+    }
+
+    @PostUpdate
+    @PostRemove
+    public void onChange(User user) {
+        principalCache.invalidate(user.getId());
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.musicplayer.service;
 
+import com.example.musicplayer.datasource.PrimaryReads;
 import com.example.musicplayer.dto.LoginRequest;
 import com.example.musicplayer.dto.SignupRequest;
 import com.example.musicplayer.model.User;
@@ -18,7 +19,7 @@ public class AuthService {
     private PasswordEncoder passwordEncoder;
 
     public String register(SignupRequest request) {
-        if (userRepo.existsByEmailIgnoreCase(request.getEmail())) {
+        if (PrimaryReads.call(() -> userRepo.existsByEmailIgnoreCase(request.getEmail()))) {
             throw new RuntimeException("Email already in use");
         }
 
@@ -32,7 +33,7 @@ public class AuthService {
     }
 
     public String login(LoginRequest request) {
-        User user = userRepo.findByEmailIgnoreCase(request.getEmail())
+        User user = PrimaryReads.call(() -> userRepo.findByEmailIgnoreCase(request.getEmail()))
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
         if (!passwordEncoder.matches(request.getPassword(), user.getPassword())) {
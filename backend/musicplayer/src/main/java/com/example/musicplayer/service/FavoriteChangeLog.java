@@ -0,0 +1,130 @@
+package com.example.musicplayer.service;
+
+import com.example.musicplayer.dto.FavoriteChangeRow;
+import com.example.musicplayer.dto.FavoriteChangesResponse;
+import com.example.musicplayer.dto.TrackDTO;
+import com.example.musicplayer.repository.FavoriteChangeRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-user favorites version plus a delta log of adds/removes.
+ * Every flush that changes a user's favorites bumps users.favorites_version once and logs
+ * each changed track under the new version, so "changes since v" is a range scan on
+ * (user_id, version). Rows past the retention window are pruned; a client whose version
+ * predates what is left gets a reset with the full list instead of a delta.
+ */
+@Component
+public class FavoriteChangeLog {
+
+    private static final Logger log = LoggerFactory.getLogger(FavoriteChangeLog.class);
+
+    private static final String BUMP_VERSION_SQL = "UPDATE users SET favorites_version = favorites_version + 1 WHERE id = ?";
+    private static final String READ_VERSION_SQL = "SELECT favorites_version FROM users WHERE id = ?";
+    private static final String INSERT_CHANGE_SQL =
+            "INSERT INTO favorite_changes (user_id, track_id, version, added, changed_at) VALUES (?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final FavoriteChangeRepository favoriteChangeRepository;
+    private final ScheduledExecutorService pruner = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "favorite-change-prune");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Value("${musicplayer.favorites.changes.retention-days:30}")
+    private long retentionDays;
+
+    public FavoriteChangeLog(JdbcTemplate jdbcTemplate, FavoriteChangeRepository favoriteChangeRepository) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.favoriteChangeRepository = favoriteChangeRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        pruner.scheduleWithFixedDelay(this::pruneQuietly, 1, 60, TimeUnit.MINUTES);
+    }
+
+    @PreDestroy
+    public void stop() {
+        pruner.shutdownNow();
+    }
+
+    // Called inside the flush transaction with only the rows it actually inserted or deleted
+    void record(Map<Long, Map<Long, Boolean>> favoritesByUser) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>();
+        favoritesByUser.forEach((userId, tracks) -> {
+            jdbcTemplate.update(BUMP_VERSION_SQL, userId);
+            Long version = jdbcTemplate.queryForObject(READ_VERSION_SQL, Long.class, userId);
+            tracks.forEach((trackId, added) -> rows.add(new Object[]{userId, trackId, version, added, now}));
+        });
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_CHANGE_SQL, rows);
+        }
+    }
+
+    /**
+     * Net changes after {@code since}: the latest entry per track wins, so a track added and
+     * removed again in between only shows up as removed. Returns null when the log can no
+     * longer answer (pruned past {@code since}, or a version this server never issued) and
+     * the caller has to send the full list. {@code currentVersion} must be read first.
+     */
+    public FavoriteChangesResponse changesSince(Long userId, long since, long currentVersion) {
+        if (since == currentVersion) {
+            return new FavoriteChangesResponse(currentVersion, false, List.of(), List.of());
+        }
+        if (since > currentVersion) {
+            return null;
+        }
+        List<FavoriteChangeRow> rows = favoriteChangeRepository.findChangesAfter(userId, since);
+        if (rows.isEmpty() || rows.get(0).getVersion() > since + 1) {
+            return null;
+        }
+
+        Map<Long, FavoriteChangeRow> latest = new LinkedHashMap<>();
+        long version = currentVersion;
+        for (FavoriteChangeRow row : rows) {
+            latest.remove(row.getTrackId()); // keep the map in order of each track's last change
+            latest.put(row.getTrackId(), row);
+            version = Math.max(version, row.getVersion());
+        }
+        List<TrackDTO> added = new ArrayList<>();
+        List<Long> removed = new ArrayList<>();
+        for (FavoriteChangeRow row : latest.values()) {
+            if (row.isAdded() && row.getTitle() != null) {
+                added.add(row.toTrack());
+            } else {
+                removed.add(row.getTrackId()); // removed, or added but the track is gone
+            }
+        }
+        return new FavoriteChangesResponse(version, false, added, removed);
+    }
+
+    private void pruneQuietly() {
+        try {
+            int deleted = favoriteChangeRepository.deleteOlderThan(LocalDateTime.now().minusDays(retentionDays));
+            if (deleted > 0) {
+                log.info("Pruned {} favorite changes", deleted);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Prune failed: {}", e.getMessage());
+        }
+    }
+}
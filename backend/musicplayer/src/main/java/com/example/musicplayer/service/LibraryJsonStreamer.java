@@ -0,0 +1,278 @@
+package com.example.musicplayer.service;
+
+import com.example.musicplayer.cache.CacheRegion;
+import com.example.musicplayer.cache.LibraryCache;
+import com.example.musicplayer.dto.PlaylistDTO;
+import com.example.musicplayer.dto.TrackDTO;
+import com.example.musicplayer.security.AuthenticatedUser;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes favorites and playlists straight from a JDBC cursor into a JsonGenerator, so a
+ * response never holds more than one row and one flush window in memory. With
+ * useCursorFetch=true on the MySQL URL the driver pulls fetch-size rows at a time instead
+ * of buffering the whole result set. The JSON shapes match TrackDTO, PlaylistDTO and
+ * UserProfileResponse. Per-user lists are served from {@link LibraryCache} when present,
+ * and small ones are cached as they stream. Streaming runs outside any transaction, so with
+ * replicas configured these reads always go to the primary.
+ */
+@Component
+public class LibraryJsonStreamer {
+
+    private static final String FAVORITES_SQL =
+            "SELECT t.id, t.title, t.artist, t.cover, t.url FROM user_favorites f JOIN Track t ON t.id = f.track_id " +
+            "WHERE f.user_id = ?";
+    private static final String PLAYLISTS_SQL =
+            "SELECT p.id, p.name, t.id, t.title, t.artist, t.cover, t.url FROM playlists p " +
+            "LEFT JOIN playlist_entries e ON e.playlist_id = p.id LEFT JOIN Track t ON t.id = e.track_id ";
+    private static final String USER_PLAYLISTS_SQL = PLAYLISTS_SQL + "WHERE p.user_id = ? ORDER BY p.id, e.position, e.id";
+    private static final String ALL_PLAYLISTS_SQL = PLAYLISTS_SQL + "ORDER BY p.id, e.position, e.id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final MutationWriteBuffer mutationWriteBuffer;
+    private final LibraryCache libraryCache;
+    private final int flushSize;
+    private final int cacheableItems;
+
+    public LibraryJsonStreamer(DataSource dataSource,
+                               ObjectMapper objectMapper,
+                               MutationWriteBuffer mutationWriteBuffer,
+                               LibraryCache libraryCache,
+                               @Value("${musicplayer.streaming.fetch-size:500}") int fetchSize,
+                               @Value("${musicplayer.streaming.flush-size:256}") int flushSize,
+                               @Value("${musicplayer.cache.stream-cacheable-items:2000}") int cacheableItems) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.objectMapper = objectMapper;
+        this.mutationWriteBuffer = mutationWriteBuffer;
+        this.libraryCache = libraryCache;
+        this.flushSize = flushSize;
+        this.cacheableItems = cacheableItems;
+    }
+
+    // Pending write-behind changes are flushed now, before the response is committed
+    public StreamingResponseBody favorites(Long userId) {
+        mutationWriteBuffer.flushUser(userId);
+        return out -> write(out, generator -> writeFavorites(generator, userId));
+    }
+
+    public StreamingResponseBody playlists(Long userId) {
+        mutationWriteBuffer.flushUser(userId);
+        return out -> write(out, generator -> writeUserPlaylists(generator, userId));
+    }
+
+    public StreamingResponseBody allPlaylists() {
+        return out -> write(out, generator -> writePlaylists(generator, null, ALL_PLAYLISTS_SQL));
+    }
+
+    public StreamingResponseBody profile(AuthenticatedUser user) {
+        mutationWriteBuffer.flushUser(user.getId());
+        return out -> write(out, generator -> {
+            generator.writeStartObject();
+            generator.writeStringField("name", user.getDisplayName());
+            generator.writeStringField("email", user.getEmail());
+            generator.writeFieldName("joinedAt");
+            generator.writeObject(user.getJoinedAt());
+            generator.writeFieldName("favorites");
+            writeFavorites(generator, user.getId());
+            generator.writeFieldName("playlists");
+            writeUserPlaylists(generator, user.getId());
+            generator.writeEndObject();
+        });
+    }
+
+    // A cached list is written as is; otherwise rows stream from the cursor and, if the
+    // result turns out small enough and nothing invalidated it meanwhile, are kept for the cache
+    private void writeFavorites(JsonGenerator generator, Long userId) throws IOException {
+        List<TrackDTO> cached = libraryCache.getIfPresent(CacheRegion.USER_FAVORITES, userId);
+        generator.writeStartArray();
+        if (cached != null) {
+            for (TrackDTO track : cached) {
+                writeTrack(generator, track);
+            }
+        } else {
+            long generation = libraryCache.generation(CacheRegion.USER_FAVORITES);
+            BoundedCollector<TrackDTO> collected = new BoundedCollector<>(cacheableItems);
+            int[] written = {0};
+            query(FAVORITES_SQL, rs -> {
+                TrackDTO track = readTrack(rs, 1);
+                writeTrack(generator, track);
+                collected.add(track);
+                flushEvery(generator, ++written[0]);
+            }, userId);
+            if (collected.fits()) {
+                libraryCache.put(CacheRegion.USER_FAVORITES, userId, collected.toList(), generation);
+            }
+        }
+        generator.writeEndArray();
+    }
+
+    private void writeUserPlaylists(JsonGenerator generator, Long userId) throws IOException {
+        List<PlaylistDTO> cached = libraryCache.getIfPresent(CacheRegion.USER_PLAYLISTS, userId);
+        if (cached != null) {
+            generator.writeStartArray();
+            for (PlaylistDTO playlist : cached) {
+                generator.writeStartObject();
+                generator.writeNumberField("id", playlist.getId());
+                generator.writeStringField("name", playlist.getName());
+                generator.writeArrayFieldStart("tracks");
+                for (TrackDTO track : playlist.getTracks()) {
+                    writeTrack(generator, track);
+                }
+                generator.writeEndArray();
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+            return;
+        }
+        long generation = libraryCache.generation(CacheRegion.USER_PLAYLISTS);
+        BoundedCollector<PlaylistDTO> collected = new BoundedCollector<>(cacheableItems);
+        writePlaylists(generator, collected, USER_PLAYLISTS_SQL, userId);
+        if (collected.fits()) {
+            libraryCache.put(CacheRegion.USER_PLAYLISTS, userId, collected.toList(), generation);
+        }
+    }
+
+    // Rows arrive ordered by playlist, so a change of playlist id closes the previous object
+    private void writePlaylists(JsonGenerator generator, BoundedCollector<PlaylistDTO> collected, String sql,
+                                Object... args) throws IOException {
+        generator.writeStartArray();
+        long[] current = {-1};
+        int[] written = {0};
+        PlaylistDTO[] building = {null};
+        query(sql, rs -> {
+            long playlistId = rs.getLong(1);
+            if (playlistId != current[0]) {
+                if (current[0] != -1) {
+                    generator.writeEndArray();
+                    generator.writeEndObject();
+                }
+                current[0] = playlistId;
+                generator.writeStartObject();
+                generator.writeNumberField("id", playlistId);
+                generator.writeStringField("name", rs.getString(2));
+                generator.writeArrayFieldStart("tracks");
+                PlaylistDTO playlist = new PlaylistDTO(playlistId, rs.getString(2), new ArrayList<>());
+                building[0] = collected != null && collected.add(playlist) ? playlist : null;
+            }
+            rs.getLong(3);
+            if (!rs.wasNull()) {
+                TrackDTO track = readTrack(rs, 3);
+                writeTrack(generator, track);
+                if (building[0] != null && collected.count()) {
+                    building[0].getTracks().add(track);
+                }
+            }
+            flushEvery(generator, ++written[0]);
+        }, args);
+        if (current[0] != -1) {
+            generator.writeEndArray();
+            generator.writeEndObject();
+        }
+        generator.writeEndArray();
+    }
+
+    private TrackDTO readTrack(ResultSet rs, int column) throws SQLException {
+        return new TrackDTO(rs.getLong(column), rs.getString(column + 1), rs.getString(column + 2),
+                rs.getString(column + 3), rs.getString(column + 4));
+    }
+
+    private void writeTrack(JsonGenerator generator, TrackDTO track) throws IOException {
+        generator.writeStartObject();
+        generator.writeNumberField("id", track.getId());
+        generator.writeStringField("title", track.getTitle());
+        generator.writeStringField("artist", track.getArtist());
+        generator.writeStringField("cover", track.getCover());
+        generator.writeStringField("url", track.getUrl());
+        generator.writeEndObject();
+    }
+
+    private void flushEvery(JsonGenerator generator, int written) throws IOException {
+        if (written % flushSize == 0) {
+            generator.flush();
+        }
+    }
+
+    private void query(String sql, RowWriter writer, Object... args) {
+        jdbcTemplate.query(sql, rs -> {
+            try {
+                writer.write(rs);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e); // client went away; stops the cursor early
+            }
+        }, args);
+    }
+
+    private void write(OutputStream out, JsonWriter body) throws IOException {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+            body.write(generator);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    // Keeps what streamed past for the cache, until more than limit items have gone by
+    private static final class BoundedCollector<T> {
+        private final int limit;
+        private List<T> items = new ArrayList<>();
+        private int seen;
+
+        private BoundedCollector(int limit) {
+            this.limit = limit;
+        }
+
+        boolean add(T item) {
+            if (!count()) {
+                return false;
+            }
+            items.add(item);
+            return true;
+        }
+
+        // Counts an item that is stored inside an earlier one
+        boolean count() {
+            if (items == null) {
+                return false;
+            }
+            if (++seen > limit) {
+                items = null;
+                return false;
+            }
+            return true;
+        }
+
+        boolean fits() {
+            return items != null;
+        }
+
+        List<T> toList() {
+            return List.copyOf(items);
+        }
+    }
+
+    @FunctionalInterface
+    private interface RowWriter {
+        void write(ResultSet rs) throws SQLException, IOException;
+    }
+
+    @FunctionalInterface
+    private interface JsonWriter {
+        void write(JsonGenerator generator) throws IOException;
+    }
+}
@@ -0,0 +1,305 @@
+package com.example.musicplayer.service;
+
+import com.example.musicplayer.cache.CacheRegion;
+import com.example.musicplayer.charts.TrendingCharts;
+import com.example.musicplayer.datasource.ReadYourWritesTracker;
+import com.example.musicplayer.cache.LibraryCache;
+import com.example.musicplayer.model.PlaylistEntry;
+import com.example.musicplayer.recommend.RecommendationEngine;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind buffer for favorite and playlist mutations.
+ * A heart click only records the desired state for (user, track) in memory; repeated clicks
+ * inside one window coalesce to the last state, and a background flush writes everything
+ * pending as JDBC batches against user_favorites and playlist_entries.
+ * Per-user pending maps are only touched inside ConcurrentHashMap#compute, so a flush can
+ * take a user's whole map with a single remove. Reads call {@link #flushUser} first, which
+ * also waits out an in-flight batch holding that user's rows, so a user always sees their
+ * own writes. Flushes are serialized per user (striped locks), not globally, and callers
+ * flush before opening their own transaction: a flush never waits on a lock while its
+ * caller sits on a pooled connection.
+ */
+@Component
+public class MutationWriteBuffer {
+
+    private static final Logger log = LoggerFactory.getLogger(MutationWriteBuffer.class);
+
+    private static final int FLUSH_LOCK_STRIPES = 64;
+
+    // INSERT ... SELECT rather than VALUES: the driver never rewrites it into one multi-row insert, so the
+    // batch reports a count per row (0 for a duplicate or an unknown track) instead of SUCCESS_NO_INFO
+    private static final String INSERT_FAVORITE_SQL = "INSERT IGNORE INTO user_favorites (user_id, track_id) " +
+            "SELECT ?, id FROM Track WHERE id = ?";
+    private static final String DELETE_FAVORITE_SQL = "DELETE FROM user_favorites WHERE user_id = ? AND track_id = ?";
+    // Appends go after the current last entry; (playlist_id, position) is indexed, so MAX is a single seek
+    private static final String APPEND_PLAYLIST_SQL = "INSERT IGNORE INTO playlist_entries (playlist_id, track_id, position) " +
+            "SELECT ?, ?, COALESCE(MAX(position), 0) + " + PlaylistEntry.GAP + " FROM playlist_entries WHERE playlist_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final FavoriteChangeLog favoriteChangeLog;
+    private final LibraryCache libraryCache;
+    private final RecommendationEngine recommendationEngine;
+    private final TrendingCharts trendingCharts;
+    private final ReadYourWritesTracker readYourWrites;
+    private final long flushIntervalMillis;
+
+    // userId -> (trackId -> should be a favorite)
+    private final ConcurrentHashMap<Long, Map<Long, Boolean>> pendingFavorites = new ConcurrentHashMap<>();
+    // userId -> [playlistId, trackId] appends in click order
+    private final ConcurrentHashMap<Long, List<Long[]>> pendingAppends = new ConcurrentHashMap<>();
+    // Locks rather than synchronized: flushes block on JDBC, which would pin a virtual thread
+    private final ReentrantLock[] flushLocks = new ReentrantLock[FLUSH_LOCK_STRIPES];
+    // Users whose drained rows are being written right now; added before their pending rows are removed
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "mutation-write-behind");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public MutationWriteBuffer(JdbcTemplate jdbcTemplate,
+                               PlatformTransactionManager transactionManager,
+                               FavoriteChangeLog favoriteChangeLog,
+                               LibraryCache libraryCache,
+                               RecommendationEngine recommendationEngine,
+                               TrendingCharts trendingCharts,
+                               ReadYourWritesTracker readYourWrites,
+                               @Value("${musicplayer.write-behind.flush-interval-ms:200}") long flushIntervalMillis) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // Never joins a caller's transaction (a read-only one would reject the DML); callers flush before opening one
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.favoriteChangeLog = favoriteChangeLog;
+        this.libraryCache = libraryCache;
+        this.recommendationEngine = recommendationEngine;
+        this.trendingCharts = trendingCharts;
+        this.readYourWrites = readYourWrites;
+        this.flushIntervalMillis = flushIntervalMillis;
+        for (int i = 0; i < flushLocks.length; i++) {
+            flushLocks[i] = new ReentrantLock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        flusher.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        flusher.shutdown();
+        flush(); // nothing buffered is lost on a clean shutdown
+    }
+
+    public void setFavorite(Long userId, Long trackId, boolean favorite) {
+        pendingFavorites.compute(userId, (id, tracks) -> {
+            Map<Long, Boolean> map = tracks == null ? new HashMap<>() : tracks;
+            map.put(trackId, favorite);
+            return map;
+        });
+    }
+
+    // The buffered state for (user, track), or null when nothing is pending
+    public Boolean pendingFavorite(Long userId, Long trackId) {
+        Boolean[] state = new Boolean[1];
+        pendingFavorites.computeIfPresent(userId, (id, tracks) -> {
+            state[0] = tracks.get(trackId);
+            return tracks;
+        });
+        return state[0];
+    }
+
+    public void appendToPlaylist(Long userId, Long playlistId, Long trackId) {
+        pendingAppends.compute(userId, (id, appends) -> {
+            List<Long[]> list = appends == null ? new ArrayList<>() : appends;
+            list.add(new Long[]{playlistId, trackId});
+            return list;
+        });
+    }
+
+    // Call before opening a transaction. Returns at once when nothing is buffered or in flight for the user.
+    public void flushUser(Long userId) {
+        // Pending is checked before in-flight: a batch marks a user in flight before taking their rows
+        if (!pendingFavorites.containsKey(userId) && !pendingAppends.containsKey(userId) && !inFlight.contains(userId)) {
+            return;
+        }
+        ReentrantLock lock = flushLock(userId);
+        lock.lock();
+        try {
+            Batch batch = new Batch();
+            try {
+                batch.drain(userId);
+                batch.write();
+            } finally {
+                batch.release();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // One batch for every pending user; stripes are locked in index order so concurrent flushes can't deadlock
+    public void flush() {
+        TreeMap<Integer, List<Long>> usersByStripe = new TreeMap<>();
+        Set<Long> users = new HashSet<>(pendingFavorites.keySet());
+        users.addAll(pendingAppends.keySet());
+        for (Long userId : users) {
+            usersByStripe.computeIfAbsent(stripe(userId), stripe -> new ArrayList<>()).add(userId);
+        }
+        List<ReentrantLock> held = new ArrayList<>();
+        try {
+            for (Integer stripe : usersByStripe.keySet()) {
+                flushLocks[stripe].lock();
+                held.add(flushLocks[stripe]);
+            }
+            Batch batch = new Batch();
+            try {
+                users.forEach(batch::drain);
+                batch.write();
+            } finally {
+                batch.release();
+            }
+        } finally {
+            held.forEach(ReentrantLock::unlock);
+        }
+    }
+
+    private ReentrantLock flushLock(Long userId) {
+        return flushLocks[stripe(userId)];
+    }
+
+    private static int stripe(Long userId) {
+        return Math.floorMod(userId.hashCode(), FLUSH_LOCK_STRIPES);
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.warn("Flush failed, will retry: {}", e.getMessage());
+        }
+    }
+
+    private final class Batch {
+        private final Map<Long, Map<Long, Boolean>> favorites = new HashMap<>();
+        private final Map<Long, List<Long[]>> appends = new HashMap<>();
+        private final List<Long> users = new ArrayList<>();
+
+        void drain(Long userId) {
+            inFlight.add(userId);
+            users.add(userId);
+            Map<Long, Boolean> userFavorites = pendingFavorites.remove(userId);
+            if (userFavorites != null) {
+                favorites.put(userId, userFavorites);
+            }
+            List<Long[]> userAppends = pendingAppends.remove(userId);
+            if (userAppends != null) {
+                appends.put(userId, userAppends);
+            }
+        }
+
+        void write() {
+            if (favorites.isEmpty() && appends.isEmpty()) {
+                return;
+            }
+            List<Object[]> inserts = new ArrayList<>();
+            List<Object[]> deletes = new ArrayList<>();
+            favorites.forEach((userId, tracks) -> tracks.forEach((trackId, favorite) ->
+                    (favorite ? inserts : deletes).add(new Object[]{userId, trackId})));
+            List<Object[]> playlistRows = new ArrayList<>();
+            appends.values().forEach(list -> list.forEach(append -> playlistRows.add(new Object[]{append[0], append[1], append[0]})));
+
+            Map<Long, Map<Long, Boolean>> changed;
+            try {
+                // One transaction, so the favorites rows and their change-log versions commit together
+                changed = transactionTemplate.execute(status -> {
+                    Map<Long, Map<Long, Boolean>> applied = new HashMap<>();
+                    // INSERT IGNORE keeps a duplicate from failing the whole batch; unknown tracks insert nothing
+                    if (!deletes.isEmpty()) {
+                        collectChanged(deletes, jdbcTemplate.batchUpdate(DELETE_FAVORITE_SQL, deletes), false, applied);
+                    }
+                    if (!inserts.isEmpty()) {
+                        collectChanged(inserts, jdbcTemplate.batchUpdate(INSERT_FAVORITE_SQL, inserts), true, applied);
+                    }
+                    // Only real changes bump the version: a re-add of a favorite must leave the ETag alone
+                    if (!applied.isEmpty()) {
+                        favoriteChangeLog.record(applied);
+                    }
+                    if (!playlistRows.isEmpty()) {
+                        jdbcTemplate.batchUpdate(APPEND_PLAYLIST_SQL, playlistRows);
+                    }
+                    return applied;
+                });
+            } catch (RuntimeException e) {
+                requeue();
+                throw e;
+            }
+            // Background flushes have no request thread to mark, so the owners are marked here
+            readYourWrites.markWritten(favorites.keySet());
+            readYourWrites.markWritten(appends.keySet());
+            favorites.keySet().forEach(userId -> libraryCache.invalidate(CacheRegion.USER_FAVORITES, userId));
+            if (!changed.isEmpty()) {
+                recommendationEngine.onFavoritesChanged(changed);
+                // Only rows this flush really inserted, so re-adding a favorite can't pump the charts
+                trendingCharts.onFavoritesChanged(changed);
+            }
+            appends.keySet().forEach(userId -> libraryCache.invalidate(CacheRegion.USER_PLAYLISTS, userId));
+        }
+
+        // SUCCESS_NO_INFO counts as a change: an extra version bump is harmless, a lost delta is not
+        private void collectChanged(List<Object[]> rows, int[] counts, boolean added, Map<Long, Map<Long, Boolean>> applied) {
+            for (int i = 0; i < rows.size(); i++) {
+                if (counts[i] > 0 || counts[i] == Statement.SUCCESS_NO_INFO) {
+                    Object[] row = rows.get(i);
+                    applied.computeIfAbsent((Long) row[0], id -> new HashMap<>()).put((Long) row[1], added);
+                }
+            }
+        }
+
+        void release() {
+            users.forEach(inFlight::remove);
+        }
+
+        // Put drained work back without overwriting anything newer that arrived meanwhile
+        private void requeue() {
+            favorites.forEach((userId, tracks) -> pendingFavorites.compute(userId, (id, current) -> {
+                Map<Long, Boolean> map = current == null ? new HashMap<>() : current;
+                tracks.forEach(map::putIfAbsent);
+                return map;
+            }));
+            appends.forEach((userId, list) -> pendingAppends.compute(userId, (id, current) -> {
+                List<Long[]> merged = new ArrayList<>(list);
+                if (current != null) {
+                    merged.addAll(current);
+                }
+                return merged;
+            }));
+        }
+    }
+}
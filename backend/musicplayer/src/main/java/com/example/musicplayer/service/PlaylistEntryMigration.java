@@ -0,0 +1,55 @@
+package com.example.musicplayer.service;
+
+import com.example.musicplayer.model.PlaylistEntry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.BadSqlGrammarException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * One-time copy of the old unordered playlist_tracks join table into playlist_entries.
+ * Runs only while playlist_entries is empty; the legacy table is left in place.
+ */
+@Component
+public class PlaylistEntryMigration {
+
+    private static final Logger log = LoggerFactory.getLogger(PlaylistEntryMigration.class);
+
+    private static final String COPY_SQL = "INSERT INTO playlist_entries (playlist_id, track_id, position) " +
+            "SELECT playlist_id, track_id, ROW_NUMBER() OVER (PARTITION BY playlist_id ORDER BY track_id) * " + PlaylistEntry.GAP +
+            " FROM playlist_tracks";
+
+    // SQLSTATE for "base table or view not found", on MySQL and H2 alike
+    private static final String TABLE_NOT_FOUND = "42S02";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public PlaylistEntryMigration(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrate() {
+        if (!jdbcTemplate.queryForList("SELECT id FROM playlist_entries LIMIT 1").isEmpty()) {
+            return;
+        }
+        try {
+            int copied = jdbcTemplate.update(COPY_SQL);
+            if (copied > 0) {
+                log.info("Copied {} rows from playlist_tracks", copied);
+            }
+        } catch (BadSqlGrammarException e) {
+            if (TABLE_NOT_FOUND.equals(e.getSQLException().getSQLState())) {
+                // Fresh schema: there is no legacy table to copy from
+                return;
+            }
+            log.error("Could not copy playlist_tracks into playlist_entries", e);
+        } catch (DataAccessException e) {
+            log.error("Could not copy playlist_tracks into playlist_entries", e);
+        }
+    }
+}
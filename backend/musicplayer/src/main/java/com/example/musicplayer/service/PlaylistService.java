@@ -0,0 +1,253 @@
+package com.example.musicplayer.service;
+
+import com.example.musicplayer.cache.CacheRegion;
+import com.example.musicplayer.cache.LibraryCache;
+import com.example.musicplayer.dto.PlaylistEntryDTO;
+import com.example.musicplayer.dto.PlaylistEntryPage;
+import com.example.musicplayer.model.Playlist;
+import com.example.musicplayer.model.PlaylistEntry;
+import com.example.musicplayer.model.Track;
+import com.example.musicplayer.repository.PlaylistEntryRepository;
+import com.example.musicplayer.repository.PlaylistRepository;
+import com.example.musicplayer.repository.TrackRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Positional edits on playlists. Each insert, move or remove writes exactly one
+ * playlist_entries row. Edits anchored before or after an existing entry find their other
+ * neighbour with one keyset seek on the (playlist_id, position) index, O(log n) however long
+ * the playlist is. Index-based edits are kept as a convenience: resolving a list index walks
+ * the index up to it, so they cost more the further down the list they land.
+ * See {@link PlaylistEntry} for the position scheme.
+ */
+@Service
+public class PlaylistService {
+
+    private static final Logger log = LoggerFactory.getLogger(PlaylistService.class);
+
+    private static final String CURSOR_PREFIX = "e:";
+    private static final String RENUMBER_SQL = "UPDATE playlist_entries SET position = ? WHERE id = ?";
+
+    @Autowired
+    private PlaylistRepository playlistRepository;
+
+    @Autowired
+    private PlaylistEntryRepository playlistEntryRepository;
+
+    @Autowired
+    private TrackRepository trackRepository;
+
+    @Autowired
+    private TrackService trackService;
+
+    @Autowired
+    private MutationWriteBuffer mutationWriteBuffer;
+
+    @Autowired
+    private LibraryCache libraryCache;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${musicplayer.tracks.page-size:50}")
+    private int defaultPageSize;
+
+    @Value("${musicplayer.tracks.max-page-size:500}")
+    private int maxPageSize;
+
+    public PlaylistEntryPage getEntries(Long userId, Long playlistId, String cursor, Integer size) {
+        int pageSize = size == null ? defaultPageSize : Math.min(Math.max(size, 1), maxPageSize);
+        long[] after = cursor == null || cursor.isBlank() ? new long[]{Long.MIN_VALUE, 0} : decodeCursor(cursor);
+        return flushedTransaction(userId, true).execute(status -> {
+            ownedPlaylist(userId, playlistId);
+            List<PlaylistEntryDTO> rows = playlistEntryRepository.findPageAfter(playlistId, after[0], after[1],
+                    PageRequest.of(0, pageSize + 1));
+            if (rows.size() <= pageSize) {
+                return new PlaylistEntryPage(rows, null);
+            }
+            List<PlaylistEntryDTO> items = rows.subList(0, pageSize);
+            PlaylistEntryDTO last = items.get(pageSize - 1);
+            return new PlaylistEntryPage(items, encodeCursor(last.getPosition(), last.getEntryId()));
+        });
+    }
+
+    // index null or past the end appends
+    public PlaylistEntryDTO insertAt(Long userId, Long playlistId, Long trackId, Integer index) {
+        Track track = trackService.getTrack(trackId); // cached; the entry only needs a reference
+        return flushedTransaction(userId, false).execute(status -> {
+            Playlist playlist = ownedPlaylist(userId, playlistId);
+            long position = positionAt(playlistId, index, -1L);
+            PlaylistEntry entry = playlistEntryRepository.save(
+                    new PlaylistEntry(playlist, trackRepository.getReferenceById(trackId), position));
+            libraryCache.invalidateAfterCommit(CacheRegion.USER_PLAYLISTS, userId);
+            return new PlaylistEntryDTO(entry.getId(), position, track.getId(), track.getTitle(), track.getArtist(),
+                    track.getCover(), track.getUrl());
+        });
+    }
+
+    // Inserts right after (or before) the anchor entry
+    public PlaylistEntryDTO insertNextTo(Long userId, Long playlistId, Long trackId, Long anchorId, boolean after) {
+        Track track = trackService.getTrack(trackId);
+        return flushedTransaction(userId, false).execute(status -> {
+            Playlist playlist = ownedPlaylist(userId, playlistId);
+            long position = positionNextTo(playlistId, anchorId, after, -1L);
+            PlaylistEntry entry = playlistEntryRepository.save(
+                    new PlaylistEntry(playlist, trackRepository.getReferenceById(trackId), position));
+            libraryCache.invalidateAfterCommit(CacheRegion.USER_PLAYLISTS, userId);
+            return new PlaylistEntryDTO(entry.getId(), position, track.getId(), track.getTitle(), track.getArtist(),
+                    track.getCover(), track.getUrl());
+        });
+    }
+
+    public void moveNextTo(Long userId, Long playlistId, Long entryId, Long anchorId, boolean after) {
+        if (entryId.equals(anchorId)) {
+            throw new RuntimeException("An entry cannot be moved next to itself");
+        }
+        flushedTransaction(userId, false).executeWithoutResult(status -> {
+            ownedPlaylist(userId, playlistId);
+            PlaylistEntry entry = playlistEntryRepository.findByIdAndPlaylistId(entryId, playlistId)
+                    .orElseThrow(() -> new RuntimeException("Playlist entry not found with ID: " + entryId));
+            entry.setPosition(positionNextTo(playlistId, anchorId, after, entryId));
+            libraryCache.invalidateAfterCommit(CacheRegion.USER_PLAYLISTS, userId);
+        });
+    }
+
+    // index is where the entry ends up, counted without the entry itself
+    public void move(Long userId, Long playlistId, Long entryId, int index) {
+        flushedTransaction(userId, false).executeWithoutResult(status -> {
+            ownedPlaylist(userId, playlistId);
+            PlaylistEntry entry = playlistEntryRepository.findByIdAndPlaylistId(entryId, playlistId)
+                    .orElseThrow(() -> new RuntimeException("Playlist entry not found with ID: " + entryId));
+            entry.setPosition(positionAt(playlistId, index, entryId));
+            libraryCache.invalidateAfterCommit(CacheRegion.USER_PLAYLISTS, userId);
+        });
+    }
+
+    public void remove(Long userId, Long playlistId, Long entryId) {
+        flushedTransaction(userId, false).executeWithoutResult(status -> {
+            ownedPlaylist(userId, playlistId);
+            if (playlistEntryRepository.deleteByIdAndPlaylistId(entryId, playlistId) == 0) {
+                throw new RuntimeException("Playlist entry not found with ID: " + entryId);
+            }
+            libraryCache.invalidateAfterCommit(CacheRegion.USER_PLAYLISTS, userId);
+        });
+    }
+
+    // Pending write-behind appends land first so indexes match what the user sees. The flush runs
+    // before the transaction opens, so it never waits while this request holds a pooled connection.
+    private TransactionTemplate flushedTransaction(Long userId, boolean readOnly) {
+        mutationWriteBuffer.flushUser(userId);
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(readOnly);
+        return transaction;
+    }
+
+    private Playlist ownedPlaylist(Long userId, Long playlistId) {
+        Playlist playlist = playlistRepository.findById(playlistId)
+                .orElseThrow(() -> new RuntimeException("Playlist not found with ID: " + playlistId));
+        if (playlist.getUser() == null || !playlist.getUser().getId().equals(userId)) {
+            throw new RuntimeException("Playlist not found with ID: " + playlistId);
+        }
+        return playlist;
+    }
+
+    private long positionAt(Long playlistId, Integer index, long excludeId) {
+        if (index == null) {
+            return append(playlistId);
+        }
+        if (index <= 0) {
+            // Room before the head is unbounded, so the front never needs renumbering
+            List<Long> first = playlistEntryRepository.findPositions(playlistId, excludeId, 0, 1);
+            return first.isEmpty() ? PlaylistEntry.GAP : first.get(0) - PlaylistEntry.GAP;
+        }
+        List<Long> around = playlistEntryRepository.findPositions(playlistId, excludeId, index - 1, 2);
+        if (around.isEmpty()) {
+            return append(playlistId);
+        }
+        long previous = around.get(0);
+        if (around.size() == 1) {
+            return previous + PlaylistEntry.GAP;
+        }
+        long next = around.get(1);
+        if (next - previous < 2) {
+            renumber(playlistId);
+            return positionAt(playlistId, index, excludeId);
+        }
+        return previous + (next - previous) / 2;
+    }
+
+    private long positionNextTo(Long playlistId, Long anchorId, boolean after, long excludeId) {
+        long anchor = playlistEntryRepository.findPosition(anchorId, playlistId)
+                .orElseThrow(() -> new RuntimeException("Playlist entry not found with ID: " + anchorId));
+        if (after) {
+            Long next = playlistEntryRepository.findPositionAfter(playlistId, anchor, anchorId, excludeId).orElse(null);
+            if (next == null) {
+                return anchor + PlaylistEntry.GAP;
+            }
+            if (next - anchor < 2) {
+                renumber(playlistId);
+                return positionNextTo(playlistId, anchorId, true, excludeId);
+            }
+            return anchor + (next - anchor) / 2;
+        }
+        Long previous = playlistEntryRepository.findPositionBefore(playlistId, anchor, anchorId, excludeId).orElse(null);
+        if (previous == null) {
+            return anchor - PlaylistEntry.GAP;
+        }
+        if (anchor - previous < 2) {
+            renumber(playlistId);
+            return positionNextTo(playlistId, anchorId, false, excludeId);
+        }
+        return previous + (anchor - previous) / 2;
+    }
+
+    private long append(Long playlistId) {
+        Long max = playlistEntryRepository.findMaxPosition(playlistId);
+        return max == null ? PlaylistEntry.GAP : max + PlaylistEntry.GAP;
+    }
+
+    // Only reached after ~16 midpoint inserts into the same gap; spreads the playlist out again
+    private void renumber(Long playlistId) {
+        List<Long> ids = playlistEntryRepository.findIdsInOrder(playlistId);
+        List<Object[]> updates = new ArrayList<>(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            updates.add(new Object[]{(i + 1) * PlaylistEntry.GAP, ids.get(i)});
+        }
+        jdbcTemplate.batchUpdate(RENUMBER_SQL, updates);
+        log.info("Renumbered playlist {} ({} entries)", playlistId, ids.size());
+    }
+
+    private String encodeCursor(long position, Long entryId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((CURSOR_PREFIX + position + ":" + entryId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private long[] decodeCursor(String cursor) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!decoded.startsWith(CURSOR_PREFIX)) {
+                throw new IllegalArgumentException();
+            }
+            String[] parts = decoded.substring(CURSOR_PREFIX.length()).split(":");
+            return new long[]{Long.parseLong(parts[0]), Long.parseLong(parts[1])};
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            throw new RuntimeException("Invalid cursor: " + cursor);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.musicplayer.service;
+
+import com.example.musicplayer.cache.CacheRegion;
+import com.example.musicplayer.cache.LibraryCache;
+import com.example.musicplayer.dto.TrackDTO;
+import com.example.musicplayer.dto.TrackPage;
+import com.example.musicplayer.model.Track;
+import com.example.musicplayer.repository.TrackRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+@Service
+public class TrackService {
+
+    private static final String CURSOR_PREFIX = "t:";
+
+    @Autowired
+    private TrackRepository trackRepository;
+
+    @Autowired
+    private LibraryCache libraryCache;
+
+    @Value("${musicplayer.tracks.page-size:50}")
+    private int defaultPageSize;
+
+    @Value("${musicplayer.tracks.max-page-size:500}")
+    private int maxPageSize;
+
+    public Track getTrack(Long id) {
+        Track track = libraryCache.get(CacheRegion.TRACK, id, () -> trackRepository.findById(id).orElse(null));
+        if (track == null) {
+            throw new RuntimeException("Track not found with ID: " + id);
+        }
+        return track;
+    }
+
+    // Straight from the table: the cached Track is not refreshed as plays are counted
+    public long getPlayCount(Long id) {
+        Long plays = trackRepository.findPlayCount(id);
+        if (plays == null) {
+            throw new RuntimeException("Track not found with ID: " + id);
+        }
+        return plays;
+    }
+
+    // Cached lookups in the given order; ids that no longer exist are skipped
+    public List<TrackDTO> findTracks(long[] ids) {
+        List<TrackDTO> tracks = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            Track track = libraryCache.get(CacheRegion.TRACK, id, () -> trackRepository.findById(id).orElse(null));
+            if (track != null) {
+                tracks.add(new TrackDTO(track.getId(), track.getTitle(), track.getArtist(), track.getCover(), track.getUrl()));
+            }
+        }
+        return tracks;
+    }
+
+    // Pages are cached briefly by (cursor, size); catalog writes drop the whole region
+    public TrackPage getTracks(String cursor, Integer size) {
+        int pageSize = size == null ? defaultPageSize : Math.min(Math.max(size, 1), maxPageSize);
+        String key = (cursor == null ? "" : cursor) + "|" + pageSize;
+        return libraryCache.get(CacheRegion.TRACK_PAGE, key, () -> loadPage(cursor, pageSize));
+    }
+
+    private TrackPage loadPage(String cursor, int pageSize) {
+        // Fetch one extra row to learn whether another page exists without a count query
+        PageRequest limit = PageRequest.of(0, pageSize + 1);
+        List<TrackDTO> rows = (cursor == null || cursor.isBlank())
+                ? trackRepository.findFirstPage(limit)
+                : trackRepository.findPageAfter(decodeCursor(cursor), limit);
+
+        if (rows.size() <= pageSize) {
+            return new TrackPage(List.copyOf(rows), null);
+        }
+        List<TrackDTO> items = List.copyOf(rows.subList(0, pageSize));
+        return new TrackPage(items, encodeCursor(items.get(pageSize - 1).getId()));
+    }
+
+    // Shared with the reactive read tier so cursors from either stack are interchangeable
+    public static String encodeCursor(Long lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((CURSOR_PREFIX + lastId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static Long decodeCursor(String cursor) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!decoded.startsWith(CURSOR_PREFIX)) {
+                throw new IllegalArgumentException();
+            }
+            return Long.parseLong(decoded.substring(CURSOR_PREFIX.length()));
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Invalid cursor: " + cursor);
+        }
+    }
+}
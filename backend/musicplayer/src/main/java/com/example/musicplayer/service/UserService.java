@@ -1,15 +1,29 @@
 package com.example.musicplayer.service;
 
+import com.example.musicplayer.cache.CacheRegion;
+import com.example.musicplayer.cache.LibraryCache;
+import com.example.musicplayer.datasource.PrimaryReads;
+import com.example.musicplayer.dto.FavoriteChangesResponse;
+import com.example.musicplayer.dto.PlaylistDTO;
+import com.example.musicplayer.dto.TrackDTO;
+import com.example.musicplayer.dto.UserProfileResponse;
+import com.example.musicplayer.model.Playlist;
 import com.example.musicplayer.model.User;
-import com.example.musicplayer.model.Track;
-import com.example.musicplayer.repository.TrackRepository;
+import com.example.musicplayer.recommend.RecommendationEngine;
+import com.example.musicplayer.repository.PlaylistRepository;
 import com.example.musicplayer.repository.UserRepository;
+import com.example.musicplayer.security.AuthenticatedUser;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
 
 @Service
 public class UserService implements UserDetailsService {
@@ -18,43 +32,137 @@ public class UserService implements UserDetailsService {
     private UserRepository userRepository;
 
     @Autowired
-    private TrackRepository trackRepository;
+    private PlaylistRepository playlistRepository;
+
+    @Autowired
+    private MutationWriteBuffer mutationWriteBuffer;
+
+    @Autowired
+    private FavoriteChangeLog favoriteChangeLog;
+
+    @Autowired
+    private LibraryCache libraryCache;
+
+    @Autowired
+    private RecommendationEngine recommendationEngine;
 
+    @Autowired
+    private TrackService trackService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Sign-in lookups go to the primary: the account may have been created a moment ago
     @Override
     @Transactional(readOnly = true)
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        User user = userRepository.findByEmailIgnoreCase(email)
+        User user = PrimaryReads.call(() -> userRepository.findByEmailIgnoreCase(email))
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
         return user;
     }
 
-    @Transactional
-    public void addFavorite(User user, Long trackId) {
-        Track track = trackRepository.findById(trackId)
-                .orElseThrow(() -> new RuntimeException("Track not found with ID: " + trackId));
-        user.addFavorite(track);
+    // Pending buffered writes for this user are flushed first, so a user always reads their own writes
+    public List<TrackDTO> getFavorites(Long userId) {
+        mutationWriteBuffer.flushUser(userId);
+        return libraryCache.get(CacheRegion.USER_FAVORITES, userId,
+                () -> List.copyOf(userRepository.findFavoriteTracks(userId)));
     }
 
-    @Transactional
-    public void removeFavorite(User user, Long trackId) {
-        Track track = trackRepository.findById(trackId)
-                .orElseThrow(() -> new RuntimeException("Track not found with ID: " + trackId));
-        user.removeFavorite(track);
+    public long getFavoritesVersion(Long userId) {
+        mutationWriteBuffer.flushUser(userId);
+        return readFavoritesVersion(userId);
     }
 
-    @Transactional
-    public void createPlaylist(User user, String playlistName) {
-        user.createPlaylist(playlistName);
+    // Deltas since a version the client already has; falls back to the full list when the log can't answer.
+    // The flush runs before the read transaction, so no connection is held while it waits.
+    public FavoriteChangesResponse getFavoriteChanges(Long userId, long since) {
+        mutationWriteBuffer.flushUser(userId);
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        return transaction.execute(status -> {
+            long version = readFavoritesVersion(userId);
+            FavoriteChangesResponse changes = favoriteChangeLog.changesSince(userId, since, version);
+            if (changes == null) {
+                changes = new FavoriteChangesResponse(version, true, userRepository.findFavoriteTracks(userId), List.of());
+            }
+            return changes;
+        });
+    }
+
+    private long readFavoritesVersion(Long userId) {
+        Long version = userRepository.findFavoritesVersion(userId);
+        if (version == null) {
+            throw new RuntimeException("User not found for id: " + userId);
+        }
+        return version;
+    }
+
+    public List<PlaylistDTO> getPlaylists(Long userId) {
+        mutationWriteBuffer.flushUser(userId);
+        return libraryCache.get(CacheRegion.USER_PLAYLISTS, userId,
+                () -> List.copyOf(PlaylistDTO.fromRows(playlistRepository.findTrackRowsByUserId(userId))));
+    }
+
+    // Flushing first pushes this user's buffered favorites into the engine, so a fresh like counts immediately
+    public List<TrackDTO> getRecommendations(Long userId, int limit) {
+        mutationWriteBuffer.flushUser(userId);
+        return recommendationEngine.recommendationsFor(userId, limit);
+    }
+
+    // One query each for favorites and playlists, however many playlists there are.
+    // No surrounding transaction: each list flushes, then reads (or hits the cache) on its own.
+    public UserProfileResponse getProfile(AuthenticatedUser user) {
+        return new UserProfileResponse(user.getDisplayName(), user.getEmail(), user.getJoinedAt(),
+                getFavorites(user.getId()), getPlaylists(user.getId()));
+    }
+
+    // Favorite writes are buffered and coalesced per (user, track); see MutationWriteBuffer.
+    // The cached list is dropped here and again once the flush has committed.
+    public void addFavorite(Long userId, Long trackId) {
+        requireTrack(trackId);
+        mutationWriteBuffer.setFavorite(userId, trackId, true);
+        libraryCache.invalidate(CacheRegion.USER_FAVORITES, userId);
+    }
+
+    public void removeFavorite(Long userId, Long trackId) {
+        mutationWriteBuffer.setFavorite(userId, trackId, false);
+        libraryCache.invalidate(CacheRegion.USER_FAVORITES, userId);
+    }
+
+    // Returns whether the track is a favorite afterwards
+    public boolean toggleFavorite(Long userId, Long trackId) {
+        requireTrack(trackId);
+        Boolean current = mutationWriteBuffer.pendingFavorite(userId, trackId);
+        if (current == null) {
+            mutationWriteBuffer.flushUser(userId); // wait out an in-flight flush before trusting the table
+            current = userRepository.countFavorite(userId, trackId) > 0;
+        }
+        mutationWriteBuffer.setFavorite(userId, trackId, !current);
+        libraryCache.invalidate(CacheRegion.USER_FAVORITES, userId);
+        return !current;
     }
 
     @Transactional
-    public void addTrackToPlaylist(User user, Long playlistId, Long trackId) {
-        var playlist = user.getPlaylists().stream()
-                .filter(p -> p.getId().equals(playlistId))
-                .findFirst()
-                .orElseThrow(() -> new RuntimeException("Playlist not found with ID: " + playlistId));
-        var track = trackRepository.findById(trackId)
-                .orElseThrow(() -> new RuntimeException("Track not found with ID: " + trackId));
-        user.addTrackToPlaylist(playlist, track);
+    public Long createPlaylist(Long userId, String playlistName) {
+        Playlist playlist = new Playlist(null, playlistName, userRepository.getReferenceById(userId), new ArrayList<>());
+        Long playlistId = playlistRepository.save(playlist).getId();
+        libraryCache.invalidateAfterCommit(CacheRegion.USER_PLAYLISTS, userId);
+        return playlistId;
+    }
+
+    // Ownership is checked now; the appended entry itself is written behind
+    @Transactional(readOnly = true)
+    public void addTrackToPlaylist(Long userId, Long playlistId, Long trackId) {
+        if (!playlistRepository.existsByIdAndUserId(playlistId, userId)) {
+            throw new RuntimeException("Playlist not found with ID: " + playlistId);
+        }
+        requireTrack(trackId);
+        mutationWriteBuffer.appendToPlaylist(userId, playlistId, trackId);
+        libraryCache.invalidate(CacheRegion.USER_PLAYLISTS, userId);
+    }
+
+    // Checked before buffering: the flush's INSERT IGNORE ... SELECT would drop an unknown track without a word
+    private void requireTrack(Long trackId) {
+        trackService.getTrack(trackId); // cached; throws for an unknown id
     }
 }
@@ -0,0 +1,23 @@
+package com.example.musicplayer;
+
+import com.example.musicplayer.model.User;
+import com.example.musicplayer.repository.UserRepository;
+
+// Test accounts share one in-memory database per context, so every email is made unique
+public final class TestUsers {
+
+    private TestUsers() {
+    }
+
+    public static User newUser(String name, String emailPrefix) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(emailPrefix + "-" + System.nanoTime() + "@example.com");
+        user.setPassword("secret");
+        return user;
+    }
+
+    public static User save(UserRepository userRepository, String name, String emailPrefix) {
+        return userRepository.save(newUser(name, emailPrefix));
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.musicplayer.cache;
+
+import com.example.musicplayer.datasource.ReadYourWritesTracker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+// Two instances wired through the loopback transport
+class CacheInvalidationBusTest {
+
+    private final List<CacheInvalidationBus> buses = new ArrayList<>();
+
+    private LibraryCache cache() {
+        return new LibraryCache(new SimpleMeterRegistry(), new MockEnvironment(),
+                new StaticListableBeanFactory().getBeanProvider(RemoteCacheTier.class), true);
+    }
+
+    private CacheInvalidationBus bus(LibraryCache cache, SimpleMeterRegistry registry) {
+        CacheInvalidationBus bus = new CacheInvalidationBus(cache, new LoopbackInvalidationTransport(),
+                new ReadYourWritesTracker(5000, 1000), registry, 60_000);
+        bus.start();
+        buses.add(bus);
+        return bus;
+    }
+
+    @AfterEach
+    void stop() {
+        buses.forEach(CacheInvalidationBus::stop);
+    }
+
+    @Test
+    void invalidationReachesOtherInstancesAsOneDeduplicatedBatch() {
+        LibraryCache first = cache();
+        LibraryCache second = cache();
+        SimpleMeterRegistry firstMetrics = new SimpleMeterRegistry();
+        SimpleMeterRegistry secondMetrics = new SimpleMeterRegistry();
+        CacheInvalidationBus firstBus = bus(first, firstMetrics);
+        bus(second, secondMetrics);
+
+        second.put(CacheRegion.USER_FAVORITES, 7L, List.of("x"), second.generation(CacheRegion.USER_FAVORITES));
+        second.put(CacheRegion.TRACK_PAGE, "|50", "page", second.generation(CacheRegion.TRACK_PAGE));
+        second.put(CacheRegion.TRACK_PAGE, "abc|50", "page", second.generation(CacheRegion.TRACK_PAGE));
+
+        first.invalidate(CacheRegion.USER_FAVORITES, 7L);
+        first.invalidate(CacheRegion.USER_FAVORITES, 7L);
+        first.invalidate(CacheRegion.TRACK_PAGE, "abc|50");
+        first.invalidateAll(CacheRegion.TRACK_PAGE);
+        assertNotNull(second.getIfPresent(CacheRegion.USER_FAVORITES, 7L)); // nothing sent until the batch goes out
+
+        firstBus.flush();
+
+        assertNull(second.getIfPresent(CacheRegion.USER_FAVORITES, 7L));
+        assertNull(second.getIfPresent(CacheRegion.TRACK_PAGE, "|50"));
+        assertEquals(2.0, firstMetrics.get("cache.invalidation.published").counter().count());
+        assertEquals(2.0, firstMetrics.get("cache.invalidation.deduplicated").counter().count());
+        assertEquals(2, secondMetrics.get("cache.invalidation.lag").timer().count());
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.musicplayer.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class LibraryCacheTest {
+
+    private final EmbeddedRemoteCacheTier sharedTier = new EmbeddedRemoteCacheTier();
+
+    private LibraryCache node(MeterRegistry registry) {
+        StaticListableBeanFactory beans = new StaticListableBeanFactory(Map.of("remoteCacheTier", sharedTier));
+        return new LibraryCache(registry, new MockEnvironment(), beans.getBeanProvider(RemoteCacheTier.class), true);
+    }
+
+    @Test
+    void readsThroughBothTiersAndInvalidatesThem() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        LibraryCache first = node(registry);
+        LibraryCache second = node(new SimpleMeterRegistry());
+        AtomicInteger loads = new AtomicInteger();
+
+        assertEquals(List.of("a"), first.get(CacheRegion.USER_FAVORITES, 1L, () -> { loads.incrementAndGet(); return List.of("a"); }));
+        assertEquals(List.of("a"), first.get(CacheRegion.USER_FAVORITES, 1L, () -> { loads.incrementAndGet(); return List.of("b"); }));
+        // another node misses its near cache but finds the value in the shared tier
+        assertEquals(List.of("a"), second.get(CacheRegion.USER_FAVORITES, 1L, () -> { loads.incrementAndGet(); return List.of("c"); }));
+        assertEquals(1, loads.get());
+
+        first.invalidate(CacheRegion.USER_FAVORITES, 1L);
+        assertNull(first.getIfPresent(CacheRegion.USER_FAVORITES, 1L));
+        assertNull(sharedTier.get(CacheRegion.USER_FAVORITES.key(), 1L));
+
+        double nearHits = registry.get("cache.gets").tag("cache", "user-favorites").tag("result", "hit").functionCounter().count();
+        assertEquals(1.0, nearHits);
+    }
+
+    @Test
+    void nullResultsAreNotCached() {
+        LibraryCache cache = node(new SimpleMeterRegistry());
+        AtomicInteger loads = new AtomicInteger();
+        for (int i = 0; i < 3; i++) {
+            cache.get(CacheRegion.TRACK, 42L, () -> { loads.incrementAndGet(); return null; });
+        }
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void putIsSkippedIfTheRegionWasInvalidatedWhileLoading() {
+        LibraryCache cache = node(new SimpleMeterRegistry());
+        long generation = cache.generation(CacheRegion.USER_PLAYLISTS);
+        // a write commits while the reader is still streaming its older rows
+        cache.invalidate(CacheRegion.USER_PLAYLISTS, 7L);
+        cache.put(CacheRegion.USER_PLAYLISTS, 7L, List.of("stale"), generation);
+        assertNull(cache.getIfPresent(CacheRegion.USER_PLAYLISTS, 7L));
+        assertNull(sharedTier.get(CacheRegion.USER_PLAYLISTS.key(), 7L));
+
+        cache.put(CacheRegion.USER_PLAYLISTS, 7L, List.of("fresh"), cache.generation(CacheRegion.USER_PLAYLISTS));
+        assertEquals(List.of("fresh"), cache.getIfPresent(CacheRegion.USER_PLAYLISTS, 7L));
+    }
+}
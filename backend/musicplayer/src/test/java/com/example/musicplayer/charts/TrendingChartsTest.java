@@ -0,0 +1,92 @@
+package com.example.musicplayer.charts;
+
+import com.example.musicplayer.plays.PlayEvent;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TrendingChartsTest {
+
+    private static final long HOUR = TimeUnit.HOURS.toMillis(1);
+
+    // A long tail of one-off plays must not shut out heavy hitters that only show up after it
+    @Test
+    void findsHeavyHittersInALongTail() {
+        TrendingCharts charts = new TrendingCharts(3, 4, 1024, 3, 5, 5);
+        long now = System.currentTimeMillis();
+        Random random = new Random(7);
+        List<PlayEvent> plays = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            plays.add(new PlayEvent(1, 1_000 + random.nextInt(1_000_000), now, 30));
+        }
+        charts.consume(plays, plays.size());
+        charts.publish();
+
+        plays.clear();
+        for (int i = 0; i < 100; i++) {
+            plays.add(new PlayEvent(1, 1, now, 30));
+            plays.add(new PlayEvent(1, 1, now, 30));
+            plays.add(new PlayEvent(1, 1, now, 30));
+            plays.add(new PlayEvent(1, 1, now, 30));
+            plays.add(new PlayEvent(1, 2, now, 30));
+            plays.add(new PlayEvent(1, 2, now, 30));
+            plays.add(new PlayEvent(1, 3, now, 30));
+            for (int j = 0; j < 20; j++) {
+                plays.add(new PlayEvent(1, 1_000 + random.nextInt(1_000_000), now, 30));
+            }
+        }
+        charts.consume(plays, plays.size());
+        charts.publish();
+
+        assertArrayEquals(new long[]{1, 2, 3}, charts.top(ChartWindow.HOUR, 3));
+        assertArrayEquals(new long[]{1}, charts.top(ChartWindow.WEEK, 1));
+    }
+
+    @Test
+    void windowsExpireOldActivityAndTrendingFavorsAFreshSurge() {
+        TrendingCharts charts = new TrendingCharts(10, 4, 4096, 3, 5, 5);
+        long now = System.currentTimeMillis();
+        List<PlayEvent> plays = new ArrayList<>();
+        // Track 1: steady 20 plays an hour all day. Track 2: quiet, then 20 plays in the last hour.
+        for (int hour = 0; hour < 24; hour++) {
+            for (int i = 0; i < 20; i++) {
+                plays.add(new PlayEvent(1, 1, now - hour * HOUR - 1, 30));
+            }
+        }
+        for (int i = 0; i < 20; i++) {
+            plays.add(new PlayEvent(1, 2, now - 1, 30));
+        }
+        // Track 3: busy two days ago only
+        for (int i = 0; i < 100; i++) {
+            plays.add(new PlayEvent(1, 3, now - 48 * HOUR, 30));
+        }
+        charts.consume(plays, plays.size());
+        charts.onFavoritesChanged(Map.of(5L, Map.of(2L, true, 1L, false)));
+        charts.publish();
+
+        assertArrayEquals(new long[]{2, 1}, charts.trending(10));
+        assertArrayEquals(new long[]{2, 1}, charts.top(ChartWindow.HOUR, 10)); // 20 plays + a favorite worth 3
+        assertArrayEquals(new long[]{1, 2}, charts.top(ChartWindow.DAY, 10));
+        assertArrayEquals(new long[]{1, 3, 2}, charts.top(ChartWindow.WEEK, 10));
+    }
+
+    @Test
+    void sketchNeverUndercounts() {
+        CountMinSketch sketch = new CountMinSketch(4, 64);
+        for (long id = 0; id < 1_000; id++) {
+            sketch.add(id, id % 7 + 1);
+        }
+        for (long id = 0; id < 1_000; id++) {
+            assertTrue(sketch.estimate(id) >= id % 7 + 1);
+        }
+        assertEquals(0, new CountMinSketch(4, 64).estimate(42));
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.musicplayer.config;
+
+import com.example.musicplayer.TestUsers;
+import com.example.musicplayer.model.User;
+import com.example.musicplayer.repository.UserRepository;
+import com.example.musicplayer.security.JwtProvider;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Admin endpoints write to the shared catalog, so a signed-in listener must not reach them
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class AdminAccessTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private JwtProvider jwtProvider;
+
+    @Test
+    void importsRequireTheAdminAuthority() {
+        String listener = token(false);
+        String operator = token(true);
+
+        assertEquals(HttpStatus.FORBIDDEN, exchange(HttpMethod.POST, "/api/admin/imports", listener));
+        // Past the security check; rejected only because the body names no file
+        assertEquals(HttpStatus.BAD_REQUEST, exchange(HttpMethod.POST, "/api/admin/imports", operator));
+    }
+
+    @Test
+    void libraryScansRequireTheAdminAuthority() {
+        String listener = token(false);
+        String operator = token(true);
+
+        assertEquals(HttpStatus.FORBIDDEN, exchange(HttpMethod.POST, "/api/admin/library/scan", listener));
+        assertEquals(HttpStatus.FORBIDDEN, exchange(HttpMethod.GET, "/api/admin/library/scan", listener));
+        // Nothing has been scanned in this context yet
+        assertEquals(HttpStatus.NO_CONTENT, exchange(HttpMethod.GET, "/api/admin/library/scan", operator));
+    }
+
+    private String token(boolean admin) {
+        User user = TestUsers.save(userRepository, admin ? "Operator" : "Listener", "admin-access");
+        Long userId = user.getId();
+        if (admin) {
+            jdbcTemplate.update("UPDATE users SET admin = true WHERE id = ?", userId);
+        }
+        return jwtProvider.generateToken(user.getEmail());
+    }
+
+    private HttpStatus exchange(HttpMethod method, String path, String token) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(token);
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        return HttpStatus.valueOf(restTemplate.exchange(path, method, new HttpEntity<>("{}", headers), String.class)
+                .getStatusCode().value());
+    }
+}
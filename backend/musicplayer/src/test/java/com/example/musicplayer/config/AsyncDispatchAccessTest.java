@@ -0,0 +1,59 @@
+package com.example.musicplayer.config;
+
+import com.example.musicplayer.TestUsers;
+import com.example.musicplayer.model.User;
+import com.example.musicplayer.repository.UserRepository;
+import com.example.musicplayer.security.JwtProvider;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// A CompletableFuture result is written on an ASYNC dispatch, where the stateless chain has no
+// security context left to check. SecurityConfig permits that dispatch (added with the play log in
+// user-022); the REQUEST dispatch still does the real check.
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class AsyncDispatchAccessTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JwtProvider jwtProvider;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void asyncResultReachesTheSignedInCaller() throws Exception {
+        User user = TestUsers.save(userRepository, "Listener", "async-access");
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(jwtProvider.generateToken(user.getEmail()));
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        String plays = "[{\"trackId\": 1, \"secondsPlayed\": 30}]";
+        ResponseEntity<String> response = restTemplate.exchange("/api/plays", HttpMethod.POST,
+                new HttpEntity<>(plays, headers), String.class);
+        assertEquals(HttpStatus.ACCEPTED, HttpStatus.valueOf(response.getStatusCode().value()));
+        JsonNode body = objectMapper.readTree(response.getBody());
+        assertEquals(1, body.get("accepted").asInt());
+
+        headers.remove(HttpHeaders.AUTHORIZATION);
+        ResponseEntity<String> anonymous = restTemplate.exchange("/api/plays", HttpMethod.POST,
+                new HttpEntity<>(plays, headers), String.class);
+        assertEquals(HttpStatus.FORBIDDEN, HttpStatus.valueOf(anonymous.getStatusCode().value()));
+    }
+}
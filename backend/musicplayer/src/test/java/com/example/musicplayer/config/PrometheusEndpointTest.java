@@ -0,0 +1,43 @@
+package com.example.musicplayer.config;
+
+import com.example.musicplayer.security.JwtProvider;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// The scrape must be reachable without a token and carry the request, JWT, pool, cache and Hibernate meters
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureObservability
+class PrometheusEndpointTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private JwtProvider jwtProvider;
+
+    @Test
+    void exposesApplicationMetrics() {
+        jwtProvider.parseClaims(jwtProvider.generateToken("metrics@example.com"));
+        jwtProvider.parseClaims("not-a-token");
+        restTemplate.getForEntity("/api/tracks", String.class);
+
+        ResponseEntity<String> scrape = restTemplate.getForEntity("/actuator/prometheus", String.class);
+        assertEquals(HttpStatus.OK, scrape.getStatusCode());
+        String body = scrape.getBody();
+        assertTrue(body.contains("http_server_requests_seconds_bucket{"), "endpoint latency histogram");
+        assertTrue(body.contains("uri=\"/api/tracks\""), "per-endpoint tags");
+        assertTrue(body.contains("jwt_parse_seconds_count{") && body.contains("outcome=\"invalid\""), "JWT timers");
+        assertTrue(body.contains("jwt_sign_seconds_count"), "JWT signing timer");
+        assertTrue(body.contains("hikaricp_connections_pending"), "pool saturation");
+        assertTrue(body.contains("cache_gets_total{"), "cache stats");
+        assertTrue(body.contains("hibernate_statements_total"), "Hibernate statement counts");
+    }
+}
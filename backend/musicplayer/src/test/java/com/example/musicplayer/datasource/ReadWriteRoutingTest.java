@@ -0,0 +1,113 @@
+package com.example.musicplayer.datasource;
+
+import com.example.musicplayer.security.AuthenticatedUser;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Two in-memory databases stand in for primary and replica; the test plays the replication
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing-primary;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "musicplayer.datasource.replicas=" + ReadWriteRoutingTest.REPLICA_URL,
+        "musicplayer.datasource.max-replica-lag-ms=2000",
+        "musicplayer.datasource.replica-check-interval-ms=600000"
+})
+class ReadWriteRoutingTest {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:routing-replica;MODE=MySQL;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ReplicaMonitor replicaMonitor;
+
+    private final JdbcTemplate replicaJdbc = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+
+    @BeforeEach
+    void setUp() {
+        for (JdbcTemplate db : List.of(jdbcTemplate, replicaJdbc)) {
+            db.execute("CREATE TABLE IF NOT EXISTS route_probe (name VARCHAR(16))");
+            db.update("DELETE FROM route_probe");
+        }
+        jdbcTemplate.update("INSERT INTO route_probe VALUES ('primary')");
+        replicaJdbc.update("INSERT INTO route_probe VALUES ('replica')");
+        replicaJdbc.execute("CREATE TABLE IF NOT EXISTS replication_heartbeat (id INT PRIMARY KEY, beat_at BIGINT NOT NULL)");
+        replicate(System.currentTimeMillis());
+    }
+
+    @AfterEach
+    void clearUser() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readOnlyTransactionsGoToTheReplica() {
+        assertEquals("replica", probe(true));
+        assertEquals("primary", probe(false));
+        assertEquals("primary", jdbcTemplate.queryForObject("SELECT name FROM route_probe", String.class));
+    }
+
+    @Test
+    void laggingReplicaFallsBackToThePrimary() {
+        replicate(System.currentTimeMillis() - 60_000);
+        assertEquals("primary", probe(true));
+
+        replicate(System.currentTimeMillis());
+        assertEquals("replica", probe(true));
+    }
+
+    @Test
+    void userReadsTheirOwnWritesFromThePrimary() {
+        signIn(1L);
+        TransactionTemplate write = new TransactionTemplate(transactionManager);
+        write.executeWithoutResult(status -> jdbcTemplate.update("UPDATE route_probe SET name = 'primary'"));
+        assertEquals("primary", probe(true));
+
+        signIn(2L);
+        assertEquals("replica", probe(true));
+    }
+
+    @Test
+    void primaryHintKeepsAReadOnlyTransactionOnThePrimary() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        assertEquals("primary", transaction.execute(status ->
+                PrimaryReads.call(() -> jdbcTemplate.queryForObject("SELECT name FROM route_probe", String.class))));
+        assertEquals("replica", probe(true));
+    }
+
+    private String probe(boolean readOnly) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(readOnly);
+        return transaction.execute(status -> jdbcTemplate.queryForObject("SELECT name FROM route_probe", String.class));
+    }
+
+    // What replication would have copied: the primary's heartbeat as of beatAt
+    private void replicate(long beatAt) {
+        replicaJdbc.update("DELETE FROM replication_heartbeat");
+        replicaJdbc.update("INSERT INTO replication_heartbeat (id, beat_at) VALUES (1, ?)", beatAt);
+        replicaMonitor.checkReplicas();
+    }
+
+    private static void signIn(Long userId) {
+        AuthenticatedUser user = new AuthenticatedUser(userId, "user" + userId + "@example.com", "User " + userId, LocalDate.now());
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(user, null, List.of()));
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.musicplayer.exception;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class GlobalExceptionHandlerTest {
+
+    private final GlobalExceptionHandler handler = new GlobalExceptionHandler();
+
+    @Test
+    void busyPoolBehindATransactionIsStillA503() {
+        ServiceBusyException busy = new ServiceBusyException("Database is busy, please retry shortly", 2);
+        ResponseEntity<?> response = handler.handleRuntime(
+                new CannotCreateTransactionException("Could not open JPA EntityManager for transaction", busy));
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertEquals("2", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+    }
+
+    @Test
+    void otherFailuresStayBadRequests() {
+        ResponseEntity<?> response = handler.handleRuntime(new IllegalStateException("nope", new RuntimeException()));
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+}
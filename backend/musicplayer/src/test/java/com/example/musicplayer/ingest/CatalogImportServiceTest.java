@@ -0,0 +1,108 @@
+package com.example.musicplayer.ingest;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+class CatalogImportServiceTest {
+
+    @Autowired
+    private CatalogImportService catalogImportService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @TempDir
+    Path dir;
+
+    // A quoted newline belongs to the field; it must not split the record in two
+    @Test
+    void csvRecordsMaySpanLines() throws Exception {
+        String artist = "Csv Artist " + System.nanoTime();
+        Path file = dir.resolve("catalog.csv");
+        Files.writeString(file, "title,artist,url\n"
+                + "\"Two\nLines\"," + artist + ",/a.mp3\n"
+                + "\"Say \"\"Hi\"\"\"," + artist + ",/b.mp3\n"
+                + "," + artist + ",/c.mp3\n");
+
+        ImportJob job = catalogImportService.runNow(file);
+
+        assertEquals(ImportJob.State.COMPLETED, job.getState(), job.getError());
+        assertEquals(2, job.getRowsWritten());
+        assertEquals(1, job.getRowsRejected());
+        assertEquals(5, job.getLinesRead());
+        assertEquals(List.of("Say \"Hi\"", "Two\nLines"), titles(artist));
+    }
+
+    @Test
+    void jsonLinesSkipBlankAndMalformedRows() throws Exception {
+        String artist = "Json Artist " + System.nanoTime();
+        Path file = dir.resolve("catalog.jsonl");
+        Files.writeString(file, "{\"title\":\"One\",\"artist\":\"" + artist + "\"}\n"
+                + "\n"
+                + "{not json\n"
+                + "{\"title\":\"Two\",\"artist\":\"" + artist + "\",\"url\":\"/two.mp3\"}\n"
+                + "{\"title\":\"One\",\"artist\":\"" + artist + "\"}\n");
+
+        ImportJob job = catalogImportService.runNow(file);
+
+        assertEquals(ImportJob.State.COMPLETED, job.getState(), job.getError());
+        assertEquals(1, job.getRowsRejected());
+        assertEquals(List.of("One", "Two"), titles(artist));
+    }
+
+    @Test
+    void resumesAfterTheCheckpointedLine() throws Exception {
+        String artist = "Resume Artist " + System.nanoTime();
+        Path file = dir.resolve("resume.csv");
+        Files.writeString(file, "title,artist\n"
+                + "First," + artist + "\n"
+                + "\"Second\npart\"," + artist + "\n"
+                + "Third," + artist + "\n");
+        // The first two records, through line 4, were committed before the previous run died
+        Path checkpoint = dir.resolve("resume.csv.checkpoint");
+        Files.writeString(checkpoint, "4");
+
+        ImportJob job = catalogImportService.runNow(file);
+
+        assertEquals(ImportJob.State.COMPLETED, job.getState(), job.getError());
+        assertEquals(4, job.getResumedFromLine());
+        assertEquals(1, job.getRowsWritten());
+        assertEquals(List.of("Third"), titles(artist));
+        assertFalse(Files.exists(checkpoint));
+    }
+
+    @Test
+    void finishedJobsAreEvicted() throws Exception {
+        Path file = dir.resolve("empty.jsonl");
+        Files.writeString(file, "");
+        ImportJob finished = catalogImportService.runNow(file);
+        assertEquals(finished, catalogImportService.getJob(finished.getId()));
+
+        Object retention = ReflectionTestUtils.getField(catalogImportService, "jobRetentionMinutes");
+        ReflectionTestUtils.setField(catalogImportService, "jobRetentionMinutes", -1L);
+        try {
+            ImportJob next = catalogImportService.runNow(file);
+            assertThrows(RuntimeException.class, () -> catalogImportService.getJob(finished.getId()));
+            assertEquals(next, catalogImportService.getJob(next.getId()));
+        } finally {
+            ReflectionTestUtils.setField(catalogImportService, "jobRetentionMinutes", retention);
+        }
+    }
+
+    private List<String> titles(String artist) {
+        return jdbcTemplate.queryForList("SELECT title FROM Track WHERE artist = ? ORDER BY title", String.class, artist);
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.musicplayer.ingest;
+
+import com.example.musicplayer.TestUsers;
+import com.example.musicplayer.cache.LibraryCache;
+import com.example.musicplayer.media.MediaStore;
+import com.example.musicplayer.repository.UserRepository;
+import com.example.musicplayer.search.TrackSearchIndex;
+import com.example.musicplayer.search.TrackSuggester;
+import com.example.musicplayer.service.PlaylistService;
+import com.example.musicplayer.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class MediaLibraryScannerTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TrackSearchIndex trackSearchIndex;
+
+    @Autowired
+    private TrackSuggester trackSuggester;
+
+    @Autowired
+    private LibraryCache libraryCache;
+
+    @Autowired
+    private PlaylistService playlistService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @TempDir
+    Path root;
+
+    @Test
+    void rescansOnlyChangedFilesAndReconcilesDeletions() throws Exception {
+        // Untagged files are titled after their name, so the two copies of "Song" collide
+        String song = "Song " + System.nanoTime();
+        String other = "Other " + System.nanoTime();
+        writeWav(root.resolve("a/" + song + ".wav"));
+        writeWav(root.resolve("b/" + song + ".wav"));
+        writeWav(root.resolve("c/" + other + ".wav"));
+
+        MediaLibraryScanner scanner = new MediaLibraryScanner(new MediaStore(root.toString()), jdbcTemplate,
+                trackSearchIndex, trackSuggester, libraryCache, 2, 500, false);
+        try {
+            LibraryScan first = scan(scanner);
+            assertEquals(3, first.getFilesChanged());
+            assertEquals(2, first.getTracksWritten());
+            assertEquals(1, first.getFilesConflicting());
+
+            // Only the skipped copy is parsed again; the rest match their recorded size and mtime
+            LibraryScan unchanged = scan(scanner);
+            assertEquals(3, unchanged.getFilesSeen());
+            assertEquals(1, unchanged.getFilesChanged());
+            assertEquals(1, unchanged.getFilesConflicting());
+
+            Path otherFile = root.resolve("c/" + other + ".wav");
+            Files.setLastModifiedTime(otherFile, FileTime.fromMillis(Files.getLastModifiedTime(otherFile).toMillis() - 60_000));
+            LibraryScan touched = scan(scanner);
+            assertEquals(2, touched.getFilesChanged());
+            assertEquals(1, touched.getTracksWritten());
+
+            // The copy that won is in a playlist, so its row survives the file's deletion
+            Map<String, Object> owner = jdbcTemplate.queryForMap("SELECT id, url FROM Track WHERE title = ?", song);
+            Long userId = TestUsers.save(userRepository, "Listener", "scanner").getId();
+            Long playlistId = userService.createPlaylist(userId, "Scanned");
+            playlistService.insertAt(userId, playlistId, ((Number) owner.get("id")).longValue(), null);
+            Files.delete(root.resolve((String) owner.get("url")));
+            Files.delete(otherFile);
+
+            LibraryScan afterDelete = scan(scanner);
+            assertEquals(2, afterDelete.getFilesMissing());
+            assertEquals(0, afterDelete.getFilesConflicting());
+            List<Map<String, Object>> songs = jdbcTemplate.queryForList("SELECT id, url FROM Track WHERE title = ?", song);
+            assertEquals(1, songs.size());
+            assertEquals(owner.get("id"), songs.get(0).get("id"));
+            assertTrue(Files.exists(root.resolve((String) songs.get(0).get("url"))), "moved to the surviving copy");
+            assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM Track WHERE title = ?", Integer.class, other));
+
+            LibraryScan settled = scan(scanner);
+            assertEquals(0, settled.getFilesChanged());
+            assertEquals(0, settled.getFilesMissing());
+        } finally {
+            scanner.shutdown();
+        }
+    }
+
+    private LibraryScan scan(MediaLibraryScanner scanner) throws InterruptedException {
+        LibraryScan scan = scanner.startScan();
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (scan.isActive() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(ImportJob.State.COMPLETED, scan.getState(), scan.getError());
+        return scan;
+    }
+
+    // A tenth of a second of 8 kHz, 8-bit mono silence
+    private static void writeWav(Path file) throws Exception {
+        int samples = 800;
+        ByteBuffer header = ByteBuffer.allocate(44).order(ByteOrder.LITTLE_ENDIAN);
+        header.put("RIFF".getBytes(StandardCharsets.US_ASCII)).putInt(36 + samples)
+                .put("WAVE".getBytes(StandardCharsets.US_ASCII))
+                .put("fmt ".getBytes(StandardCharsets.US_ASCII)).putInt(16)
+                .putShort((short) 1).putShort((short) 1).putInt(8000).putInt(8000)
+                .putShort((short) 1).putShort((short) 8)
+                .put("data".getBytes(StandardCharsets.US_ASCII)).putInt(samples);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(header.array());
+        for (int i = 0; i < samples; i++) {
+            out.write(128);
+        }
+        Files.createDirectories(file.getParent());
+        Files.write(file, out.toByteArray());
+    }
+}
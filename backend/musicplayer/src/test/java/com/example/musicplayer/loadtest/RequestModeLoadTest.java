@@ -0,0 +1,135 @@
+package com.example.musicplayer.loadtest;
+
+import com.example.musicplayer.MusicplayerApplication;
+import com.example.musicplayer.TestUsers;
+import com.example.musicplayer.model.User;
+import com.example.musicplayer.repository.UserRepository;
+import com.example.musicplayer.security.JwtProvider;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Platform threads vs. virtual threads under 1k/5k/10k concurrent clients, each looping
+ * GET /api/user/favorites (JWT auth + DB read, cache off) for a fixed window.
+ * Virtual mode is skipped below Java 21. Point it at MySQL with -Dspring.datasource.url=...
+ * to see real blocking I/O; the default H2 database returns almost instantly.
+ * Run with: mvn test -Dtest=RequestModeLoadTest -DloadTests=true [-Pjava21]
+ */
+@EnabledIfSystemProperty(named = "loadTests", matches = "true")
+class RequestModeLoadTest {
+
+    private static final int[] CLIENTS = {1_000, 5_000, 10_000};
+    private static final Duration WINDOW = Duration.ofSeconds(15);
+
+    @Test
+    void compareThroughputAndTailLatency() throws Exception {
+        List<String> report = new ArrayList<>();
+        report.add(run(false));
+        if (Runtime.version().feature() >= 21) {
+            report.add(run(true));
+        } else {
+            report.add("virtual  - skipped, needs Java 21 (running " + Runtime.version().feature() + ")");
+        }
+        report.forEach(line -> System.out.println("RequestModeLoadTest - " + line));
+    }
+
+    private String run(boolean virtual) throws Exception {
+        String mode = virtual ? "virtual " : "platform";
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(MusicplayerApplication.class)
+                .properties("server.port=0",
+                        "server.tomcat.max-connections=20000",
+                        "server.tomcat.accept-count=10000",
+                        "musicplayer.cache.enabled=false",
+                        "spring.threads.virtual.enabled=" + virtual,
+                        "musicplayer.db.max-concurrent=" + (virtual ? 20 : 0),
+                        "spring.datasource.hikari.maximum-pool-size=20")
+                .run()) {
+            int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+            String token = seedUser(context);
+
+            StringBuilder line = new StringBuilder(mode);
+            for (int clients : CLIENTS) {
+                Result result = drive(URI.create("http://localhost:" + port + "/api/user/favorites"), token, clients);
+                line.append(String.format(" | %5d clients: %8.0f req/s, p99 %6.1f ms, errors %d",
+                        clients, result.throughput, result.p99Millis, result.errors));
+            }
+            return line.toString();
+        }
+    }
+
+    private String seedUser(ConfigurableApplicationContext context) {
+        UserRepository users = context.getBean(UserRepository.class);
+        User user = TestUsers.save(users, "Load", "load");
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        jdbc.update("INSERT INTO Track (title, artist, url) VALUES (?, 'Load Artist', 'load.mp3')", "load-" + System.nanoTime());
+        jdbc.update("INSERT INTO user_favorites (user_id, track_id) SELECT ?, MAX(id) FROM Track", user.getId());
+        return context.getBean(JwtProvider.class).generateToken(user.getEmail());
+    }
+
+    // Each client issues its next request as soon as the previous one completes
+    private Result drive(URI uri, String token, int clients) {
+        HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+        HttpRequest request = HttpRequest.newBuilder(uri).header("Authorization", "Bearer " + token)
+                .timeout(Duration.ofSeconds(30)).GET().build();
+        ConcurrentLinkedQueue<Long> latencies = new ConcurrentLinkedQueue<>();
+        AtomicLong errors = new AtomicLong();
+        long deadline = System.nanoTime() + WINDOW.toNanos();
+
+        List<CompletableFuture<Void>> loops = new ArrayList<>(clients);
+        for (int i = 0; i < clients; i++) {
+            loops.add(loop(http, request, deadline, latencies, errors));
+        }
+        CompletableFuture.allOf(loops.toArray(new CompletableFuture[0])).join();
+
+        long[] sorted = latencies.stream().mapToLong(Long::longValue).toArray();
+        Arrays.sort(sorted);
+        double p99 = sorted.length == 0 ? 0 : sorted[(int) Math.min(sorted.length - 1, Math.ceil(sorted.length * 0.99) - 1)] / 1e6;
+        return new Result(sorted.length / (double) WINDOW.toSeconds(), p99, errors.get());
+    }
+
+    private CompletableFuture<Void> loop(HttpClient http, HttpRequest request, long deadline,
+                                         ConcurrentLinkedQueue<Long> latencies, AtomicLong errors) {
+        if (System.nanoTime() >= deadline) {
+            return CompletableFuture.completedFuture(null);
+        }
+        long start = System.nanoTime();
+        return http.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .handle((response, failure) -> {
+                    if (failure == null && response.statusCode() == 200) {
+                        latencies.add(System.nanoTime() - start);
+                    } else {
+                        errors.incrementAndGet();
+                    }
+                    return null;
+                })
+                .thenCompose(ignored -> loop(http, request, deadline, latencies, errors));
+    }
+
+    private static final class Result {
+        private final double throughput;
+        private final double p99Millis;
+        private final long errors;
+
+        private Result(double throughput, double p99Millis, long errors) {
+            this.throughput = throughput;
+            this.p99Millis = p99Millis;
+            this.errors = errors;
+        }
+    }
+}
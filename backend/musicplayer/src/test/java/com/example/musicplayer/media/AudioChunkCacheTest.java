@@ -0,0 +1,108 @@
+package com.example.musicplayer.media;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AudioChunkCacheTest {
+
+    private static final int CHUNK = 1024;
+
+    @TempDir
+    Path dir;
+
+    private final List<MappedByteBuffer> unmapped = new ArrayList<>();
+
+    private AudioChunkCache cache(int admitAfterMisses) {
+        return new AudioChunkCache(new SimpleMeterRegistry(), true, 1, 16, admitAfterMisses, unmapped::add);
+    }
+
+    @Test
+    void aChunkIsMappedOnlyOnceItMissedEnough() throws Exception {
+        Path file = audio(3 * CHUNK);
+        AudioChunkCache cache = cache(2);
+
+        assertNull(cache.lease(file, 1, 0, CHUNK));
+        try (AudioChunkCache.Lease lease = cache.lease(file, 1, 0, CHUNK)) {
+            assertNotNull(lease);
+        }
+        // A range spanning a cold chunk streams, and warms that chunk for next time
+        assertNull(cache.lease(file, 1, CHUNK / 2, CHUNK));
+        try (AudioChunkCache.Lease lease = cache.lease(file, 1, CHUNK / 2, CHUNK)) {
+            assertArrayEquals(Arrays.copyOfRange(Files.readAllBytes(file), CHUNK / 2, CHUNK / 2 + CHUNK), written(lease));
+        }
+        assertTrue(unmapped.isEmpty());
+    }
+
+    @Test
+    void anEvictedChunkIsUnmappedOnlyAfterItsLastLeaseCloses() throws Exception {
+        Path file = audio(2 * CHUNK);
+        AudioChunkCache cache = cache(1);
+
+        AudioChunkCache.Lease first = cache.lease(file, 1, 0, 2 * CHUNK);
+        AudioChunkCache.Lease second = cache.lease(file, 1, 0, CHUNK);
+        cache.evictAll();
+        assertTrue(unmapped.isEmpty());
+
+        // Still readable: the response holding it is not done yet
+        assertArrayEquals(Files.readAllBytes(file), written(first));
+        first.close();
+        assertEquals(1, unmapped.size()); // chunk 1 had only the one lease
+        second.close();
+        assertEquals(2, unmapped.size());
+        second.close(); // closing twice releases nothing more
+        assertEquals(2, unmapped.size());
+
+        // The next request maps afresh rather than reusing an unmapped buffer
+        try (AudioChunkCache.Lease again = cache.lease(file, 1, 0, CHUNK)) {
+            assertArrayEquals(Arrays.copyOfRange(Files.readAllBytes(file), 0, CHUNK), written(again));
+        }
+    }
+
+    @Test
+    void anIdleChunkIsUnmappedWhenEvicted() throws Exception {
+        Path file = audio(CHUNK);
+        AudioChunkCache cache = cache(1);
+        cache.lease(file, 1, 0, CHUNK).close();
+        assertTrue(unmapped.isEmpty());
+        cache.evictAll();
+        assertEquals(1, unmapped.size());
+    }
+
+    @Test
+    void theCacheIsOffWithoutAWayToUnmap() {
+        AudioChunkCache cache = new AudioChunkCache(new SimpleMeterRegistry(), true, 1, 16, 1, null);
+        assertFalse(cache.isEnabled());
+        assertTrue(new AudioChunkCache(new SimpleMeterRegistry(), true, 1, 16, 1).isEnabled());
+    }
+
+    private Path audio(int length) throws Exception {
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = (byte) (i * 31);
+        }
+        return Files.write(dir.resolve("track-" + length + ".mp3"), bytes);
+    }
+
+    private static byte[] written(AudioChunkCache.Lease lease) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        lease.writeTo(Channels.newChannel(out));
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.musicplayer.media;
+
+import com.example.musicplayer.model.Track;
+import com.example.musicplayer.repository.TrackRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Concurrent seek load against /api/tracks/{id}/stream.
+ * Run with: mvn test -Dtest=AudioStreamLoadTest -DloadTests=true
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@EnabledIfSystemProperty(named = "loadTests", matches = "true")
+class AudioStreamLoadTest {
+
+    private static final int FILE_SIZE = 32 * 1024 * 1024;
+    private static final int CHUNK = 256 * 1024;
+    private static final int LISTENERS = 128;
+    private static final int SEEKS_PER_LISTENER = 50;
+
+    private static final Path MEDIA_ROOT = createMediaRoot();
+
+    @DynamicPropertySource
+    static void mediaRoot(DynamicPropertyRegistry registry) {
+        registry.add("musicplayer.media.root", MEDIA_ROOT::toString);
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TrackRepository trackRepository;
+
+    private Long trackId;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        byte[] audio = new byte[FILE_SIZE];
+        new Random(42).nextBytes(audio);
+        Files.write(MEDIA_ROOT.resolve("load.mp3"), audio);
+        trackId = trackRepository.save(new Track(null, "Load", "Tester", "load.mp3", null)).getId();
+    }
+
+    @Test
+    void concurrentSeeksReportThroughputAndLatency() throws Exception {
+        HttpClient client = HttpClient.newBuilder().executor(Executors.newFixedThreadPool(16)).build();
+        URI uri = URI.create("http://localhost:" + port + "/api/tracks/" + trackId + "/stream");
+        List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+
+        ExecutorService listeners = Executors.newFixedThreadPool(LISTENERS);
+        long start = System.nanoTime();
+        List<Future<?>> done = new ArrayList<>();
+        for (int l = 0; l < LISTENERS; l++) {
+            Random random = new Random(l);
+            done.add(listeners.submit(() -> {
+                for (int i = 0; i < SEEKS_PER_LISTENER; i++) {
+                    long from = (long) random.nextInt(FILE_SIZE - CHUNK);
+                    HttpRequest request = HttpRequest.newBuilder(uri)
+                            .header("Range", "bytes=" + from + "-" + (from + CHUNK - 1))
+                            .build();
+                    long t0 = System.nanoTime();
+                    HttpResponse<byte[]> response = send(client, request);
+                    latencies.add(System.nanoTime() - t0);
+                    assertEquals(206, response.statusCode());
+                    assertEquals(CHUNK, response.body().length);
+                }
+            }));
+        }
+        for (Future<?> f : done) {
+            f.get();
+        }
+        listeners.shutdown();
+        listeners.awaitTermination(1, TimeUnit.MINUTES);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        Collections.sort(latencies);
+        long requests = latencies.size();
+        System.out.printf("AudioStreamLoadTest - %d listeners, %d range requests in %.2f s: %.0f req/s, %.1f MB/s%n",
+                LISTENERS, requests, seconds, requests / seconds, requests * (double) CHUNK / seconds / (1024 * 1024));
+        System.out.printf("AudioStreamLoadTest - seek latency p50=%.2f ms p99=%.2f ms max=%.2f ms%n",
+                percentile(latencies, 0.50), percentile(latencies, 0.99), latencies.get(latencies.size() - 1) / 1e6);
+    }
+
+    private static HttpResponse<byte[]> send(HttpClient client, HttpRequest request) {
+        try {
+            return client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static double percentile(List<Long> sorted, double p) {
+        return sorted.get((int) Math.min(sorted.size() - 1, Math.ceil(p * sorted.size()) - 1)) / 1e6;
+    }
+
+    private static Path createMediaRoot() {
+        try {
+            return Files.createTempDirectory("media-load");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
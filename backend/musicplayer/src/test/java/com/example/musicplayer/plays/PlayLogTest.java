@@ -0,0 +1,145 @@
+package com.example.musicplayer.plays;
+
+import com.example.musicplayer.exception.ServiceBusyException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PlayLogTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void appendsAcrossSegmentsAndReadsBackOnceDurable() throws Exception {
+        PlayLog log = open(10);
+        assertEquals(25, log.append(plays(7, 25)).get());
+
+        List<PlayEvent> read = new ArrayList<>();
+        assertEquals(25, log.read(0, 100, read));
+        assertEquals(25, read.size());
+        assertEquals(124, read.get(24).getTrackId());
+        assertEquals(3, read.get(3).getSecondsPlayed());
+        assertTrue(log.awaitDurable(24, 10));
+        assertFalse(log.awaitDurable(25, 10));
+        log.close();
+    }
+
+    // A crash can leave a half-written record at the tail; reopening drops it and appends continue from there
+    @Test
+    void recoveryTruncatesTornTail() throws Exception {
+        PlayLog log = open(10);
+        log.append(plays(7, 25)).get();
+        log.close();
+        try (FileChannel channel = FileChannel.open(dir.resolve(String.format("%020d.log", 20)), StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{1}), 2L * PlayLog.RECORD_BYTES + 9); // record 22
+        }
+
+        PlayLog reopened = open(10);
+        assertEquals(22, reopened.getWrittenOffset());
+        assertEquals(23, reopened.append(List.of(new PlayEvent(8, 5, 5, 5))).get());
+        List<PlayEvent> read = new ArrayList<>();
+        reopened.read(20, 10, read);
+        assertEquals(3, read.size());
+        assertEquals(8, read.get(2).getUserId());
+        reopened.close();
+    }
+
+    @Test
+    void deletesConsumedSegmentsButKeepsRetainedOnes() throws Exception {
+        PlayLog log = open(10);
+        log.append(plays(7, 35)).get();
+
+        log.deleteSegmentsBefore(15); // only segment 0 is fully consumed
+        assertEquals(10, log.getFirstOffset());
+        log.deleteSegmentsBefore(35); // 10 goes, 20 and 30 are the two retained
+        assertEquals(20, log.getFirstOffset());
+
+        List<PlayEvent> read = new ArrayList<>();
+        assertEquals(25, log.read(0, 5, read)); // positions below the log skip ahead
+        assertEquals(120, read.get(0).getTrackId());
+        log.close();
+    }
+
+    // A failed sync answers with a 503; the refused records must not become durable behind the client's retry
+    @Test
+    void failedSyncTakesBackTheRefusedRecords() throws Exception {
+        PlayLog log = new PlayLog(new SimpleMeterRegistry(), dir, 10, 60_000, 2);
+        log.open();
+        CompletableFuture<Long> refused = log.append(plays(7, 15)); // rolls into a second segment
+        log.discardUnsynced();
+        ExecutionException failure = assertThrows(ExecutionException.class, refused::get);
+        assertInstanceOf(ServiceBusyException.class, failure.getCause());
+        assertEquals(0, log.getWrittenOffset());
+
+        CompletableFuture<Long> retried = log.append(plays(8, 3));
+        log.close();
+        assertEquals(3, retried.get());
+
+        PlayLog reopened = open(10);
+        assertEquals(3, reopened.getWrittenOffset());
+        List<PlayEvent> read = new ArrayList<>();
+        reopened.read(0, 10, read);
+        assertEquals(3, read.size());
+        assertEquals(8, read.get(0).getUserId());
+        reopened.close();
+    }
+
+    // Every append must be answered even when the sync thread runs between its write and its enqueue.
+    // Each thread waits for its own append before the next, so a missed waiter has nothing behind it.
+    @Test
+    void concurrentAppendsAreAllAnsweredBySync() throws Exception {
+        PlayLog log = new PlayLog(new SimpleMeterRegistry(), dir, 1000, 1, 2);
+        log.open();
+        ExecutorService appenders = Executors.newFixedThreadPool(4);
+        List<Future<?>> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            long userId = t;
+            threads.add(appenders.submit(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    log.append(List.of(new PlayEvent(userId, i, i, 1))).get(2, TimeUnit.SECONDS);
+                }
+                return null;
+            }));
+        }
+        for (Future<?> thread : threads) {
+            thread.get();
+        }
+        appenders.shutdown();
+        assertEquals(4000, log.getDurableOffset());
+        log.close();
+    }
+
+    private PlayLog open(long recordsPerSegment) throws Exception {
+        PlayLog log = new PlayLog(new SimpleMeterRegistry(), dir, recordsPerSegment, 2, 2);
+        log.open();
+        return log;
+    }
+
+    private static List<PlayEvent> plays(long userId, int count) {
+        List<PlayEvent> plays = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            plays.add(new PlayEvent(userId, 100 + i, 1000 + i, i));
+        }
+        return plays;
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.musicplayer.reactive;
+
+import com.example.musicplayer.MusicplayerApplication;
+import com.example.musicplayer.TestUsers;
+import com.example.musicplayer.dto.TrackDTO;
+import com.example.musicplayer.dto.TrackPage;
+import com.example.musicplayer.model.Playlist;
+import com.example.musicplayer.model.PlaylistEntry;
+import com.example.musicplayer.model.Track;
+import com.example.musicplayer.model.User;
+import com.example.musicplayer.repository.PlaylistRepository;
+import com.example.musicplayer.repository.TrackRepository;
+import com.example.musicplayer.repository.UserRepository;
+import com.example.musicplayer.security.JwtProvider;
+import com.example.musicplayer.service.MutationWriteBuffer;
+import com.example.musicplayer.service.UserService;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Boots the MVC app with the "reactive" profile and reads through the Netty tier over R2DBC (same H2 database)
+@SpringBootTest(classes = MusicplayerApplication.class, properties = {
+        "musicplayer.reactive.port=0",
+        "spring.r2dbc.url=r2dbc:h2:mem:///musicplayer;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.r2dbc.username=sa",
+        "spring.r2dbc.password="
+})
+@ActiveProfiles("reactive")
+class ReactiveReadTierTest {
+
+    @Autowired
+    private ReactiveTierLauncher launcher;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TrackRepository trackRepository;
+
+    @Autowired
+    private PlaylistRepository playlistRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private MutationWriteBuffer mutationWriteBuffer;
+
+    @Autowired
+    private JwtProvider jwtProvider;
+
+    @Test
+    void servesCatalogPagesAndNdjsonStream() {
+        for (int i = 0; i < 3; i++) {
+            trackRepository.save(new Track(null, "Reactive " + i + " " + System.nanoTime(), "Artist", "r" + i + ".mp3", null));
+        }
+        WebTestClient client = client();
+
+        TrackPage first = client.get().uri("/api/tracks?size=2").exchange()
+                .expectStatus().isOk()
+                .expectBody(TrackPage.class).returnResult().getResponseBody();
+        assertNotNull(first);
+        assertEquals(2, first.getItems().size());
+        assertNotNull(first.getNextCursor());
+
+        TrackPage second = client.get().uri("/api/tracks?size=2&cursor=" + first.getNextCursor()).exchange()
+                .expectStatus().isOk()
+                .expectBody(TrackPage.class).returnResult().getResponseBody();
+        assertTrue(second.getItems().get(0).getId() > first.getItems().get(1).getId());
+
+        List<TrackDTO> streamed = client.get().uri("/api/tracks").accept(MediaType.APPLICATION_NDJSON).exchange()
+                .expectStatus().isOk()
+                .returnResult(TrackDTO.class).getResponseBody().collectList().block();
+        assertEquals(trackRepository.count(), streamed.size());
+
+        client.get().uri("/api/tracks?cursor=not-a-cursor").exchange().expectStatus().isBadRequest();
+    }
+
+    @Test
+    void servesProfileAndPlaylistsForJwtPrincipal() {
+        User user = TestUsers.save(userRepository, "Reactive Listener", "reactive");
+
+        Track a = trackRepository.save(new Track(null, "Fav " + System.nanoTime(), "Artist", "fav.mp3", null));
+        Track b = trackRepository.save(new Track(null, "Listed " + System.nanoTime(), "Artist", "listed.mp3", null));
+        userService.addFavorite(user.getId(), a.getId());
+        mutationWriteBuffer.flushUser(user.getId());
+
+        Playlist playlist = new Playlist(null, "Commute", user, new ArrayList<>());
+        playlist.getEntries().add(new PlaylistEntry(playlist, a, PlaylistEntry.GAP));
+        playlist.getEntries().add(new PlaylistEntry(playlist, b, 2 * PlaylistEntry.GAP));
+        playlistRepository.save(playlist);
+        playlistRepository.save(new Playlist(null, "Empty", user, new ArrayList<>()));
+
+        WebTestClient client = client();
+        String token = "Bearer " + jwtProvider.generateToken(user.getEmail());
+
+        JsonNode profile = client.get().uri("/api/user/profile").header("Authorization", token).exchange()
+                .expectStatus().isOk()
+                .expectBody(JsonNode.class).returnResult().getResponseBody();
+        assertEquals("Reactive Listener", profile.get("name").asText());
+        assertEquals(a.getId().longValue(), profile.get("favorites").get(0).get("id").asLong());
+        assertEquals(2, profile.get("playlists").size());
+
+        JsonNode playlists = client.get().uri("/api/user/playlists").header("Authorization", token).exchange()
+                .expectStatus().isOk()
+                .expectBody(JsonNode.class).returnResult().getResponseBody();
+        assertEquals("Commute", playlists.get(0).get("name").asText());
+        assertEquals(b.getId().longValue(), playlists.get(0).get("tracks").get(1).get("id").asLong());
+        assertEquals(0, playlists.get(1).get("tracks").size());
+
+        client.get().uri("/api/user/profile").exchange().expectStatus().isForbidden();
+    }
+
+    private WebTestClient client() {
+        return WebTestClient.bindToServer().baseUrl("http://localhost:" + launcher.getPort()).build();
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.musicplayer.recommend;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CooccurrenceMatrixTest {
+
+    @Test
+    void ranksTracksByCosineOverSharedFans() {
+        CooccurrenceMatrix matrix = new CooccurrenceMatrix(100);
+        // 1 and 2 share both fans; 3 shares one fan with 1 but also has a fan of its own
+        matrix.setFavorite(10, 1, true);
+        matrix.setFavorite(10, 2, true);
+        matrix.setFavorite(11, 1, true);
+        matrix.setFavorite(11, 2, true);
+        matrix.setFavorite(11, 3, true);
+        matrix.setFavorite(12, 3, true);
+        matrix.setFavorite(12, 4, true);
+
+        assertArrayEquals(new long[]{2, 3}, matrix.similar(1, 5));
+        assertArrayEquals(new long[]{1, 2}, matrix.recommend(12, 2)); // tie at 0.5 goes to the lower id
+        assertArrayEquals(new long[]{3}, matrix.recommend(10, 5));
+    }
+
+    // Any sequence of adds and removes, including users crossing the cap, must end where a full rebuild would
+    @Test
+    void incrementalUpdatesMatchFullRebuild() throws Exception {
+        int users = 60;
+        int tracks = 40;
+        int cap = 12;
+        Random random = new Random(42);
+        CooccurrenceMatrix incremental = new CooccurrenceMatrix(cap);
+        Map<Long, TreeSet<Long>> truth = new HashMap<>();
+
+        for (int i = 0; i < 20_000; i++) {
+            long userId = 1 + random.nextInt(users);
+            long trackId = 100 + random.nextInt(tracks);
+            boolean favorite = random.nextInt(100) < 55;
+            incremental.setFavorite(userId, trackId, favorite);
+            TreeSet<Long> liked = truth.computeIfAbsent(userId, id -> new TreeSet<>());
+            if (favorite) {
+                liked.add(trackId);
+            } else {
+                liked.remove(trackId);
+            }
+        }
+
+        CooccurrenceMatrix rebuilt = new CooccurrenceMatrix(cap);
+        truth.forEach((userId, liked) -> {
+            long[] ids = liked.stream().mapToLong(Long::longValue).toArray();
+            rebuilt.loadUser(userId, ids, ids.length);
+        });
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            rebuilt.computeCooccurrence(pool);
+        } finally {
+            pool.shutdown();
+        }
+
+        for (long a = 100; a < 100 + tracks; a++) {
+            assertEquals(rebuilt.fans(a), incremental.fans(a), "fans of " + a);
+            for (long b = 100; b < 100 + tracks; b++) {
+                assertEquals(rebuilt.together(a, b), incremental.together(a, b), "fans of both " + a + " and " + b);
+            }
+            assertArrayEquals(rebuilt.similar(a, 10), incremental.similar(a, 10), "similar to " + a);
+        }
+    }
+}
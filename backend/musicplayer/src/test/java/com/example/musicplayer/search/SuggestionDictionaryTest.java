@@ -0,0 +1,74 @@
+package com.example.musicplayer.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SuggestionDictionaryTest {
+
+    private static final Comparator<String> BY_BYTES =
+            (a, b) -> Arrays.compareUnsigned(a.getBytes(StandardCharsets.UTF_8), b.getBytes(StandardCharsets.UTF_8));
+
+    // Shared stems put many keys in one block, so front coding and block boundaries both get exercised
+    private static Map<String, Long> library(int count) {
+        String[] stems = {"the ", "the beatles ", "the bea", "beyoncé ", "björk ", "bach ", "a", "zz top "};
+        Random random = new Random(7);
+        Map<String, Long> keys = new HashMap<>();
+        while (keys.size() < count) {
+            String key = stems[random.nextInt(stems.length)] + Integer.toString(random.nextInt(5000), 36);
+            keys.put(key, (long) random.nextInt(50)); // few distinct weights, so ties are common
+        }
+        return keys;
+    }
+
+    @Test
+    void frontCodedKeysDecodeBackInByteOrder() {
+        Map<String, Long> keys = library(500);
+        SuggestionDictionary dictionary = SuggestionDictionary.build(keys);
+
+        List<String> sorted = new ArrayList<>(keys.keySet());
+        sorted.sort(BY_BYTES);
+        assertEquals(sorted.size(), dictionary.size());
+        for (int i = 0; i < sorted.size(); i++) {
+            assertEquals(sorted.get(i), dictionary.keyAt(i));
+        }
+        int rawBytes = sorted.stream().mapToInt(key -> key.getBytes(StandardCharsets.UTF_8).length).sum();
+        assertTrue(dictionary.encodedBytes() < rawBytes);
+    }
+
+    @Test
+    void topKMatchesABruteForceRanking() {
+        Map<String, Long> keys = library(500);
+        SuggestionDictionary dictionary = SuggestionDictionary.build(keys);
+
+        for (String prefix : List.of("the", "the bea", "the beatles 1", "b", "bj", "beyoncé", "a", "zz top ", "zz", "nothing")) {
+            for (int limit : new int[]{1, 5, 40}) {
+                List<String> expected = keys.keySet().stream()
+                        .filter(key -> key.startsWith(prefix))
+                        .sorted(Comparator.<String>comparingLong(keys::get).reversed().thenComparing(BY_BYTES))
+                        .limit(limit)
+                        .toList();
+                assertEquals(expected, dictionary.topK(prefix, limit), prefix + " / " + limit);
+            }
+        }
+    }
+
+    @Test
+    void emptyInputsAnswerNothing() {
+        assertEquals(List.of(), SuggestionDictionary.EMPTY.topK("a", 5));
+        SuggestionDictionary dictionary = SuggestionDictionary.build(Map.of("abba", 3L));
+        assertEquals(List.of(), dictionary.topK("", 5));
+        assertEquals(List.of(), dictionary.topK("abba", 0));
+        assertEquals(List.of("abba"), dictionary.topK("ab", 5));
+    }
+}
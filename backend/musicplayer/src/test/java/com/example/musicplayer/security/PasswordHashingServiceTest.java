@@ -0,0 +1,33 @@
+package com.example.musicplayer.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PasswordHashingServiceTest {
+
+    // Work chained on a hash (the signup save, a password upgrade) must not hold a hashing thread
+    @Test
+    void chainedWorkRunsOffTheHashingPool() throws Exception {
+        ExecutorService completions = Executors.newSingleThreadExecutor();
+        PasswordHashingService hashing = new PasswordHashingService(new BCryptPasswordEncoder(4), null,
+                new SimpleMeterRegistry(), completions, 1, 4, 1);
+        try {
+            String thread = hashing.encode("secret")
+                    .thenApply(hash -> Thread.currentThread().getName())
+                    .get(10, TimeUnit.SECONDS);
+            assertFalse(thread.startsWith("password-hash-"), thread);
+            assertTrue(hashing.matches("secret", hashing.encode("secret").get(10, TimeUnit.SECONDS)).get(10, TimeUnit.SECONDS));
+        } finally {
+            hashing.shutdown();
+            completions.shutdown();
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.musicplayer.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class PrincipalCacheTest {
+
+    private final long forever = Long.MAX_VALUE;
+
+    @Test
+    void invalidatesEveryTokenOfOneUserOnly() {
+        PrincipalCache cache = new PrincipalCache(new SimpleMeterRegistry(), 100, 300);
+        cache.put("a1", user(1L, "old@example.com"), forever);
+        cache.put("a2", user(1L, "old@example.com"), forever);
+        cache.put("b1", user(2L, "other@example.com"), forever);
+
+        // keyed by id, so a user who just changed their email still loses the old tokens
+        cache.invalidate(1L);
+
+        assertNull(cache.get("a1"));
+        assertNull(cache.get("a2"));
+        assertNotNull(cache.get("b1"));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void evictedTokensLeaveTheIndex() {
+        PrincipalCache cache = new PrincipalCache(new SimpleMeterRegistry(), 1, 300);
+        cache.put("a1", user(1L, "a@example.com"), forever);
+        cache.put("b1", user(2L, "b@example.com"), forever);
+        assertNull(cache.get("a1"));
+
+        cache.invalidate(2L);
+        cache.put("a2", user(1L, "a@example.com"), forever);
+        assertNotNull(cache.get("a2"));
+        assertEquals(1, cache.size());
+    }
+
+    private static AuthenticatedUser user(Long id, String email) {
+        return new AuthenticatedUser(id, email, "User " + id, LocalDate.now());
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.musicplayer.service;
+
+import com.example.musicplayer.TestUsers;
+import com.example.musicplayer.charts.ChartWindow;
+import com.example.musicplayer.charts.TrendingCharts;
+import com.example.musicplayer.dto.FavoriteChangesResponse;
+import com.example.musicplayer.dto.TrackDTO;
+import com.example.musicplayer.model.Track;
+import com.example.musicplayer.repository.TrackRepository;
+import com.example.musicplayer.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Not @Transactional: buffered writes are flushed on their own connection and must see committed rows
+@SpringBootTest
+class FavoriteChangesTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TrackRepository trackRepository;
+
+    @Autowired
+    private TrendingCharts trendingCharts;
+
+    @Test
+    void changesSinceAVersionCarryOnlyTheNetDelta() {
+        Long userId = TestUsers.save(userRepository, "Syncer", "sync").getId();
+        Long a = trackRepository.save(new Track(null, "Sync A " + System.nanoTime(), "Artist", "a.mp3", "a.jpg")).getId();
+        Long b = trackRepository.save(new Track(null, "Sync B " + System.nanoTime(), "Artist", "b.mp3", "b.jpg")).getId();
+
+        userService.addFavorite(userId, a);
+        userService.addFavorite(userId, b);
+        long v1 = userService.getFavoritesVersion(userId);
+        assertEquals(2, userService.getFavorites(userId).size());
+
+        // nothing new since v1
+        FavoriteChangesResponse none = userService.getFavoriteChanges(userId, v1);
+        assertEquals(v1, none.getVersion());
+        assertTrue(none.getAdded().isEmpty() && none.getRemoved().isEmpty());
+
+        // re-adding a favorite changes no row, so the version (and the ETag) stays put
+        userService.addFavorite(userId, a);
+        assertEquals(v1, userService.getFavoritesVersion(userId));
+
+        // a removed and re-added across two flushes, b removed: the latest change per track wins
+        userService.removeFavorite(userId, a);
+        userService.getFavoritesVersion(userId);
+        userService.addFavorite(userId, a);
+        userService.removeFavorite(userId, b);
+        FavoriteChangesResponse delta = userService.getFavoriteChanges(userId, v1);
+        assertFalse(delta.isReset());
+        assertEquals(List.of(a), delta.getAdded().stream().map(TrackDTO::getId).toList());
+        assertEquals(List.of(b), delta.getRemoved());
+
+        // an unknown version can't be answered from the log
+        FavoriteChangesResponse reset = userService.getFavoriteChanges(userId, delta.getVersion() + 100);
+        assertTrue(reset.isReset());
+        assertEquals(1, reset.getAdded().size());
+    }
+
+    // One user re-adding the same favorite over and over must count once, not once per flush
+    @Test
+    void reAddedFavoritesDoNotPumpTrending() {
+        Long a = trackRepository.save(new Track(null, "Pump A " + System.nanoTime(), "Artist", "a.mp3", "a.jpg")).getId();
+        Long b = trackRepository.save(new Track(null, "Pump B " + System.nanoTime(), "Artist", "b.mp3", "b.jpg")).getId();
+        Long pumper = newUser();
+        for (int i = 0; i < 4; i++) {
+            userService.addFavorite(pumper, a);
+            userService.getFavoritesVersion(pumper);
+        }
+        for (int i = 0; i < 2; i++) {
+            Long fan = newUser();
+            userService.addFavorite(fan, b);
+            userService.getFavoritesVersion(fan);
+        }
+        trendingCharts.publish();
+
+        List<Long> hour = Arrays.stream(trendingCharts.top(ChartWindow.HOUR, Integer.MAX_VALUE)).boxed().toList();
+        assertTrue(hour.indexOf(b) >= 0 && hour.indexOf(b) < hour.indexOf(a));
+    }
+
+    @Test
+    void unknownTrackIsRejectedBeforeItIsBuffered() {
+        assertThrows(RuntimeException.class, () -> userService.addFavorite(1L, Long.MAX_VALUE));
+        assertThrows(RuntimeException.class, () -> userService.toggleFavorite(1L, Long.MAX_VALUE));
+
+        Long userId = newUser();
+        Long playlistId = userService.createPlaylist(userId, "Nothing yet");
+        RuntimeException unknown = assertThrows(RuntimeException.class,
+                () -> userService.addTrackToPlaylist(userId, playlistId, Long.MAX_VALUE));
+        assertTrue(unknown.getMessage().startsWith("Track not found"));
+    }
+
+    private Long newUser() {
+        return TestUsers.save(userRepository, "Fan", "fan").getId();
+    }
+}
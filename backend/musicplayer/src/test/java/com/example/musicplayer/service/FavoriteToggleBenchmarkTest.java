@@ -0,0 +1,89 @@
+package com.example.musicplayer.service;
+
+import com.example.musicplayer.TestUsers;
+import com.example.musicplayer.model.User;
+import com.example.musicplayer.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Favorite toggle cost for a user with 50k favorites: direct row operations vs. hydrating
+ * the favorites collection as the old toggle did.
+ * Run with: mvn test -Dtest=FavoriteToggleBenchmarkTest -DloadTests=true
+ */
+@SpringBootTest
+@EnabledIfSystemProperty(named = "loadTests", matches = "true")
+class FavoriteToggleBenchmarkTest {
+
+    private static final int FAVORITES = 50_000;
+    private static final int TOGGLES = 2_000;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Long userId;
+    private long firstTrackId;
+
+    @BeforeEach
+    void seed() {
+        userId = TestUsers.save(userRepository, "Power User", "power").getId();
+
+        List<Object[]> tracks = new ArrayList<>(FAVORITES);
+        String prefix = "bench-" + System.nanoTime() + "-";
+        for (int i = 0; i < FAVORITES; i++) {
+            tracks.add(new Object[]{prefix + i, "Bench Artist", "bench.mp3"});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO Track (title, artist, url) VALUES (?, ?, ?)", tracks);
+        firstTrackId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM Track WHERE title LIKE ?", Long.class, prefix + "%");
+        jdbcTemplate.update("INSERT INTO user_favorites (user_id, track_id) SELECT ?, id FROM Track WHERE title LIKE ?",
+                userId, prefix + "%");
+    }
+
+    @Test
+    void toggleCostIsIndependentOfLibrarySize() {
+        Random random = new Random(7);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < TOGGLES; i++) {
+            long trackId = firstTrackId + random.nextInt(FAVORITES);
+            userService.toggleFavorite(userId, trackId);
+            userService.toggleFavorite(userId, trackId); // restore
+        }
+        double rowOpsMicros = (System.nanoTime() - start) / 1e3 / (TOGGLES * 2);
+
+        int hydrations = 20;
+        start = System.nanoTime();
+        for (int i = 0; i < hydrations; i++) {
+            long trackId = firstTrackId + random.nextInt(FAVORITES);
+            transactionTemplate.executeWithoutResult(status -> {
+                User user = userRepository.findById(userId).orElseThrow();
+                user.getFavorites().stream().anyMatch(t -> t.getId().equals(trackId));
+            });
+        }
+        double hydrateMicros = (System.nanoTime() - start) / 1e3 / hydrations;
+
+        assertEquals(FAVORITES, userService.getFavorites(userId).size());
+        System.out.printf("FavoriteToggleBenchmarkTest - %d favorites: row toggle %.1f us/op, collection membership check %.1f us/op%n",
+                FAVORITES, rowOpsMicros, hydrateMicros);
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.musicplayer.service;
+
+import com.example.musicplayer.TestUsers;
+import com.example.musicplayer.model.Playlist;
+import com.example.musicplayer.model.PlaylistEntry;
+import com.example.musicplayer.model.Track;
+import com.example.musicplayer.model.User;
+import com.example.musicplayer.repository.PlaylistRepository;
+import com.example.musicplayer.repository.TrackRepository;
+import com.example.musicplayer.repository.UserRepository;
+import com.example.musicplayer.security.AuthenticatedUser;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayOutputStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// The streamed profile must carry the same JSON as Jackson would write for UserProfileResponse
+@SpringBootTest
+class LibraryJsonStreamerTest {
+
+    @Autowired
+    private LibraryJsonStreamer libraryJsonStreamer;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TrackRepository trackRepository;
+
+    @Autowired
+    private PlaylistRepository playlistRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void streamedProfileMatchesMaterializedProfile() throws Exception {
+        User user = TestUsers.newUser("Streamer", "stream");
+        user.setJoinedAt(LocalDate.of(2024, 5, 1));
+        userRepository.save(user);
+
+        String suffix = " " + System.nanoTime();
+        Track a = trackRepository.save(new Track(null, "Stream A" + suffix, "Artist", "a.mp3", "a.jpg"));
+        Track b = trackRepository.save(new Track(null, "Stream B" + suffix, "Artist", "b.mp3", null));
+        userService.addFavorite(user.getId(), a.getId());
+
+        Playlist full = new Playlist(null, "Full", user, new ArrayList<>());
+        full.getEntries().add(new PlaylistEntry(full, b, PlaylistEntry.GAP));
+        full.getEntries().add(new PlaylistEntry(full, a, 2 * PlaylistEntry.GAP));
+        playlistRepository.save(full);
+        playlistRepository.save(new Playlist(null, "Empty", user, new ArrayList<>()));
+
+        AuthenticatedUser principal = AuthenticatedUser.from(user);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        libraryJsonStreamer.profile(principal).writeTo(out);
+
+        JsonNode streamed = objectMapper.readTree(out.toByteArray());
+        // Parsed from bytes on both sides, so ids compare as the same numeric node type
+        JsonNode materialized = objectMapper.readTree(objectMapper.writeValueAsBytes(userService.getProfile(principal)));
+        assertEquals(materialized, streamed);
+        assertEquals(2, streamed.get("playlists").size());
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.musicplayer.service;
+
+import com.example.musicplayer.TestUsers;
+import com.example.musicplayer.dto.PlaylistEntryPage;
+import com.example.musicplayer.model.PlaylistEntry;
+import com.example.musicplayer.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Edit cost on a 10k-entry playlist: positional entries vs. the old bag mapping, which
+ * Hibernate persisted by deleting every playlist_tracks row and re-inserting the list.
+ * Run with: mvn test -Dtest=PlaylistEditBenchmarkTest -DloadTests=true
+ */
+@SpringBootTest
+@EnabledIfSystemProperty(named = "loadTests", matches = "true")
+class PlaylistEditBenchmarkTest {
+
+    private static final int ENTRIES = 10_000;
+    private static final int EDITS = 500;
+
+    @Autowired
+    private PlaylistService playlistService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Long userId;
+    private Long playlistId;
+    private List<Long> trackIds;
+    private List<Long> entryIds;
+
+    @BeforeEach
+    void seed() {
+        userId = TestUsers.save(userRepository, "Curator", "curator").getId();
+        playlistId = userService.createPlaylist(userId, "Everything");
+
+        List<Object[]> tracks = new ArrayList<>(ENTRIES);
+        String prefix = "pl-bench-" + System.nanoTime() + "-";
+        for (int i = 0; i < ENTRIES; i++) {
+            tracks.add(new Object[]{prefix + i, "Bench Artist", "bench.mp3"});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO Track (title, artist, url) VALUES (?, ?, ?)", tracks);
+        trackIds = jdbcTemplate.queryForList("SELECT id FROM Track WHERE title LIKE ? ORDER BY id", Long.class, prefix + "%");
+
+        List<Object[]> entries = new ArrayList<>(ENTRIES);
+        for (int i = 0; i < ENTRIES; i++) {
+            entries.add(new Object[]{playlistId, trackIds.get(i), (i + 1) * PlaylistEntry.GAP});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO playlist_entries (playlist_id, track_id, position) VALUES (?, ?, ?)", entries);
+        entryIds = jdbcTemplate.queryForList("SELECT id FROM playlist_entries WHERE playlist_id = ? ORDER BY position", Long.class, playlistId);
+
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS bag_playlist_tracks (playlist_id BIGINT, track_id BIGINT)");
+    }
+
+    @Test
+    void positionalEditsTouchOneRow() {
+        Random random = new Random(11);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        long start = System.nanoTime();
+        for (int i = 0; i < EDITS; i++) {
+            // Anchored, as a client editing an open playlist would: one keyset seek per insert
+            int index = random.nextInt(ENTRIES);
+            playlistService.insertNextTo(userId, playlistId, trackIds.get(index), entryIds.get(index), false);
+        }
+        double insertMicros = (System.nanoTime() - start) / 1e3 / EDITS;
+        long entityWrites = statistics.getEntityInsertCount() + statistics.getEntityUpdateCount();
+
+        // the old bag: every edit rewrote the whole join table slice
+        List<Long> bag = new ArrayList<>(trackIds);
+        int bagEdits = 20;
+        start = System.nanoTime();
+        for (int i = 0; i < bagEdits; i++) {
+            int index = random.nextInt(bag.size());
+            bag.add(index, trackIds.get(index));
+            jdbcTemplate.update("DELETE FROM bag_playlist_tracks WHERE playlist_id = ?", playlistId);
+            List<Object[]> rows = new ArrayList<>(bag.size());
+            bag.forEach(trackId -> rows.add(new Object[]{playlistId, trackId}));
+            jdbcTemplate.batchUpdate("INSERT INTO bag_playlist_tracks (playlist_id, track_id) VALUES (?, ?)", rows);
+        }
+        double bagMicros = (System.nanoTime() - start) / 1e3 / bagEdits;
+
+        assertEquals(EDITS, entityWrites);
+        int seen = 0;
+        String cursor = null;
+        do {
+            PlaylistEntryPage page = playlistService.getEntries(userId, playlistId, cursor, 500);
+            seen += page.getItems().size();
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        assertEquals(ENTRIES + EDITS, seen);
+        assertTrue(insertMicros < bagMicros);
+        System.out.printf("PlaylistEditBenchmarkTest - %d entries: positional insert %.1f us/op, bag rewrite %.1f us/op%n",
+                ENTRIES, insertMicros, bagMicros);
+    }
+}
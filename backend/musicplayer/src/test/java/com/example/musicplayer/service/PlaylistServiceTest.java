@@ -0,0 +1,85 @@
+package com.example.musicplayer.service;
+
+import com.example.musicplayer.TestUsers;
+import com.example.musicplayer.dto.PlaylistEntryDTO;
+import com.example.musicplayer.model.Track;
+import com.example.musicplayer.repository.TrackRepository;
+import com.example.musicplayer.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+class PlaylistServiceTest {
+
+    @Autowired
+    private PlaylistService playlistService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TrackRepository trackRepository;
+
+    @Test
+    void anchoredEditsLandNextToTheirAnchor() {
+        Long userId = TestUsers.save(userRepository, "Curator", "anchored").getId();
+        Long playlistId = userService.createPlaylist(userId, "Anchored");
+        List<Long> tracks = tracks(4);
+
+        Long a = playlistService.insertAt(userId, playlistId, tracks.get(0), null).getEntryId();
+        Long c = playlistService.insertAt(userId, playlistId, tracks.get(2), null).getEntryId();
+        Long b = playlistService.insertNextTo(userId, playlistId, tracks.get(1), a, true).getEntryId();
+        Long d = playlistService.insertNextTo(userId, playlistId, tracks.get(3), a, false).getEntryId();
+        assertEquals(List.of(d, a, b, c), order(userId, playlistId));
+
+        playlistService.moveNextTo(userId, playlistId, d, c, true);
+        assertEquals(List.of(a, b, c, d), order(userId, playlistId));
+        playlistService.moveNextTo(userId, playlistId, c, a, false);
+        assertEquals(List.of(c, a, b, d), order(userId, playlistId));
+
+        assertThrows(RuntimeException.class, () -> playlistService.moveNextTo(userId, playlistId, a, a, true));
+        assertThrows(RuntimeException.class, () -> playlistService.insertNextTo(userId, playlistId, tracks.get(0), Long.MAX_VALUE, true));
+    }
+
+    // Halving one gap over and over runs out of room and renumbers the playlist mid-edit
+    @Test
+    void repeatedInsertsIntoOneGapRenumber() {
+        Long userId = TestUsers.save(userRepository, "Curator", "renumber").getId();
+        Long playlistId = userService.createPlaylist(userId, "Crowded");
+        List<Long> tracks = tracks(2);
+        Long first = playlistService.insertAt(userId, playlistId, tracks.get(0), null).getEntryId();
+        Long last = playlistService.insertAt(userId, playlistId, tracks.get(1), null).getEntryId();
+
+        List<Long> expected = new ArrayList<>(List.of(first, last));
+        Long anchor = last;
+        for (int i = 0; i < 40; i++) {
+            anchor = playlistService.insertNextTo(userId, playlistId, tracks.get(0), anchor, false).getEntryId();
+            expected.add(1, anchor);
+        }
+        assertEquals(expected, order(userId, playlistId));
+    }
+
+    private List<Long> tracks(int count) {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            ids.add(trackRepository.save(new Track(null, "Anchor " + i + " " + System.nanoTime(), "Artist", "a.mp3", null)).getId());
+        }
+        return ids;
+    }
+
+    private List<Long> order(Long userId, Long playlistId) {
+        return playlistService.getEntries(userId, playlistId, null, 500).getItems().stream()
+                .map(PlaylistEntryDTO::getEntryId)
+                .toList();
+    }
+}
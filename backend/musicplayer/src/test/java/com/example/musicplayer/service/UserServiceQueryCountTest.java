@@ -0,0 +1,89 @@
+package com.example.musicplayer.service;
+
+import com.example.musicplayer.TestUsers;
+import com.example.musicplayer.dto.UserProfileResponse;
+import com.example.musicplayer.model.Playlist;
+import com.example.musicplayer.model.PlaylistEntry;
+import com.example.musicplayer.model.Track;
+import com.example.musicplayer.model.User;
+import com.example.musicplayer.repository.PlaylistRepository;
+import com.example.musicplayer.repository.TrackRepository;
+import com.example.musicplayer.repository.UserRepository;
+import com.example.musicplayer.security.AuthenticatedUser;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@Transactional
+class UserServiceQueryCountTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TrackRepository trackRepository;
+
+    @Autowired
+    private PlaylistRepository playlistRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void profileLoadCostsConstantStatementsRegardlessOfPlaylistCount() {
+        long fewPlaylists = statementsForProfile("few", 1);
+        long manyPlaylists = statementsForProfile("many", 12);
+
+        // favorites + playlists-with-tracks; the user comes from the authenticated principal
+        assertEquals(2, fewPlaylists);
+        assertEquals(fewPlaylists, manyPlaylists);
+    }
+
+    private long statementsForProfile(String emailPrefix, int playlistCount) {
+        User user = TestUsers.newUser("Listener", emailPrefix);
+        userRepository.save(user);
+
+        List<Track> tracks = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            tracks.add(trackRepository.save(new Track(null, "Song " + i + " " + user.getEmail(), "Artist " + i, "url" + i, "cover" + i)));
+        }
+        user.getFavorites().addAll(tracks.subList(0, 5));
+        for (int i = 0; i < playlistCount; i++) {
+            Playlist playlist = new Playlist(null, "Mix " + i, user, new ArrayList<>());
+            for (int j = 0; j < 5; j++) {
+                playlist.getEntries().add(new PlaylistEntry(playlist, tracks.get(i % 5 + j), (j + 1) * PlaylistEntry.GAP));
+            }
+            playlistRepository.save(playlist);
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        UserProfileResponse profile = userService.getProfile(AuthenticatedUser.from(user));
+
+        assertEquals(5, profile.getFavorites().size());
+        assertEquals(playlistCount, profile.getPlaylists().size());
+        profile.getPlaylists().forEach(playlist -> assertEquals(5, playlist.getTracks().size()));
+        return statistics.getPrepareStatementCount();
+    }
+}
@@ -25,6 +25,8 @@ const Home = () => {
   const [activeTab, setActiveTab] = useState("home");
   const [user, setUser] = useState({});
   const [recentTracks, setRecentTracks] = useState([]);
+  const [tracksCursor, setTracksCursor] = useState(null);
+  const [loadingMore, setLoadingMore] = useState(false);
   const [currentTrack, setCurrentTrack] = useState(null);
   const [isPlaying, setIsPlaying] = useState(false);
   const [isRepeat, setIsRepeat] = useState(false);
@@ -34,8 +36,11 @@ const Home = () => {
   const [favorites, setFavorites] = useState([]);
   const [dropdownOpen, setDropdownOpen] = useState(false);
   const [searchQuery, setSearchQuery] = useState("");
+  const [searchResults, setSearchResults] = useState([]);
+  const [suggestions, setSuggestions] = useState([]);
   const [errorMsg, setErrorMsg] = useState("");
   const audioRef = useRef(null);
+  const favoritesVersion = useRef(null);
 
   const formatTime = (time) => {
     const m = Math.floor(time / 60);
@@ -48,6 +53,30 @@ const Home = () => {
     setQueueIndex(prev => prev + 1);
   };
 
+  // Full list once, then only the deltas since the version we hold
+  const syncFavorites = async (headers) => {
+    if (favoritesVersion.current === null) {
+      const res = await axios.get(`${API_BASE}/user/favorites`, { headers });
+      favoritesVersion.current = Number(res.headers.etag?.replace(/"/g, "").split("-").pop() ?? 0);
+      setFavorites(res.data);
+      return;
+    }
+    const res = await axios.get(`${API_BASE}/user/favorites/changes`, {
+      headers,
+      params: { since: favoritesVersion.current },
+    });
+    const { version, reset, added, removed } = res.data;
+    favoritesVersion.current = version;
+    if (reset) {
+      setFavorites(added);
+      return;
+    }
+    setFavorites(prev => {
+      const gone = new Set([...removed, ...added.map(t => t.id)]);
+      return [...prev.filter(f => !gone.has(f.id)), ...added];
+    });
+  };
+
   const handleToggleFavorite = async (trackId) => {
     try {
       const token = localStorage.getItem("token");
@@ -69,9 +98,7 @@ const Home = () => {
         await axios.post(url, {}, { headers });
       }
 
-      // Always fetch updated list from backend to ensure consistency
-      const updatedFavorites = await fetchWithDetailedError(`${API_BASE}/favorites`);
-      setFavorites(updatedFavorites);
+      await syncFavorites(headers);
     } catch (err) {
       setErrorMsg(err.message || "Error updating favorites");
       console.error("Favorite toggle failed:", err);
@@ -176,6 +203,8 @@ const Home = () => {
         console.log('User check response:', response);
         if (response.includes('true')) {
           // User exists, proceed with fetching data
+            syncFavorites({ 'Authorization': `Bearer ${token}` })
+              .catch(err => console.error('Favorites sync failed:', err));
             return Promise.all([
               fetchWithDetailedError(`${API_BASE}/tracks`)
             ]);
@@ -185,8 +214,9 @@ const Home = () => {
             return Promise.reject(new Error('User not found'));
           }
         })
-        .then(([tracks]) => {
-          setRecentTracks(tracks);
+        .then(([page]) => {
+          setRecentTracks(page.items);
+          setTracksCursor(page.nextCursor);
         })
       .catch((err) => {
         console.error('Error:', err);
@@ -194,6 +224,23 @@ const Home = () => {
       });
   }, []);
 
+  // The catalog is keyset-paged; each page hands back the cursor for the next one
+  const loadMoreTracks = async () => {
+    if (!tracksCursor || loadingMore) return;
+    setLoadingMore(true);
+    try {
+      const page = await fetchWithDetailedError(
+        `${API_BASE}/tracks?cursor=${encodeURIComponent(tracksCursor)}`
+      );
+      setRecentTracks((prev) => [...prev, ...page.items]);
+      setTracksCursor(page.nextCursor);
+    } catch (err) {
+      setErrorMsg(err.message || "Error loading more tracks");
+    } finally {
+      setLoadingMore(false);
+    }
+  };
+
   const handleTrackClick = (track) => {
     setCurrentTrack(track);
     setQueue(recentTracks);
@@ -237,11 +284,26 @@ const Home = () => {
     return () => audio.removeEventListener("ended", onEnded);
   }, [isRepeat, playNext]);
 
-  const filteredTracks = recentTracks.filter(
-    (t) =>
-      t.title.toLowerCase().includes(searchQuery.toLowerCase()) ||
-      t.artist.toLowerCase().includes(searchQuery.toLowerCase())
-  );
+  // Search runs against the server-side index; debounce so we send one request per pause in typing
+  useEffect(() => {
+    const query = searchQuery.trim();
+    if (!query) {
+      setSearchResults([]);
+      setSuggestions([]);
+      return;
+    }
+    const timer = setTimeout(() => {
+      axios.get(`${API_BASE}/tracks/search`, { params: { q: query } })
+        .then((res) => setSearchResults(res.data))
+        .catch((err) => console.error("Search failed:", err));
+      axios.get(`${API_BASE}/tracks/suggest`, { params: { prefix: query } })
+        .then((res) => setSuggestions(res.data))
+        .catch((err) => console.error("Suggest failed:", err));
+    }, 150);
+    return () => clearTimeout(timer);
+  }, [searchQuery]);
+
+  const filteredTracks = searchQuery.trim() ? searchResults : recentTracks;
 
 
   const logout = () => {
@@ -307,7 +369,13 @@ const Home = () => {
             className="w-full px-4 py-2 border rounded-lg shadow-sm focus:outline-none focus:ring-2 focus:ring-indigo-300"
             value={searchQuery}
             onChange={(e) => setSearchQuery(e.target.value)}
+            list="track-suggestions"
           />
+          <datalist id="track-suggestions">
+            {suggestions.map((s) => (
+              <option key={`${s.type}:${s.text}`} value={s.text} />
+            ))}
+          </datalist>
         </div>
 
         {activeTab === "home" && (
@@ -330,6 +398,17 @@ const Home = () => {
                 </div>
               ))}
             </div>
+            {!searchQuery.trim() && tracksCursor && (
+              <div className="flex justify-center mt-6">
+                <button
+                  onClick={loadMoreTracks}
+                  disabled={loadingMore}
+                  className="px-4 py-2 rounded bg-indigo-600 text-white hover:bg-indigo-700 disabled:opacity-50"
+                >
+                  {loadingMore ? "Loading..." : "Load more"}
+                </button>
+              </div>
+            )}
           </div>
         )}
 
@@ -1,9 +1,30 @@
-import React, { useState } from "react";
+import React, { useEffect, useRef, useState } from "react";
 import {
   FiPlay, FiPause, FiSkipBack, FiSkipForward, FiRepeat, FiShuffle,
   FiShare2, FiChevronDown, FiHeart, FiPlus, FiList
 } from "react-icons/fi";
 
+// Plays are reported in batches: buffered here and flushed every few seconds and when the page goes away
+const PLAYS_URL = "http://localhost:8080/api/plays";
+const PLAY_FLUSH_MS = 10000;
+let pendingPlays = [];
+
+const flushPlays = () => {
+  const token = localStorage.getItem("token");
+  if (!token || pendingPlays.length === 0) return;
+  const batch = pendingPlays;
+  pendingPlays = [];
+  // keepalive lets the last batch survive a tab close
+  fetch(PLAYS_URL, {
+    method: "POST",
+    keepalive: true,
+    headers: { "Content-Type": "application/json", Authorization: `Bearer ${token}` },
+    body: JSON.stringify(batch),
+  }).catch(() => {
+    pendingPlays = batch.concat(pendingPlays); // only network errors are retried
+  });
+};
+
 const MusicPlayer = ({
   track,
   isPlaying,
@@ -28,6 +49,34 @@ const MusicPlayer = ({
   audioRef
 }) => {
   const [isExpanded, setIsExpanded] = useState(false);
+  const listenedRef = useRef(0);
+
+  useEffect(() => {
+    listenedRef.current = Math.max(listenedRef.current, currentTime || 0);
+  }, [currentTime]);
+
+  // A play is recorded when the player moves on from a track (or unmounts) after at least a second
+  useEffect(() => {
+    const trackId = Number(track?.id);
+    const playedAt = Date.now();
+    listenedRef.current = 0;
+    return () => {
+      const seconds = Math.floor(listenedRef.current);
+      if (Number.isInteger(trackId) && trackId > 0 && seconds >= 1) {
+        pendingPlays.push({ trackId, playedAt, secondsPlayed: seconds });
+      }
+    };
+  }, [track?.id]);
+
+  useEffect(() => {
+    const timer = setInterval(flushPlays, PLAY_FLUSH_MS);
+    window.addEventListener("pagehide", flushPlays);
+    return () => {
+      clearInterval(timer);
+      window.removeEventListener("pagehide", flushPlays);
+      flushPlays();
+    };
+  }, []);
 
   const formatTime = (seconds = 0) => {
     const mins = Math.floor(seconds / 60) || 0;